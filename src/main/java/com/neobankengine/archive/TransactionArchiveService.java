@@ -0,0 +1,221 @@
+package com.neobankengine.archive;
+
+import com.neobankengine.dto.ArchiveStatusResponse;
+import com.neobankengine.dto.TransactionResponse;
+import com.neobankengine.exception.ConflictException;
+import com.neobankengine.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Moves whole months older than {@code archive.transactions.retention-months} out of the
+ * transaction table into {@link TransactionSegment} files, oldest month first.
+ *
+ * Per month: stream the rows in segment order through a DB cursor into a temp file,
+ * check the row count, rename it into place, publish it (the watermark moves past the
+ * month, so readers switch to the segment), wait until other nodes have rescanned, then
+ * delete the month's rows in small chunks. A crash after publishing is repaired by the
+ * next run, which first deletes any rows still below the watermark.
+ *
+ * Runs monthly ({@code archive.transactions.cron}) or when an admin starts it.
+ */
+@Service
+@Slf4j
+public class TransactionArchiveService {
+
+    // statements, the month-end batch and dashboards read recent months from the table directly
+    public static final int MIN_RETENTION_MONTHS = 3;
+
+    private static final int DELETE_CHUNK = 5000;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionSegmentStore segmentStore;
+    private final TransactionTemplate tx;
+    private final int retentionMonths;
+    private final long publishDelayMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile String lastError;
+
+    public TransactionArchiveService(TransactionRepository transactionRepository,
+                                     TransactionSegmentStore segmentStore,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${archive.transactions.retention-months:12}") int retentionMonths,
+                                     @Value("${archive.transactions.rescan-ms:60000}") long rescanMs) {
+        if (retentionMonths < MIN_RETENTION_MONTHS) {
+            throw new IllegalArgumentException("archive.transactions.retention-months must be at least "
+                    + MIN_RETENTION_MONTHS);
+        }
+        this.transactionRepository = transactionRepository;
+        this.segmentStore = segmentStore;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.retentionMonths = retentionMonths;
+        // two rescan periods: every node has switched to the segment before rows disappear
+        this.publishDelayMs = 2 * rescanMs;
+    }
+
+    // ------------------------------------------------
+    // START / STATUS
+    // ------------------------------------------------
+
+    @Scheduled(cron = "${archive.transactions.cron:0 30 2 2 * *}")
+    public void scheduledRun() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("transaction archive: previous run still in progress, skipping");
+            return;
+        }
+        try {
+            archiveEligibleMonths();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public ArchiveStatusResponse start() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("Transaction archiving is already in progress.");
+        }
+        Thread.ofVirtual().name("transaction-archive").start(() -> {
+            try {
+                archiveEligibleMonths();
+            } finally {
+                running.set(false);
+            }
+        });
+        return status();
+    }
+
+    public ArchiveStatusResponse status() {
+        TransactionSegmentStore.State state = segmentStore.state();
+        return new ArchiveStatusResponse(
+                running.get(),
+                retentionMonths,
+                state.archivedBefore(),
+                state.segments().values().stream()
+                        .map(s -> new ArchiveStatusResponse.Segment(s.getMonth().toString(), s.getRowCount(), s.getSizeBytes()))
+                        .toList(),
+                lastError);
+    }
+
+    // ------------------------------------------------
+    // RUN
+    // ------------------------------------------------
+
+    private void archiveEligibleMonths() {
+        try {
+            lastError = null;
+            LocalDateTime watermark = segmentStore.archivedBefore();
+            if (watermark != null) {
+                // rows left behind by a run that stopped after publishing
+                YearMonth newest = YearMonth.from(watermark).minusMonths(1);
+                awaitVisibleEverywhere(TransactionSegmentStore.fileFor(segmentStore.getDir(), newest));
+                deleteOlderThan(watermark);
+            }
+
+            YearMonth first = watermark != null ? YearMonth.from(watermark) : firstMonthInTable();
+            YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+            if (first == null) {
+                return;
+            }
+            // every month, even an empty one, gets a segment so archived months stay contiguous
+            for (YearMonth month = first; month.isBefore(cutoff); month = month.plusMonths(1)) {
+                archiveMonth(month);
+            }
+        } catch (Exception ex) {
+            Throwable cause = ex instanceof UncheckedIOException && ex.getCause() != null ? ex.getCause() : ex;
+            lastError = cause.getMessage();
+            log.error("transaction archive failed", cause);
+        }
+    }
+
+    private void archiveMonth(YearMonth month) throws IOException, InterruptedException {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+        long started = System.nanoTime();
+
+        Path dir = segmentStore.getDir();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, TransactionSegmentStore.PREFIX, ".part");
+        try {
+            long rows;
+            try (TransactionSegment.Writer writer = TransactionSegment.writer(tmp)) {
+                // count and rows from the same snapshot, on the primary (a read-only
+                // transaction could be served by a lagging replica; the rows are deleted after)
+                long expected = tx.execute(status -> {
+                    long count = transactionRepository.countByTimestampGreaterThanEqualAndTimestampLessThan(start, end);
+                    try (Stream<TransactionResponse> monthRows = transactionRepository.streamForArchive(start, end)) {
+                        monthRows.forEach(r -> {
+                            try {
+                                writer.add(r);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                    }
+                    return count;
+                });
+                writer.finish();
+                rows = writer.getRowCount();
+                if (rows != expected) {
+                    throw new IllegalStateException("Archive of " + month + " wrote " + rows + " rows, expected " + expected);
+                }
+            }
+
+            Path target = TransactionSegmentStore.fileFor(dir, month);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+            TransactionSegment segment = TransactionSegment.open(target, month);
+            segmentStore.publish(segment);
+
+            awaitVisibleEverywhere(target);
+            long deleted = deleteOlderThan(end);
+            log.info("transaction archive: {} -> {} ({} rows, {} KiB, {} deleted from table) in {} ms",
+                    month, target.getFileName(), rows, segment.getSizeBytes() / 1024, deleted,
+                    (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private YearMonth firstMonthInTable() {
+        LocalDateTime min = transactionRepository.findMinTimestamp();
+        return min == null ? null : YearMonth.from(min);
+    }
+
+    private long deleteOlderThan(LocalDateTime before) {
+        long total = 0;
+        int n;
+        do {
+            n = tx.execute(status -> transactionRepository.deleteOlderThan(before, DELETE_CHUNK));
+            total += n;
+        } while (n == DELETE_CHUNK);
+        return total;
+    }
+
+    // other nodes rescan the directory; don't delete rows they may still read from the table
+    private void awaitVisibleEverywhere(Path segmentFile) throws IOException, InterruptedException {
+        if (!Files.exists(segmentFile)) {
+            return;
+        }
+        long visibleAt = Files.getLastModifiedTime(segmentFile).toMillis() + publishDelayMs;
+        long wait = visibleAt - System.currentTimeMillis();
+        if (wait > 0) {
+            Thread.sleep(wait);
+        }
+    }
+}
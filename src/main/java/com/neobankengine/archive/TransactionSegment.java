@@ -0,0 +1,389 @@
+package com.neobankengine.archive;
+
+import com.neobankengine.dto.TransactionResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * One archived month of transactions in an immutable file.
+ *
+ * Layout: {@code MAGIC | block... | index | indexOffset | MAGIC}. Rows are sorted by
+ * (accountId, timestamp, transactionId) and cut into blocks of {@link #BLOCK_ROWS}, each
+ * Deflate-compressed and CRC-checked. The index is sparse, one entry per block with its
+ * first and last accountId, so an account's rows are found by binary search over the
+ * in-memory index and only the blocks holding them are read and inflated.
+ *
+ * Reads use positional FileChannel reads and are safe from any number of threads.
+ */
+public final class TransactionSegment implements Closeable {
+
+    static final long MAGIC = 0x4e42545853454731L; // "NBTXSEG1"
+    static final int BLOCK_ROWS = 1024;
+
+    private static final int HEADER_BYTES = 8;
+    private static final int FOOTER_BYTES = 16;
+    // firstAccount, lastAccount, offset (8 each) + compressed, raw, rows, crc (4 each)
+    private static final int INDEX_ENTRY_BYTES = 40;
+
+    private static final int HAS_TYPE = 1;
+    private static final int HAS_AMOUNT = 2;
+    private static final int HAS_REFERENCE = 4;
+
+    private final YearMonth month;
+    private final Path file;
+    private final FileChannel channel;
+
+    // sparse index, one slot per block
+    private final long[] firstAccount;
+    private final long[] lastAccount;
+    private final long[] offset;
+    private final int[] compressedLength;
+    private final int[] rawLength;
+    private final int[] crc;
+    private final long rowCount;
+    private final long sizeBytes;
+
+    private TransactionSegment(YearMonth month, Path file, FileChannel channel, int blocks, long sizeBytes,
+                               long rowCount) {
+        this.month = month;
+        this.file = file;
+        this.channel = channel;
+        this.firstAccount = new long[blocks];
+        this.lastAccount = new long[blocks];
+        this.offset = new long[blocks];
+        this.compressedLength = new int[blocks];
+        this.rawLength = new int[blocks];
+        this.crc = new int[blocks];
+        this.sizeBytes = sizeBytes;
+        this.rowCount = rowCount;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    // ------------------------------------------------
+    // READ
+    // ------------------------------------------------
+
+    /**
+     * Opens a segment and loads its index. Fails if the file is truncated or not a segment.
+     */
+    public static TransactionSegment open(Path file, YearMonth month) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = ch.size();
+            if (size < HEADER_BYTES + FOOTER_BYTES) {
+                throw new IOException("Not a transaction segment: " + file);
+            }
+            ByteBuffer footer = readFully(ch, size - FOOTER_BYTES, FOOTER_BYTES);
+            long indexOffset = footer.getLong();
+            if (footer.getLong() != MAGIC || readFully(ch, 0, HEADER_BYTES).getLong() != MAGIC) {
+                throw new IOException("Not a transaction segment (bad magic): " + file);
+            }
+
+            ByteBuffer index = readFully(ch, indexOffset, (int) (size - FOOTER_BYTES - indexOffset));
+            int blocks = index.getInt();
+            long rows = index.getLong();
+            TransactionSegment seg = new TransactionSegment(month, file, ch, blocks, size, rows);
+            for (int b = 0; b < blocks; b++) {
+                seg.firstAccount[b] = index.getLong();
+                seg.lastAccount[b] = index.getLong();
+                seg.offset[b] = index.getLong();
+                seg.compressedLength[b] = index.getInt();
+                seg.rawLength[b] = index.getInt();
+                index.getInt(); // rows in block
+                seg.crc[b] = index.getInt();
+            }
+            return seg;
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The account's rows with from <= timestamp <= to (either bound optional),
+     * oldest first.
+     */
+    public List<TransactionResponse> rowsFor(long accountId, LocalDateTime from, LocalDateTime to) {
+        List<TransactionResponse> out = new ArrayList<>();
+        for (int b = firstBlockFor(accountId); b < firstAccount.length && firstAccount[b] <= accountId; b++) {
+            for (TransactionResponse r : readBlock(b)) {
+                if (r.getAccountId() == accountId
+                        && (from == null || !r.getTimestamp().isBefore(from))
+                        && (to == null || !r.getTimestamp().isAfter(to))) {
+                    out.add(r);
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Every row of accounts in [fromAccount, toAccount], in file order.
+     */
+    public void forEachInRange(long fromAccount, long toAccount, Consumer<TransactionResponse> action) {
+        for (int b = firstBlockFor(fromAccount); b < firstAccount.length && firstAccount[b] <= toAccount; b++) {
+            for (TransactionResponse r : readBlock(b)) {
+                if (r.getAccountId() >= fromAccount && r.getAccountId() <= toAccount) {
+                    action.accept(r);
+                }
+            }
+        }
+    }
+
+    // first block whose last account is >= accountId
+    private int firstBlockFor(long accountId) {
+        int lo = 0, hi = lastAccount.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (lastAccount[mid] < accountId) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private List<TransactionResponse> readBlock(int b) {
+        try {
+            ByteBuffer buf = readFully(channel, offset[b], compressedLength[b]);
+            CRC32 check = new CRC32();
+            check.update(buf.duplicate());
+            if ((int) check.getValue() != crc[b]) {
+                throw new IOException("Corrupt block " + b + " in " + file);
+            }
+
+            byte[] raw = new byte[rawLength[b]];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(buf);
+                int n = 0;
+                while (n < raw.length && !inflater.finished()) {
+                    int k = inflater.inflate(raw, n, raw.length - n);
+                    if (k == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new DataFormatException("truncated block");
+                    }
+                    n += k;
+                }
+            } finally {
+                inflater.end();
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+            int rows = in.readInt();
+            List<TransactionResponse> out = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                out.add(readRow(in));
+            }
+            return out;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Corrupt block " + b + " in " + file, e));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ------------------------------------------------
+    // WRITE
+    // ------------------------------------------------
+
+    public static Writer writer(Path file) throws IOException {
+        return new Writer(file);
+    }
+
+    /**
+     * Appends rows (must arrive in (accountId, timestamp, transactionId) order) and writes
+     * the index on {@link #finish()}. The file is only a valid segment after finish.
+     */
+    public static final class Writer implements Closeable {
+
+        private final FileChannel ch;
+        private final ByteArrayOutputStream rawBytes = new ByteArrayOutputStream(BLOCK_ROWS * 64);
+        private final DataOutputStream raw = new DataOutputStream(rawBytes);
+        private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        private final List<long[]> index = new ArrayList<>();
+
+        private long position;
+        private int blockRows;
+        private long blockFirstAccount;
+        private long lastAccount = Long.MIN_VALUE;
+        private LocalDateTime lastTimestamp;
+        private long totalRows;
+
+        private Writer(Path file) throws IOException {
+            this.ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            position = write(ByteBuffer.allocate(HEADER_BYTES).putLong(MAGIC).flip());
+        }
+
+        public void add(TransactionResponse r) throws IOException {
+            if (r.getAccountId() == null || r.getTimestamp() == null) {
+                throw new IllegalArgumentException("Transaction " + r.getTransactionId()
+                        + " has no account or timestamp and cannot be archived");
+            }
+            long account = r.getAccountId();
+            if (account < lastAccount || (account == lastAccount && r.getTimestamp().isBefore(lastTimestamp))) {
+                throw new IllegalStateException("Segment rows must be sorted by account and timestamp");
+            }
+            if (blockRows == 0) {
+                blockFirstAccount = account;
+            }
+            writeRow(raw, r);
+            lastAccount = account;
+            lastTimestamp = r.getTimestamp();
+            blockRows++;
+            totalRows++;
+            if (blockRows == BLOCK_ROWS) {
+                flushBlock();
+            }
+        }
+
+        public long getRowCount() {
+            return totalRows;
+        }
+
+        public void finish() throws IOException {
+            if (blockRows > 0) {
+                flushBlock();
+            }
+            long indexOffset = position;
+            ByteBuffer idx = ByteBuffer.allocate(12 + index.size() * INDEX_ENTRY_BYTES);
+            idx.putInt(index.size()).putLong(totalRows);
+            for (long[] e : index) {
+                idx.putLong(e[0]).putLong(e[1]).putLong(e[2])
+                        .putInt((int) e[3]).putInt((int) e[4]).putInt((int) e[5]).putInt((int) e[6]);
+            }
+            position += write(idx.flip());
+            position += write(ByteBuffer.allocate(FOOTER_BYTES).putLong(indexOffset).putLong(MAGIC).flip());
+            ch.force(true);
+        }
+
+        private void flushBlock() throws IOException {
+            raw.flush();
+            byte[] rows = rawBytes.toByteArray();
+            rawBytes.reset();
+
+            // row count first, then the rows
+            byte[] payload = ByteBuffer.allocate(4 + rows.length).putInt(blockRows).put(rows).array();
+            deflater.reset();
+            deflater.setInput(payload);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(payload.length / 3 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                compressed.write(chunk, 0, n);
+            }
+            byte[] block = compressed.toByteArray();
+            CRC32 check = new CRC32();
+            check.update(block);
+
+            index.add(new long[] {blockFirstAccount, lastAccount, position, block.length, payload.length,
+                    blockRows, (int) check.getValue()});
+            position += write(ByteBuffer.wrap(block));
+            blockRows = 0;
+        }
+
+        private int write(ByteBuffer buf) throws IOException {
+            int n = buf.remaining();
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            ch.close();
+        }
+    }
+
+    // ------------------------------------------------
+    // ROW ENCODING
+    // ------------------------------------------------
+
+    private static void writeRow(DataOutputStream out, TransactionResponse r) throws IOException {
+        out.writeLong(r.getAccountId());
+        out.writeLong(r.getTransactionId());
+        // datetime(6): microseconds since 1970-01-01T00:00 (zone-less, like the column)
+        LocalDateTime ts = r.getTimestamp();
+        out.writeLong(ts.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + ts.getNano() / 1_000);
+        int flags = (r.getType() != null ? HAS_TYPE : 0)
+                | (r.getAmount() != null ? HAS_AMOUNT : 0)
+                | (r.getReferenceText() != null ? HAS_REFERENCE : 0);
+        out.writeByte(flags);
+        if (r.getType() != null) {
+            out.writeUTF(r.getType());
+        }
+        if (r.getAmount() != null) {
+            out.writeDouble(r.getAmount());
+        }
+        if (r.getReferenceText() != null) {
+            out.writeUTF(r.getReferenceText());
+        }
+    }
+
+    private static TransactionResponse readRow(DataInputStream in) throws IOException {
+        long accountId = in.readLong();
+        long transactionId = in.readLong();
+        long micros = in.readLong();
+        LocalDateTime ts = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+        int flags = in.readUnsignedByte();
+        String type = (flags & HAS_TYPE) != 0 ? in.readUTF() : null;
+        Double amount = (flags & HAS_AMOUNT) != 0 ? in.readDouble() : null;
+        String reference = (flags & HAS_REFERENCE) != 0 ? in.readUTF() : null;
+        return new TransactionResponse(transactionId, accountId, type, amount, ts, reference);
+    }
+
+    private static ByteBuffer readFully(FileChannel ch, long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, position + buf.position()) < 0) {
+                throw new IOException("Unexpected end of segment file");
+            }
+        }
+        return buf.flip();
+    }
+}
@@ -0,0 +1,157 @@
+package com.neobankengine.archive;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The archived months: one {@link TransactionSegment} file per month in
+ * {@code archive.transactions.dir}, always a contiguous run of the oldest months.
+ *
+ * {@link #archivedBefore()} is the watermark between the two stores: rows older than it
+ * are read from segments, newer rows from the transaction table. Readers take one
+ * {@link State} snapshot per query, so a month being archived is never read from both.
+ *
+ * Other nodes pick up new segment files every {@code archive.transactions.rescan-ms}
+ * (the directory must be shared between nodes); the archiver waits longer than that
+ * before deleting the archived rows from the table.
+ */
+@Component
+@Slf4j
+public class TransactionSegmentStore {
+
+    static final String PREFIX = "transactions-";
+    static final String SUFFIX = ".seg";
+
+    /**
+     * Immutable view of the archive. archivedBefore is null when nothing is archived.
+     */
+    public record State(NavigableMap<YearMonth, TransactionSegment> segments, LocalDateTime archivedBefore) {
+
+        /**
+         * Segments overlapping [from, to] (either bound optional), newest month first.
+         */
+        public List<TransactionSegment> between(LocalDateTime from, LocalDateTime to) {
+            if (segments.isEmpty()) {
+                return List.of();
+            }
+            YearMonth lo = from == null ? segments.firstKey() : YearMonth.from(from);
+            YearMonth hi = to == null ? segments.lastKey() : YearMonth.from(to);
+            if (lo.isAfter(hi)) {
+                return List.of();
+            }
+            return new ArrayList<>(segments.subMap(lo, true, hi, true).descendingMap().values());
+        }
+    }
+
+    private final Path dir;
+    private volatile State state = new State(Collections.emptyNavigableMap(), null);
+
+    public TransactionSegmentStore(@Value("${archive.transactions.dir:./archive/transactions}") String dir) {
+        this.dir = Path.of(dir);
+        rescan();
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public LocalDateTime archivedBefore() {
+        return state.archivedBefore();
+    }
+
+    public Path getDir() {
+        return dir;
+    }
+
+    public static Path fileFor(Path dir, YearMonth month) {
+        return dir.resolve(PREFIX + month + SUFFIX);
+    }
+
+    /**
+     * Makes a freshly written segment visible; it must be the month right after the
+     * newest archived one (or the first).
+     */
+    public synchronized void publish(TransactionSegment segment) {
+        NavigableMap<YearMonth, TransactionSegment> current = state.segments();
+        if (!current.isEmpty() && !segment.getMonth().equals(current.lastKey().plusMonths(1))) {
+            throw new IllegalStateException("Archived months must be contiguous: " + current.lastKey()
+                    + " then " + segment.getMonth());
+        }
+        TreeMap<YearMonth, TransactionSegment> next = new TreeMap<>(current);
+        next.put(segment.getMonth(), segment);
+        state = new State(Collections.unmodifiableNavigableMap(next), watermark(next));
+    }
+
+    /**
+     * Opens segment files that appeared since the last scan (written by another node).
+     */
+    @Scheduled(fixedDelayString = "${archive.transactions.rescan-ms:60000}",
+            initialDelayString = "${archive.transactions.rescan-ms:60000}")
+    public synchronized void rescan() {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        NavigableMap<YearMonth, TransactionSegment> current = state.segments();
+        TreeMap<YearMonth, TransactionSegment> next = new TreeMap<>(current);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                YearMonth month = monthOf(file);
+                if (month == null || next.containsKey(month)) {
+                    continue;
+                }
+                try {
+                    next.put(month, TransactionSegment.open(file, month));
+                } catch (IOException e) {
+                    log.error("skipping unreadable transaction segment {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (next.size() != current.size()) {
+            state = new State(Collections.unmodifiableNavigableMap(next), watermark(next));
+            log.info("transaction archive: {} segments, rows before {} are archived", next.size(), state.archivedBefore());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (TransactionSegment s : state.segments().values()) {
+            try {
+                s.close();
+            } catch (IOException ignored) {
+                // shutting down
+            }
+        }
+    }
+
+    private static LocalDateTime watermark(NavigableMap<YearMonth, TransactionSegment> segments) {
+        return segments.isEmpty() ? null : segments.lastKey().plusMonths(1).atDay(1).atStartOfDay();
+    }
+
+    private static YearMonth monthOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return YearMonth.parse(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (DateTimeParseException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+}
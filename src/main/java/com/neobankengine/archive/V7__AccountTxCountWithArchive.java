@@ -0,0 +1,124 @@
+package com.neobankengine.archive;
+
+import com.neobankengine.dto.TransactionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Recounts account.tx_count including archived months. V4 counted only the rows still in
+ * the transaction table, so accounts with archived history were short by their archived
+ * rows. The count is now the table rows at or after the archive watermark (older rows
+ * still in the table are archived copies awaiting deletion) plus the account's rows in
+ * every segment of {@link TransactionSegmentStore}.
+ *
+ * A Spring bean so it can read the archive; Flyway runs it with the SQL migrations.
+ */
+@Component
+@Slf4j
+public class V7__AccountTxCountWithArchive extends BaseJavaMigration {
+
+    private static final int BATCH = 1_000;
+
+    private final TransactionSegmentStore archive;
+
+    public V7__AccountTxCountWithArchive(TransactionSegmentStore archive) {
+        this.archive = archive;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection db = context.getConnection();
+        TransactionSegmentStore.State state = archive.state();
+        LocalDateTime archivedBefore = state.archivedBefore();
+
+        try (PreparedStatement live = db.prepareStatement(
+                "update account a set a.tx_count = (select count(*) from transaction t " +
+                        "where t.account_id = a.account_id and (? is null or t.timestamp >= ?))")) {
+            Timestamp watermark = archivedBefore == null ? null : Timestamp.valueOf(archivedBefore);
+            live.setTimestamp(1, watermark);
+            live.setTimestamp(2, watermark);
+            live.executeUpdate();
+        }
+
+        long archived = 0;
+        try (PreparedStatement add = db.prepareStatement(
+                "update account set tx_count = tx_count + ? where account_id = ?")) {
+            for (TransactionSegment segment : state.segments().values()) {
+                archived += addSegment(segment, add);
+            }
+        }
+        log.info("account tx_count recounted: {} archived rows in {} segments added", archived, state.segments().size());
+    }
+
+    // segments are sorted by account: one update per account run
+    private static long addSegment(TransactionSegment segment, PreparedStatement add) throws SQLException {
+        RunCounter counter = new RunCounter(add);
+        try {
+            segment.forEachInRange(Long.MIN_VALUE, Long.MAX_VALUE, counter);
+        } catch (UncheckedIOException e) {
+            throw new IllegalStateException("Cannot read archived segment " + segment.getFile(), e);
+        }
+        counter.finish();
+        return segment.getRowCount();
+    }
+
+    private static final class RunCounter implements Consumer<TransactionResponse> {
+
+        private final PreparedStatement add;
+        private long account = Long.MIN_VALUE;
+        private long rows;
+        private int batched;
+        private SQLException failure;
+
+        RunCounter(PreparedStatement add) {
+            this.add = add;
+        }
+
+        @Override
+        public void accept(TransactionResponse r) {
+            if (r.getAccountId() != account) {
+                flush();
+                account = r.getAccountId();
+            }
+            rows++;
+        }
+
+        void finish() throws SQLException {
+            flush();
+            if (failure != null) {
+                throw failure;
+            }
+            if (batched > 0) {
+                add.executeBatch();
+            }
+        }
+
+        private void flush() {
+            if (rows == 0 || failure != null) {
+                return;
+            }
+            try {
+                add.setLong(1, rows);
+                add.setLong(2, account);
+                add.addBatch();
+                if (++batched == BATCH) {
+                    add.executeBatch();
+                    batched = 0;
+                }
+            } catch (SQLException e) {
+                failure = e; // rethrown by finish()
+            }
+            rows = 0;
+        }
+    }
+}
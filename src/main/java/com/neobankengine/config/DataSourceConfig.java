@@ -0,0 +1,81 @@
+package com.neobankengine.config;
+
+import com.neobankengine.datasource.ReadOnlyRoutingDataSource;
+import com.neobankengine.datasource.ReplicaLagMonitor;
+import com.neobankengine.datasource.ReplicaRouting;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary + read replica, active when {@code datasource.replica.url} is set (otherwise
+ * Spring Boot's single auto-configured pool is used).
+ *
+ * The application DataSource is a {@link LazyConnectionDataSourceProxy}: it only takes a
+ * physical connection at the first statement, after the transaction manager has marked
+ * the connection read-only. Read-only transaction connections come from
+ * {@link ReadOnlyRoutingDataSource} (replica or primary, per {@link ReplicaRouting}),
+ * everything else from the primary pool. Flyway migrates through the primary.
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replica.url:}'.isBlank()")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${datasource.replica.url}") String url,
+                                              @Value("${datasource.replica.username:${spring.datasource.username}}") String username,
+                                              @Value("${datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource ds = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        ds.setPoolName("replica");
+        ds.setReadOnly(true);
+        return ds;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaRouting routing) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new ReadOnlyRoutingDataSource(primary, replica, routing));
+        return proxy;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               ReplicaRouting routing,
+                                               @Value("${datasource.replica.heartbeat-ms:250}") long heartbeatMs) {
+        if (heartbeatMs >= routing.getMaxLagMs()) {
+            throw new IllegalArgumentException("datasource.replica.heartbeat-ms must be below datasource.replica.max-lag-ms");
+        }
+        return new ReplicaLagMonitor(new JdbcTemplate(primary), new JdbcTemplate(replica), routing);
+    }
+}
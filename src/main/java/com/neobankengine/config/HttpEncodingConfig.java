@@ -0,0 +1,87 @@
+package com.neobankengine.config;
+
+import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import tools.jackson.databind.DeserializationConfig;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.SerializationConfig;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.cfg.DatatypeFeature;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.cfg.EnumFeature;
+import tools.jackson.databind.cfg.JsonNodeFeature;
+import tools.jackson.databind.cfg.MapperBuilder;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+import tools.jackson.dataformat.smile.SmileWriteFeature;
+
+/**
+ * Binary response bodies for high-volume clients, picked by the Accept header:
+ * {@code application/cbor} and {@code application/x-jackson-smile}; JSON stays the default.
+ *
+ * Both write dates as numeric arrays ([2025,1,31,10,15,0,0]) instead of ISO strings,
+ * which is most of the serialization cost of a history page. Smile also back-references
+ * repeated property names and short values (CREDIT / DEBIT, recurring references).
+ * The CBOR mapper starts from Boot's; Boot has no Smile mapper, so the Smile one copies
+ * the configuration of Boot's JSON mapper (features, inclusion, naming, visibility, time
+ * zone, locale, date format, modules). spring.jackson.* applies to all three formats.
+ *
+ * One URL thus has three representations: the ETag-validated reads vary on Accept and
+ * tag each format differently (see controller.ConditionalGet).
+ */
+@Configuration
+public class HttpEncodingConfig {
+
+    @Bean
+    ServerHttpMessageConvertersCustomizer binaryEncodingsCustomizer(CBORMapper cborMapper, JsonMapper jsonMapper) {
+        CBORMapper cbor = cborMapper.rebuild()
+                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        SmileMapper smile = configuredLike(jsonMapper, SmileMapper.builder())
+                .enable(SmileWriteFeature.CHECK_SHARED_STRING_VALUES)
+                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        return builder -> builder
+                .withCborConverter(new JacksonCborHttpMessageConverter(cbor))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(smile));
+    }
+
+    // format-independent settings of the configured mapper, applied to another format's builder
+    static <B extends MapperBuilder<?, B>> B configuredLike(JsonMapper json, B builder) {
+        SerializationConfig ser = json.serializationConfig();
+        DeserializationConfig deser = json.deserializationConfig();
+        for (MapperFeature f : MapperFeature.values()) {
+            builder.configure(f, ser.isEnabled(f));
+        }
+        for (SerializationFeature f : SerializationFeature.values()) {
+            builder.configure(f, ser.isEnabled(f));
+        }
+        for (DeserializationFeature f : DeserializationFeature.values()) {
+            builder.configure(f, deser.isEnabled(f));
+        }
+        for (DatatypeFeature[] features : new DatatypeFeature[][] {
+                DateTimeFeature.values(), EnumFeature.values(), JsonNodeFeature.values()}) {
+            for (DatatypeFeature f : features) {
+                builder.configure(f, ser.isEnabled(f));
+            }
+        }
+        builder.changeDefaultPropertyInclusion(incl -> ser.getDefaultPropertyInclusion())
+                .changeDefaultVisibility(vis -> ser.getDefaultVisibilityChecker())
+                .constructorDetector(deser.getConstructorDetector())
+                .defaultLocale(ser.getLocale())
+                .defaultDateFormat(ser.getDateFormat())
+                .addModules(json.registeredModules());
+        if (ser.getPropertyNamingStrategy() != null) {
+            builder.propertyNamingStrategy(ser.getPropertyNamingStrategy());
+        }
+        if (ser.hasExplicitTimeZone()) {
+            builder.defaultTimeZone(ser.getTimeZone());
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,67 @@
+package com.neobankengine.config;
+
+import com.neobankengine.metrics.RequestSqlCounters;
+import com.neobankengine.metrics.RowCountingDataSource;
+import com.neobankengine.metrics.TimedMethodInterceptor;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.JdbcSettings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+import javax.sql.DataSource;
+
+/**
+ * Service timers (@Timed) and per-request SQL counters, exported on /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Applies {@link TimedMethodInterceptor} to beans with @Timed on the class or a method.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor timedMethodsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(Timed.class, true))
+                .union(AnnotationMatchingPointcut.forMethodAnnotation(Timed.class));
+        return new DefaultPointcutAdvisor(pointcut, new TimedMethodInterceptor(meterRegistry));
+    }
+
+    /**
+     * Hooks the statement counter into Hibernate.
+     */
+    @Bean
+    HibernatePropertiesCustomizer requestSqlCountersCustomizer() {
+        RequestSqlCounters counters = new RequestSqlCounters();
+        return props -> props.put(JdbcSettings.STATEMENT_INSPECTOR, counters);
+    }
+
+    /**
+     * Wraps the application DataSource (the "dataSource" bean, whether Boot's pool or the
+     * primary/replica proxy from {@link DataSourceConfig}) so rows read are counted once.
+     * The underlying pools are left alone, otherwise a row would be counted per layer.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static BeanPostProcessor rowCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return "dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof RowCountingDataSource)
+                        ? new RowCountingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+}
@@ -1,7 +1,9 @@
 package com.neobankengine.config;
 
 import com.neobankengine.security.JwtAuthenticationFilter;
+import com.neobankengine.security.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.security.autoconfigure.actuate.web.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -23,6 +25,7 @@ import java.util.List;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -38,9 +41,15 @@ public class SecurityConfig {
                         .requestMatchers(
                                 "/api/auth/register",
                                 "/api/auth/login",
+                                "/api/auth/refresh",
+                                "/api/auth/logout",
                                 "/api/auth/login/token"    // if you have this endpoint
                         ).permitAll()
 
+                        // ---- Health + Prometheus scrape: only on the internal management port ----
+                        // (management.server.port; the matcher never matches on the public port)
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+
                         // ---- Admin-only endpoints ----
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
@@ -60,6 +69,9 @@ public class SecurityConfig {
         // add JWT filter
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
+        // rate limits + bulkheads, after JWT so authenticated callers are limited per user
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
+
         return http.build();
     }
 
@@ -1,41 +1,55 @@
 package com.neobankengine.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.neobankengine.dto.*;
 import com.neobankengine.entity.Account;
+import com.neobankengine.exception.BadRequestException;
+import com.neobankengine.fields.FieldSet;
 import com.neobankengine.service.AccountService;
+import com.neobankengine.service.LedgerVersionService;
 import com.neobankengine.service.PdfService;
+import com.neobankengine.service.StatementExportService;
+import com.neobankengine.service.StatementFileCache;
+import com.neobankengine.service.StatementJobService;
 import com.neobankengine.service.TransactionService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/accounts")
 @RequiredArgsConstructor
 public class AccountController {
 
+    // ETag-validated reads: the client may keep them but must revalidate (304 if unchanged)
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final AccountService accountService;
     private final TransactionService transactionService;
     private final PdfService pdfService; // injected PdfService
-
-    // Local ObjectMapper configured for Java time (no Spring bean required)
-    private static final ObjectMapper objectMapper = new ObjectMapper()
-            .registerModule(new JavaTimeModule())
-            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final StatementExportService statementExportService;
+    private final StatementJobService statementJobService;
+    private final LedgerVersionService ledgerVersionService;
+    private final ConditionalGet conditionalGet;
 
     // helper to get currently authenticated user's email (from JWT subject)
     private String currentUserEmail() {
@@ -49,11 +63,33 @@ public class AccountController {
         return ResponseEntity.ok(account);
     }
 
+    /**
+     * Portfolio summary for app launch: every account of the caller with balance, status
+     * and last N transactions, in one call.
+     * Example: GET /api/accounts/summary?limit=5
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<List<AccountSummaryResponse>> getSummary(
+            @RequestParam(value = "limit", required = false) Integer limit) {
+
+        String email = currentUserEmail();
+        return ResponseEntity.ok(accountService.getAccountSummaries(email, limit));
+    }
+
+    /**
+     * Account balance with a strong ETag (the account's ledger version). The balance is a
+     * single-row read, so unlike the reads below the tag is built from that same read
+     * rather than checked before it: body and tag always come from one state of the row.
+     */
     @GetMapping("/{id}/balance")
-    public ResponseEntity<BalanceResponse> getBalance(@PathVariable("id") Long id) {
+    public ResponseEntity<BalanceResponse> getBalance(@PathVariable("id") Long id, WebRequest request) {
         String email = currentUserEmail();
-        Double balance = accountService.getBalance(id, email);
-        return ResponseEntity.ok(new BalanceResponse(id, balance));
+        AccountLedgerState state = accountService.getBalance(id, email);
+        // sets the ETag header; true = client is up to date, 304 already set
+        if (conditionalGet.notModified(request, ledgerVersionService.accountEtag(state))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(new BalanceResponse(id, state.getBalance()));
     }
 
     @PostMapping("/{id}/deposit")
@@ -73,18 +109,55 @@ public class AccountController {
     }
 
     /**
-     * Paginated transaction history (Page)
+     * Transaction history with keyset pagination (infinite scroll): pass nextCursor back
+     * as cursor; total=true adds the account's transaction count.
+     * Example: GET /api/accounts/1/transactions/cursor?limit=20&cursor=...
+     *
+     * The transaction listings and /statement take fields=transactionId,amount,timestamp
+     * (any of the TransactionResponse properties) to select and return only those.
+     */
+    @GetMapping("/{id}/transactions/cursor")
+    public ResponseEntity<TransactionHistoryPage<?>> getTransactionHistory(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "total", defaultValue = "false") boolean total,
+            @RequestParam(value = "fields", required = false) String fields,
+            WebRequest request) {
+
+        String email = currentUserEmail();
+        FieldSet<TransactionResponse> sparse = TransactionResponse.FIELDS.parse(fields);
+        if (conditionalGet.notModified(request, ledgerVersionService.accountEtag(id, email))) {
+            return null;
+        }
+        TransactionHistoryPage<?> page = sparse == null
+                ? transactionService.getTransactionHistory(id, email, cursor, limit, total)
+                : transactionService.getTransactionHistory(id, email, cursor, limit, total, sparse);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(page);
+    }
+
+    /**
+     * Paginated transaction history, archived months included (Page, OFFSET per call;
+     * deep pages get slower - prefer /transactions/cursor)
      * Example: GET /api/accounts/1/transactions?page=0&size=10
      */
     @GetMapping("/{id}/transactions")
-    public ResponseEntity<Page<TransactionResponse>> getTransactions(
+    public ResponseEntity<Page<?>> getTransactions(
             @PathVariable("id") Long id,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "fields", required = false) String fields,
+            WebRequest request) {
 
         String email = currentUserEmail();
-        Page<TransactionResponse> txPage = transactionService.getTransactions(id, email, page, size);
-        return ResponseEntity.ok(txPage);
+        FieldSet<TransactionResponse> sparse = TransactionResponse.FIELDS.parse(fields);
+        if (conditionalGet.notModified(request, ledgerVersionService.accountEtag(id, email))) {
+            return null;
+        }
+        Page<?> txPage = sparse == null
+                ? transactionService.getTransactions(id, email, page, size)
+                : transactionService.getTransactions(id, email, page, size, sparse);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(txPage);
     }
 
     /**
@@ -92,20 +165,29 @@ public class AccountController {
      * Example: GET /api/accounts/1/mini-statement?limit=5
      */
     @GetMapping("/{id}/mini-statement")
-    public ResponseEntity<List<TransactionResponse>> miniStatement(
+    public ResponseEntity<List<?>> miniStatement(
             @PathVariable("id") Long id,
-            @RequestParam(value = "limit", defaultValue = "5") int limit) {
+            @RequestParam(value = "limit", defaultValue = "5") int limit,
+            @RequestParam(value = "fields", required = false) String fields,
+            WebRequest request) {
 
         String email = currentUserEmail();
-        List<TransactionResponse> list = transactionService.getLastNTransactions(id, email, limit);
-        return ResponseEntity.ok(list);
+        FieldSet<TransactionResponse> sparse = TransactionResponse.FIELDS.parse(fields);
+        if (conditionalGet.notModified(request, ledgerVersionService.accountEtag(id, email))) {
+            return null;
+        }
+        List<?> list = sparse == null
+                ? transactionService.getLastNTransactions(id, email, limit)
+                : transactionService.getLastNTransactions(id, email, limit, sparse);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(list);
     }
 
     @GetMapping("/{id}/analytics")
     public ResponseEntity<AccountAnalyticsResponse> getAnalytics(
             @PathVariable("id") Long id,
             @RequestParam(value = "from", required = false) String fromStr,
-            @RequestParam(value = "to", required = false) String toStr
+            @RequestParam(value = "to", required = false) String toStr,
+            WebRequest request
     ) {
         String email = currentUserEmail();
 
@@ -118,10 +200,13 @@ public class AccountController {
             return ResponseEntity.badRequest().build();
         }
 
+        if (conditionalGet.notModified(request, ledgerVersionService.accountEtag(id, email))) {
+            return null;
+        }
         AccountAnalyticsResponse resp =
                 transactionService.getAnalytics(id, email, from, to);
 
-        return ResponseEntity.ok(resp);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(resp);
     }
 
     @PostMapping("/transfer")
@@ -140,14 +225,19 @@ public class AccountController {
     }
 
     /**
-     * CSV / JSON statement download as byte[].
+     * CSV / JSON / NDJSON statement download, streamed row by row from a DB cursor.
+     * Example: GET /api/accounts/1/statement?format=ndjson&from=2025-01-01
+     * Body is gzip-compressed when the client sends Accept-Encoding: gzip.
      */
     @GetMapping("/{id}/statement")
-    public ResponseEntity<byte[]> downloadStatement(
+    public void downloadStatement(
             @PathVariable("id") Long id,
             @RequestParam(value = "from", required = false) String fromStr,
             @RequestParam(value = "to", required = false) String toStr,
-            @RequestParam(value = "format", defaultValue = "csv") String format
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response
     ) {
 
         String email = currentUserEmail();
@@ -158,81 +248,92 @@ public class AccountController {
             if (fromStr != null) from = LocalDate.parse(fromStr);
             if (toStr != null) to = LocalDate.parse(toStr);
         } catch (DateTimeParseException e) {
-            return ResponseEntity.badRequest().build();
+            throw new BadRequestException("Dates must be in yyyy-MM-dd format.");
         }
 
-        if (!"csv".equalsIgnoreCase(format) && !"json".equalsIgnoreCase(format)) {
-            return ResponseEntity.badRequest().build();
+        String fmt = format.toLowerCase(Locale.ROOT);
+        String contentType = switch (fmt) {
+            case "csv" -> "text/csv";
+            case "json" -> MediaType.APPLICATION_JSON_VALUE;
+            case "ndjson" -> MediaType.APPLICATION_NDJSON_VALUE;
+            default -> throw new BadRequestException("format must be csv, json or ndjson.");
+        };
+        boolean gzip = acceptsGzip(acceptEncoding);
+        FieldSet<TransactionResponse> sparse = TransactionResponse.FIELDS.parse(fields);
+
+        // permission check happens inside service, before anything is written
+        if (sparse == null) {
+            transactionService.streamTransactionsForStatement(id, email, from, to, rows ->
+                    writeStatement(response, id, fmt, contentType, gzip, out -> {
+                        switch (fmt) {
+                            case "json" -> statementExportService.writeJson(rows, out);
+                            case "ndjson" -> statementExportService.writeNdjson(rows, out);
+                            default -> statementExportService.writeCsv(rows, out);
+                        }
+                    }));
+        } else {
+            transactionService.streamTransactionsForStatement(id, email, from, to, sparse, rows ->
+                    writeStatement(response, id, fmt, contentType, gzip, out -> {
+                        switch (fmt) {
+                            case "json" -> statementExportService.writeJson(rows, out);
+                            case "ndjson" -> statementExportService.writeNdjson(rows, out);
+                            default -> statementExportService.writeCsv(rows, sparse, out);
+                        }
+                    }));
         }
+    }
 
-        // permission check happens inside service
-        List<TransactionResponse> txs =
-                transactionService.getTransactionsForStatement(id, email, from, to);
-
-        HttpHeaders headers = new HttpHeaders();
-        byte[] body;
-
-        if ("json".equalsIgnoreCase(format)) {
-            // JSON bytes using locally configured ObjectMapper (handles LocalDateTime)
-            try {
-                body = objectMapper.writeValueAsBytes(txs);
-            } catch (Exception ex) {
-                throw new RuntimeException("Failed to build JSON statement", ex);
-            }
-
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setContentDisposition(
-                    ContentDisposition.attachment()
-                            .filename("statement-account-" + id + ".json")
-                            .build()
-            );
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(body);
+    // headers, then the body (gzip-wrapped if accepted) written by the exporter
+    private static void writeStatement(HttpServletResponse response, Long id, String fmt, String contentType,
+                                       boolean gzip, StatementBody body) {
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment()
+                        .filename("statement-account-" + id + "." + fmt)
+                        .build()
+                        .toString());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
         }
 
-        // CSV branch
-        StringBuilder sb = new StringBuilder();
-        sb.append("transactionId,accountId,type,amount,timestamp,referenceText\n");
-
-        for (TransactionResponse t : txs) {
-            String ref = t.getReferenceText() == null
-                    ? ""
-                    : t.getReferenceText().replace("\"", "\"\"");
-            String ts = (t.getTimestamp() == null)
-                    ? ""
-                    : t.getTimestamp().toString();
-
-            sb.append(String.format("%d,%d,%s,%.2f,%s,\"%s\"%n",
-                    t.getTransactionId(),
-                    t.getAccountId(),
-                    t.getType(),
-                    t.getAmount() == null ? 0.0 : t.getAmount(),
-                    ts,
-                    ref
-            ));
+        try (OutputStream out = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), 8192, true)
+                : response.getOutputStream()) {
+            body.write(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to stream statement", ex);
         }
+    }
 
-        body = sb.toString().getBytes(StandardCharsets.UTF_8);
-        headers.setContentType(MediaType.parseMediaType("text/csv"));
-        headers.setContentDisposition(
-                ContentDisposition.attachment()
-                        .filename("statement-account-" + id + ".csv")
-                        .build()
-        );
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(body);
+    @FunctionalInterface
+    private interface StatementBody {
+        void write(OutputStream out) throws IOException;
+    }
+
+    // true if the Accept-Encoding header lists gzip (and does not disable it with q=0)
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (tokens[0].trim().equalsIgnoreCase("gzip")) {
+                return tokens.length < 2 || !tokens[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 
     /**
-     * PDF statement download as byte[].
+     * PDF statement download, rendered incrementally straight into the response.
      */
     @GetMapping("/{id}/statement.pdf")
-    public ResponseEntity<byte[]> downloadPdfStatement(
+    public void downloadPdfStatement(
             @PathVariable("id") Long id,
             @RequestParam(value = "from", required = false) String fromStr,
-            @RequestParam(value = "to", required = false) String toStr
+            @RequestParam(value = "to", required = false) String toStr,
+            HttpServletResponse response
     ) {
         String email = currentUserEmail();
 
@@ -242,26 +343,93 @@ public class AccountController {
             if (fromStr != null) from = LocalDate.parse(fromStr);
             if (toStr != null) to = LocalDate.parse(toStr);
         } catch (Exception ex) {
-            return ResponseEntity.badRequest().build();
+            throw new BadRequestException("Dates must be in yyyy-MM-dd format.");
         }
 
-        List<TransactionResponse> txs =
-                transactionService.getTransactionsForStatement(id, email, from, to);
+        Double openingBalance = accountService.getBalanceBefore(id, email, from);
 
-        Double openingBalance = accountService.getBalanceBefore(id, from);
+        transactionService.streamTransactionsForStatement(id, email, from, to, rows -> {
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment()
+                            .filename("statement-account-" + id + ".pdf")
+                            .build()
+                            .toString());
 
-        byte[] pdfBytes = pdfService.buildStatementPdf(id, txs, openingBalance);
+            try (OutputStream out = response.getOutputStream()) {
+                pdfService.writeStatementPdf(id, rows.iterator(), openingBalance, out);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Failed to stream PDF statement", ex);
+            }
+        });
+    }
+
+    /**
+     * Queue a statement for async rendering (pdf / csv / json / ndjson).
+     * Example: POST /api/accounts/1/statements?format=pdf&from=2025-01-01&to=2025-01-31
+     * Returns 202 with the job; poll / download via GET .../statements/{jobId}.
+     */
+    @PostMapping("/{id}/statements")
+    public ResponseEntity<StatementJobResponse> requestStatement(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "from", required = false) String fromStr,
+            @RequestParam(value = "to", required = false) String toStr,
+            @RequestParam(value = "format", defaultValue = "pdf") String format
+    ) {
+        String email = currentUserEmail();
+
+        LocalDate from = null;
+        LocalDate to = null;
+        try {
+            if (fromStr != null) from = LocalDate.parse(fromStr);
+            if (toStr != null) to = LocalDate.parse(toStr);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Dates must be in yyyy-MM-dd format.");
+        }
+
+        StatementJobResponse job = statementJobService.submit(id, email, from, to, format);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    /**
+     * Statement job result: the file once READY, otherwise the job status
+     * (202 while QUEUED / RUNNING, 200 once FAILED - the job itself was found).
+     */
+    @GetMapping("/{id}/statements/{jobId}")
+    public ResponseEntity<?> getStatement(@PathVariable("id") Long id,
+                                          @PathVariable("jobId") String jobId) throws IOException {
+        String email = currentUserEmail();
+
+        StatementFileCache.Lease lease = statementJobService.openResultFile(id, jobId, email);
+        StatementJobResponse job = statementJobService.getJob(id, jobId, email);
+        if (lease == null) {
+            HttpStatus status = "FAILED".equals(job.getStatus()) ? HttpStatus.OK : HttpStatus.ACCEPTED;
+            return ResponseEntity.status(status).body(job);
+        }
+
+        MediaType type = switch (job.getFormat()) {
+            case "pdf" -> MediaType.APPLICATION_PDF;
+            case "json" -> MediaType.APPLICATION_JSON;
+            case "ndjson" -> MediaType.APPLICATION_NDJSON;
+            default -> MediaType.parseMediaType("text/csv");
+        };
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_PDF);
+        headers.setContentType(type);
+        headers.setContentLength(lease.size());
         headers.setContentDisposition(
                 ContentDisposition.attachment()
-                        .filename("statement-account-" + id + ".pdf")
+                        .filename("statement-account-" + id + "." + job.getFormat())
                         .build()
         );
-
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(pdfBytes);
+        // the lease is released when the converter closes the stream after writing it
+        try {
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(new InputStreamResource(lease.openStream()));
+        } catch (IOException | RuntimeException ex) {
+            lease.close();
+            throw ex;
+        }
     }
 }
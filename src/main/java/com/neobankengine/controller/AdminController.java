@@ -1,35 +1,82 @@
 package com.neobankengine.controller;
 
+import com.neobankengine.archive.TransactionArchiveService;
+import com.neobankengine.dto.ArchiveStatusResponse;
+import com.neobankengine.dto.BatchJobReport;
+import com.neobankengine.dto.BulkAccountStatusRequest;
+import com.neobankengine.dto.BulkAccountStatusResponse;
+import com.neobankengine.dto.CursorPage;
+import com.neobankengine.dto.TransactionResponse;
+import com.neobankengine.dto.TransactionSearchCriteria;
 import com.neobankengine.entity.Account;
 import com.neobankengine.entity.Transaction;
 import com.neobankengine.entity.User;
-import com.neobankengine.exception.ResourceNotFoundException;
-import com.neobankengine.repository.AccountRepository;
-import com.neobankengine.repository.TransactionRepository;
-import com.neobankengine.repository.UserRepository;
+import com.neobankengine.exception.BadRequestException;
+import com.neobankengine.service.AdminService;
+import com.neobankengine.service.MonthlyStatementBatchService;
+import com.neobankengine.service.ReconciliationService;
+import com.neobankengine.service.StatementExportService;
+import com.neobankengine.service.TransactionSearchService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
 public class AdminController {
 
-    private final UserRepository userRepository;
-    private final AccountRepository accountRepository;
-    private final TransactionRepository transactionRepository;
+    private final MonthlyStatementBatchService monthlyStatementBatchService;
+    private final ReconciliationService reconciliationService;
+    private final AdminService adminService;
+    private final StatementExportService statementExportService;
+    private final TransactionSearchService transactionSearchService;
+    private final TransactionArchiveService transactionArchiveService;
 
     // ----------------------------------------------------------------
     // USERS
     // ----------------------------------------------------------------
 
-    // Get all users
+    // Users, one keyset page at a time (filters optional, dates are yyyy-MM-dd on createdAt)
+    // Example: GET /api/admin/users?role=USER&active=true&after=500&limit=100
     @GetMapping("/users")
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public CursorPage<User> getUsers(@RequestParam(value = "after", required = false) String after,
+                                     @RequestParam(value = "limit", required = false) Integer limit,
+                                     @RequestParam(value = "role", required = false) String role,
+                                     @RequestParam(value = "active", required = false) Boolean active,
+                                     @RequestParam(value = "from", required = false) String fromStr,
+                                     @RequestParam(value = "to", required = false) String toStr) {
+        return adminService.listUsers(after, limit, role, active, startOf(fromStr), endOf(toStr));
+    }
+
+    // Full filtered export as NDJSON, streamed from a DB cursor
+    // Example: GET /api/admin/users/export?active=false
+    @GetMapping("/users/export")
+    public void exportUsers(@RequestParam(value = "role", required = false) String role,
+                            @RequestParam(value = "active", required = false) Boolean active,
+                            @RequestParam(value = "from", required = false) String fromStr,
+                            @RequestParam(value = "to", required = false) String toStr,
+                            HttpServletResponse response) {
+        LocalDateTime from = startOf(fromStr);
+        LocalDateTime to = endOf(toStr);
+        adminService.streamUsers(role, active, from, to, rows -> writeNdjson(rows, "users", response));
     }
 
     // Enable / Disable a user (status = true / false)
@@ -39,11 +86,7 @@ public class AdminController {
     public String updateUserStatus(@PathVariable Long id,
                                    @RequestParam("active") boolean active) {
 
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        user.setStatus(active);
-        userRepository.save(user);
+        adminService.setUserStatus(id, active);
 
         return active ? "User activated successfully" : "User deactivated successfully";
     }
@@ -52,42 +95,187 @@ public class AdminController {
     // ACCOUNTS
     // ----------------------------------------------------------------
 
-    // Get all accounts
+    // Accounts, one keyset page at a time
+    // Example: GET /api/admin/accounts?status=FROZEN&limit=200
     @GetMapping("/accounts")
-    public List<Account> getAllAccounts() {
-        return accountRepository.findAll();
+    public CursorPage<Account> getAccounts(@RequestParam(value = "after", required = false) String after,
+                                           @RequestParam(value = "limit", required = false) Integer limit,
+                                           @RequestParam(value = "status", required = false) String status,
+                                           @RequestParam(value = "userId", required = false) Long userId,
+                                           @RequestParam(value = "from", required = false) String fromStr,
+                                           @RequestParam(value = "to", required = false) String toStr) {
+        return adminService.listAccounts(after, limit, status, userId, startOf(fromStr), endOf(toStr));
+    }
+
+    // GET /api/admin/accounts/export?status=ACTIVE (NDJSON)
+    @GetMapping("/accounts/export")
+    public void exportAccounts(@RequestParam(value = "status", required = false) String status,
+                               @RequestParam(value = "userId", required = false) Long userId,
+                               @RequestParam(value = "from", required = false) String fromStr,
+                               @RequestParam(value = "to", required = false) String toStr,
+                               HttpServletResponse response) {
+        LocalDateTime from = startOf(fromStr);
+        LocalDateTime to = endOf(toStr);
+        adminService.streamAccounts(status, userId, from, to, rows -> writeNdjson(rows, "accounts", response));
     }
 
     // Freeze an account (status = FROZEN)
     // Example: PUT /api/admin/accounts/5/freeze
     @PostMapping("/accounts/{id}/freeze")
     public ResponseEntity<String> freezeAccount(@PathVariable Long id) {
-        Account acc = accountRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
-
-        acc.setStatus("FROZEN");
-        accountRepository.save(acc);
+        adminService.setAccountStatus(id, "FROZEN");
         return ResponseEntity.ok("Account frozen successfully");
     }
 
     // POST /api/admin/accounts/{id}/unfreeze
     @PostMapping("/accounts/{id}/unfreeze")
     public ResponseEntity<String> unfreezeAccount(@PathVariable Long id) {
-        Account acc = accountRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
-
-        acc.setStatus("ACTIVE");
-        accountRepository.save(acc);
+        adminService.setAccountStatus(id, "ACTIVE");
         return ResponseEntity.ok("Account unfrozen successfully");
     }
 
+    // Bulk freeze / unfreeze (e.g. fraud sweep), set-based in one transaction
+    // Example: POST /api/admin/accounts/status  { "accountIds": [1, 2, 3], "status": "FROZEN" }
+    @PostMapping("/accounts/status")
+    public BulkAccountStatusResponse updateAccountStatuses(@RequestBody @Valid BulkAccountStatusRequest request) {
+        return adminService.setAccountStatus(request.getAccountIds(), request.getStatus());
+    }
+
     // ----------------------------------------------------------------
     // TRANSACTIONS
     // ----------------------------------------------------------------
 
-    // Get all transactions (for audit)
+    // Transactions for audit, one keyset page at a time
+    // Example: GET /api/admin/transactions?type=DEBIT&from=2025-01-01&to=2025-01-31&after=10500
     @GetMapping("/transactions")
-    public List<Transaction> getAllTransactions() {
-        return transactionRepository.findAll();
+    public CursorPage<Transaction> getTransactions(@RequestParam(value = "after", required = false) String after,
+                                                   @RequestParam(value = "limit", required = false) Integer limit,
+                                                   @RequestParam(value = "type", required = false) String type,
+                                                   @RequestParam(value = "accountId", required = false) Long accountId,
+                                                   @RequestParam(value = "from", required = false) String fromStr,
+                                                   @RequestParam(value = "to", required = false) String toStr) {
+        return adminService.listTransactions(after, limit, type, accountId, startOf(fromStr), endOf(toStr));
+    }
+
+    // GET /api/admin/transactions/export?from=2025-01-01&to=2025-01-31 (NDJSON)
+    @GetMapping("/transactions/export")
+    public void exportTransactions(@RequestParam(value = "type", required = false) String type,
+                                   @RequestParam(value = "accountId", required = false) Long accountId,
+                                   @RequestParam(value = "from", required = false) String fromStr,
+                                   @RequestParam(value = "to", required = false) String toStr,
+                                   HttpServletResponse response) {
+        LocalDateTime from = startOf(fromStr);
+        LocalDateTime to = endOf(toStr);
+        adminService.streamTransactions(type, accountId, from, to,
+                rows -> writeNdjson(rows, "transactions", response));
+    }
+
+    // Audit search; the chosen index is returned in X-Query-Plan
+    // Example: GET /api/admin/transactions/search?accountIds=4,9&minAmount=10000&from=2025-01-01&reference=refund
+    @GetMapping("/transactions/search")
+    public ResponseEntity<CursorPage<TransactionResponse>> searchTransactions(
+            @RequestParam(value = "accountIds", required = false) List<Long> accountIds,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "minAmount", required = false) Double minAmount,
+            @RequestParam(value = "maxAmount", required = false) Double maxAmount,
+            @RequestParam(value = "from", required = false) String fromStr,
+            @RequestParam(value = "to", required = false) String toStr,
+            @RequestParam(value = "reference", required = false) String reference,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setAccountIds(accountIds);
+        criteria.setType(type == null || type.isBlank() ? null : type.trim().toUpperCase(Locale.ROOT));
+        criteria.setMinAmount(minAmount);
+        criteria.setMaxAmount(maxAmount);
+        criteria.setFrom(startOf(fromStr));
+        criteria.setTo(endOf(toStr));
+        criteria.setReference(reference == null || reference.isBlank() ? null : reference);
+
+        TransactionSearchService.Result result = transactionSearchService.search(criteria, after, limit);
+        return ResponseEntity.ok()
+                .header("X-Query-Plan", result.plan().getIndexName())
+                .body(result.page());
+    }
+
+    // ----------------------------------------------------------------
+    // BATCH JOBS
+    // ----------------------------------------------------------------
+
+    // Month-end statements for every account (runs in background, resumable)
+    // Example: POST /api/admin/statements/monthly?month=2025-01
+    @PostMapping("/statements/monthly")
+    public ResponseEntity<BatchJobReport> generateMonthlyStatements(@RequestParam("month") String month) {
+        YearMonth ym;
+        try {
+            ym = YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("month must be in yyyy-MM format.");
+        }
+        return ResponseEntity.accepted().body(monthlyStatementBatchService.start(ym));
+    }
+
+    // GET /api/admin/statements/monthly/{jobId} - progress and accounts/second
+    @GetMapping("/statements/monthly/{jobId}")
+    public BatchJobReport monthlyStatementsProgress(@PathVariable String jobId) {
+        return monthlyStatementBatchService.getReport(jobId);
+    }
+
+    // Check every balance against its ledger (CREDIT - DEBIT); mismatches go to a CSV report
+    // Example: POST /api/admin/reconciliation
+    @PostMapping("/reconciliation")
+    public ResponseEntity<BatchJobReport> startReconciliation() {
+        return ResponseEntity.accepted().body(reconciliationService.start());
+    }
+
+    // GET /api/admin/reconciliation/{jobId} - progress, mismatches and accounts/second
+    @GetMapping("/reconciliation/{jobId}")
+    public BatchJobReport reconciliationProgress(@PathVariable String jobId) {
+        return reconciliationService.getReport(jobId);
+    }
+
+    // Move months older than the retention window into archive segments (background)
+    // Example: POST /api/admin/archive/transactions
+    @PostMapping("/archive/transactions")
+    public ResponseEntity<ArchiveStatusResponse> startTransactionArchive() {
+        return ResponseEntity.accepted().body(transactionArchiveService.start());
+    }
+
+    // GET /api/admin/archive/transactions - archived months, watermark, last error
+    @GetMapping("/archive/transactions")
+    public ArchiveStatusResponse transactionArchiveStatus() {
+        return transactionArchiveService.status();
+    }
+
+    // ----------------------------------------------------------------
+    // HELPERS
+    // ----------------------------------------------------------------
+
+    private void writeNdjson(Stream<?> rows, String name, HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(name + ".ndjson").build().toString());
+        try (OutputStream out = response.getOutputStream()) {
+            statementExportService.writeNdjson(rows, out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to stream " + name, ex);
+        }
+    }
+
+    private static LocalDateTime startOf(String date) {
+        return date == null ? null : parseDate(date).atStartOfDay();
+    }
+
+    private static LocalDateTime endOf(String date) {
+        return date == null ? null : parseDate(date).atTime(LocalTime.MAX);
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Dates must be in yyyy-MM-dd format.");
+        }
     }
 }
@@ -2,11 +2,15 @@ package com.neobankengine.controller;
 
 import com.neobankengine.dto.LoginRequest;
 import com.neobankengine.dto.LoginResponse;
+import com.neobankengine.dto.RefreshRequest;
 import com.neobankengine.dto.UserRegisterRequest;
+import com.neobankengine.security.JwtPrincipal;
+import com.neobankengine.service.RefreshTokenService;
 import com.neobankengine.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -15,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final UserService userService;
+    private final RefreshTokenService refreshTokenService;
 
     @PostMapping("/register")
     public ResponseEntity<String> register(@RequestBody @Valid UserRegisterRequest request) {
@@ -23,11 +28,28 @@ public class AuthController {
 
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest request) {
-        String token = userService.loginAndGetToken(request.getEmail(), request.getPassword());
-        if (token == null) {
+        LoginResponse tokens = userService.loginAndGetTokens(request.getEmail(), request.getPassword());
+        if (tokens == null) {
             return ResponseEntity.status(401).body("Invalid credentials");
         }
-        return ResponseEntity.ok(new LoginResponse(token, "Bearer"));
+        return ResponseEntity.ok(tokens);
+    }
+
+    // New access + refresh token pair; the refresh token sent here can't be used again
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refresh(@RequestBody @Valid RefreshRequest request) {
+        return ResponseEntity.ok(refreshTokenService.refresh(request.getRefreshToken()));
+    }
+
+    // Revokes the refresh token's session and the access token the request was made with
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshRequest request,
+                                       Authentication authentication) {
+        JwtPrincipal accessToken = authentication != null && authentication.getPrincipal() instanceof JwtPrincipal p
+                ? p
+                : null;
+        refreshTokenService.logout(request == null ? null : request.getRefreshToken(), accessToken);
+        return ResponseEntity.noContent().build();
     }
 
 }
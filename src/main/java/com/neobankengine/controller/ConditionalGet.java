@@ -0,0 +1,68 @@
+package com.neobankengine.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * If-None-Match handling for the ETag-validated reads. Each of them has a JSON, a CBOR
+ * and a Smile representation (see HttpEncodingConfig), so the ETag carries the format
+ * the Accept header selects and responses say {@code Vary: Accept}: a tag validated for
+ * one format never gets a 304 for another, and shared caches keep the formats apart.
+ */
+@Component
+@RequiredArgsConstructor
+class ConditionalGet {
+
+    static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    // in converter order: JSON wins when the client accepts several equally
+    private static final List<MediaType> FORMATS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE);
+
+    private final ContentNegotiationManager contentNegotiationManager;
+
+    /**
+     * Sets the ETag for {@code version} in the negotiated format; true if the client's copy
+     * is current (304 already set, the handler returns null).
+     */
+    boolean notModified(WebRequest request, String version) {
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null && !response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+        return request.checkNotModified(version + "-" + format(request).getSubtype());
+    }
+
+    // the representation the message converters will write; JSON if nothing matches (the 406 comes later)
+    MediaType format(WebRequest request) {
+        List<MediaType> accepted = new ArrayList<>();
+        try {
+            accepted.addAll(request instanceof NativeWebRequest nativeRequest
+                    ? contentNegotiationManager.resolveMediaTypes(nativeRequest)
+                    : List.of(MediaType.ALL));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            for (MediaType format : FORMATS) {
+                if (type.getQualityValue() > 0 && type.isCompatibleWith(format)) {
+                    return format;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+}
@@ -4,19 +4,31 @@ import com.neobankengine.dto.DashboardOverviewDto;
 import com.neobankengine.dto.DailyPointDto;
 import com.neobankengine.dto.MonthlySummaryDto;
 import com.neobankengine.service.DashboardService;
+import com.neobankengine.service.LedgerVersionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
+/**
+ * Dashboard reads. Each carries a strong ETag (the user's ledger version, see
+ * {@link LedgerVersionService}) and answers If-None-Match with 304 before running
+ * its aggregation queries.
+ */
 @RestController
 @RequestMapping("/api/dashboard")
 @RequiredArgsConstructor
 public class DashboardController {
 
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final DashboardService dashboardService;
+    private final LedgerVersionService ledgerVersionService;
+    private final ConditionalGet conditionalGet;
 
     private String currentUserEmail() {
         return SecurityContextHolder.getContext().getAuthentication().getName();
@@ -25,28 +37,40 @@ public class DashboardController {
     @GetMapping("/overview")
     public ResponseEntity<DashboardOverviewDto> overview(
             @RequestParam(value = "days", defaultValue = "30") int days,
-            @RequestParam(value = "months", defaultValue = "6") int months) {
+            @RequestParam(value = "months", defaultValue = "6") int months,
+            WebRequest request) {
 
         String email = currentUserEmail();
+        if (conditionalGet.notModified(request, ledgerVersionService.userEtag(email))) {
+            return null;
+        }
         DashboardOverviewDto dto = dashboardService.getOverview(email, days, months);
-        return ResponseEntity.ok(dto);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(dto);
     }
 
     @GetMapping("/monthly")
     public ResponseEntity<List<MonthlySummaryDto>> monthly(
-            @RequestParam(value = "months", defaultValue = "6") int months) {
+            @RequestParam(value = "months", defaultValue = "6") int months,
+            WebRequest request) {
 
         String email = currentUserEmail();
+        if (conditionalGet.notModified(request, ledgerVersionService.userEtag(email))) {
+            return null;
+        }
         List<MonthlySummaryDto> list = dashboardService.getOverview(email, 30, months).getLastMonths();
-        return ResponseEntity.ok(list);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(list);
     }
 
     @GetMapping("/daily")
     public ResponseEntity<List<DailyPointDto>> daily(
-            @RequestParam(value = "days", defaultValue = "30") int days) {
+            @RequestParam(value = "days", defaultValue = "30") int days,
+            WebRequest request) {
 
         String email = currentUserEmail();
+        if (conditionalGet.notModified(request, ledgerVersionService.userEtag(email))) {
+            return null;
+        }
         List<DailyPointDto> list = dashboardService.getDailySeries(email, days);
-        return ResponseEntity.ok(list);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(list);
     }
 }
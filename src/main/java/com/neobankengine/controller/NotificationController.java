@@ -1,6 +1,7 @@
 package com.neobankengine.controller;
 
 import com.neobankengine.dto.NotificationDto;
+import com.neobankengine.fields.FieldSet;
 import com.neobankengine.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -20,15 +21,18 @@ public class NotificationController {
         return SecurityContextHolder.getContext().getAuthentication().getName();
     }
 
-    // GET /api/notifications?unreadOnly=true&limit=10 (params optional)
+    // GET /api/notifications?unreadOnly=true&limit=10&fields=id,title,createdAt (params optional)
     @GetMapping
-    public ResponseEntity<List<NotificationDto>> list(
+    public ResponseEntity<List<?>> list(
             @RequestParam(value = "unreadOnly", required = false) Boolean unreadOnly,
-            @RequestParam(value = "limit", required = false) Integer limit) {
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields) {
 
         String email = currentUserEmail();
-        List<NotificationDto> list =
-                notificationService.getNotificationsForUser(email, unreadOnly, limit);
+        FieldSet<NotificationDto> sparse = NotificationDto.FIELDS.parse(fields);
+        List<?> list = sparse == null
+                ? notificationService.getNotificationsForUser(email, unreadOnly, limit)
+                : notificationService.getNotificationsForUser(email, unreadOnly, limit, sparse);
         return ResponseEntity.ok(list);
     }
 
@@ -0,0 +1,32 @@
+package com.neobankengine.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Connections for read-only transactions: the replica pool when {@link ReplicaRouting}
+ * allows it, the primary pool otherwise. Only ever asked for read-only connections
+ * (see {@code DataSourceConfig}); writes go straight to the primary.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final ReplicaRouting routing;
+
+    public ReadOnlyRoutingDataSource(DataSource primary, DataSource replica, ReplicaRouting routing) {
+        this.routing = routing;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return routing.useReplica() ? REPLICA : PRIMARY;
+    }
+}
@@ -0,0 +1,72 @@
+package com.neobankengine.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Measures replica staleness with heartbeats instead of trusting replication status.
+ *
+ * Every {@code datasource.replica.heartbeat-ms} this node reads back its own heartbeat row
+ * from the replica, then writes a new one (its wall clock in ms) to the primary. The value
+ * read from the replica is the newest moment up to which the replica is known to have
+ * applied everything, so the staleness bound needs no clock agreement between hosts.
+ * A replica that is not replicating at all (e.g. a second local MySQL for testing) never
+ * shows a heartbeat and simply never gets reads.
+ *
+ * Relies on the replica applying transactions in commit order (single applier, or
+ * replica_preserve_commit_order=ON, the MySQL 8.0.27+ default).
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final long STALE_ROW_AGE_MS = Duration.ofDays(1).toMillis();
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaRouting routing;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean replicaDown;
+    private boolean purged;
+
+    public ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, ReplicaRouting routing) {
+        this.primary = primary;
+        this.replica = replica;
+        this.routing = routing;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.heartbeat-ms:250}")
+    public void beat() {
+        if (!purged) {
+            // rows of nodes that are gone (first beat: the schema is migrated by then)
+            primary.update("delete from replica_heartbeat where beat_ms < ?", System.currentTimeMillis() - STALE_ROW_AGE_MS);
+            purged = true;
+        }
+        try {
+            List<Long> seen = replica.queryForList(
+                    "select beat_ms from replica_heartbeat where node_id = ?", Long.class, nodeId);
+            if (!seen.isEmpty()) {
+                routing.replicaFreshAsOf(seen.get(0));
+            }
+            if (replicaDown) {
+                replicaDown = false;
+                log.info("replica reachable again");
+            }
+        } catch (DataAccessException ex) {
+            // reads fall back to the primary once max-lag-ms passes without a fresh heartbeat
+            if (!replicaDown) {
+                replicaDown = true;
+                log.warn("replica heartbeat read failed: {}", ex.getMessage());
+            }
+        }
+
+        primary.update("insert into replica_heartbeat (node_id, beat_ms) values (?, ?) as new "
+                + "on duplicate key update beat_ms = new.beat_ms", nodeId, System.currentTimeMillis());
+    }
+}
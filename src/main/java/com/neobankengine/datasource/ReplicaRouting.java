@@ -0,0 +1,188 @@
+package com.neobankengine.datasource;
+
+import com.neobankengine.security.JwtPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides where a read-only transaction runs: the replica or the primary.
+ *
+ * {@link ReplicaLagMonitor} records how fresh the replica is: the newest heartbeat
+ * written to the primary that the replica has applied ({@link #replicaFreshAsOf(long)}).
+ * A read goes to the replica only if
+ * <ul>
+ *   <li>that point is at most {@code datasource.replica.max-lag-ms} old (staleness
+ *       tolerance; if the monitor stops hearing from the replica it ages out by itself), and</li>
+ *   <li>the current user has no write newer than it (read-your-writes: after a deposit
+ *       the user's next reads stay on the primary until the replica has caught up, at
+ *       most max-lag-ms).</li>
+ * </ul>
+ * A write is remembered on the node that made it and in the {@value #LAST_WRITE_COOKIE}
+ * cookie set on that response, which every node checks, so read-your-writes holds
+ * without sticky routing for clients that keep cookies. The cookie only ever sends the
+ * client's own reads to the primary, and a value in the future counts as now, so a
+ * forged one costs no more than a real write.
+ * Without {@code datasource.replica.url} everything runs on the primary and this is a no-op.
+ */
+@Component
+public class ReplicaRouting {
+
+    static final String LAST_WRITE_COOKIE = "nb_last_write";
+
+    private final boolean enabled;
+    private final long maxLagMs;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    // wall clock (ms) of the newest primary heartbeat seen on the replica; 0 = never
+    private volatile long freshAsOfMs;
+
+    // userId -> time of their last committed write on this node
+    private final Map<Long, Long> lastWrite = new ConcurrentHashMap<>();
+
+    public ReplicaRouting(@Value("${datasource.replica.url:}") String replicaUrl,
+                          @Value("${datasource.replica.max-lag-ms:1000}") long maxLagMs,
+                          MeterRegistry meterRegistry) {
+        this.enabled = !replicaUrl.isBlank();
+        this.maxLagMs = maxLagMs;
+        this.replicaReads = Counter.builder("neobank.datasource.reads").tag("target", "replica").register(meterRegistry);
+        this.primaryReads = Counter.builder("neobank.datasource.reads").tag("target", "primary").register(meterRegistry);
+        if (enabled) {
+            Gauge.builder("neobank.datasource.replica.staleness", this, r -> r.freshAsOfMs == 0
+                            ? Double.NaN
+                            : System.currentTimeMillis() - r.freshAsOfMs)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    public long getMaxLagMs() {
+        return maxLagMs;
+    }
+
+    /**
+     * True if the read-only transaction starting now may use the replica.
+     */
+    public boolean useReplica() {
+        boolean replica = enabled && replicaAllowed(currentUserId(), requestLastWrite(), System.currentTimeMillis());
+        (replica ? replicaReads : primaryReads).increment();
+        return replica;
+    }
+
+    /**
+     * Keeps the current user's reads on the primary until the replica has this
+     * transaction's changes, on any node. Call from write paths whose result the user
+     * reads back.
+     */
+    public void markWriteAfterCommit() {
+        Long userId = currentUserId();
+        if (!enabled || userId == null) {
+            return;
+        }
+        // the response of the request making the write carries the cookie
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordWrite(userId, request);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(userId, request);
+            }
+        });
+    }
+
+    private void recordWrite(Long userId, RequestAttributes request) {
+        long now = System.currentTimeMillis();
+        lastWrite.merge(userId, now, Math::max);
+        if (request instanceof ServletRequestAttributes attrs) {
+            HttpServletResponse response = attrs.getResponse();
+            if (response != null && !response.isCommitted()) {
+                // no longer relevant once max-lag-ms has passed (the replica has it or isn't used)
+                ResponseCookie cookie = ResponseCookie.from(LAST_WRITE_COOKIE, Long.toString(now))
+                        .path("/")
+                        .httpOnly(true)
+                        .sameSite("Strict")
+                        .maxAge(Duration.ofMillis(maxLagMs).plusSeconds(1))
+                        .build();
+                response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+            }
+        }
+    }
+
+    /**
+     * Called by {@link ReplicaLagMonitor}: the replica has applied everything the primary
+     * committed up to this wall-clock time.
+     */
+    void replicaFreshAsOf(long wallClockMs) {
+        freshAsOfMs = Math.max(freshAsOfMs, wallClockMs);
+        // writes the replica has caught up with, or too old to matter (beyond max lag the replica isn't used at all)
+        long fresh = freshAsOfMs;
+        long horizon = System.currentTimeMillis() - maxLagMs;
+        lastWrite.values().removeIf(w -> w <= fresh || w < horizon);
+    }
+
+    /**
+     * @param cookieWrite last write carried by the request's cookie; 0 = none
+     */
+    boolean replicaAllowed(Long userId, long cookieWrite, long now) {
+        long fresh = freshAsOfMs;
+        if (now - fresh > maxLagMs) {
+            return false;
+        }
+        if (Math.min(cookieWrite, now) > fresh) {
+            return false;
+        }
+        if (userId != null) {
+            Long written = lastWrite.get(userId);
+            return written == null || written <= fresh;
+        }
+        return true;
+    }
+
+    // last write time from the request's cookie, 0 if absent, malformed or not in a request
+    private static long requestLastWrite() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs)) {
+            return 0;
+        }
+        HttpServletRequest request = attrs.getRequest();
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie c : cookies) {
+                if (LAST_WRITE_COOKIE.equals(c.getName())) {
+                    try {
+                        return Long.parseLong(c.getValue());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof JwtPrincipal p ? p.userId() : null;
+    }
+}
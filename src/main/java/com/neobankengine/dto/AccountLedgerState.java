@@ -0,0 +1,17 @@
+package com.neobankengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Balance, ledger version (txCount) and status of one account, read together from the
+ * account row so a balance response and its ETag always describe the same state.
+ */
+@Data
+@AllArgsConstructor
+public class AccountLedgerState {
+    private Long accountId;
+    private Double balance;
+    private Long txCount;
+    private String status;
+}
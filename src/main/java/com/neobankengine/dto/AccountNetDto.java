@@ -0,0 +1,16 @@
+package com.neobankengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Per-account aggregate of transactions: CREDIT amounts minus DEBIT amounts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountNetDto {
+    private Long accountId;
+    private Double net;
+}
@@ -0,0 +1,19 @@
+package com.neobankengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One account in the portfolio summary: balance, status and its latest transactions
+ * (newest first).
+ */
+@Data
+@AllArgsConstructor
+public class AccountSummaryResponse {
+    private Long accountId;
+    private Double balance;
+    private String status;
+    private List<TransactionResponse> recentTransactions;
+}
@@ -0,0 +1,28 @@
+package com.neobankengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * State of the transaction archive: which months live in segment files.
+ */
+@Data
+@AllArgsConstructor
+public class ArchiveStatusResponse {
+    private boolean running;
+    private int retentionMonths;
+    private LocalDateTime archivedBefore; // rows older than this are read from segments; null = none
+    private List<Segment> segments;
+    private String lastError;             // set when the last run failed
+
+    @Data
+    @AllArgsConstructor
+    public static class Segment {
+        private String month;
+        private long rows;
+        private long sizeBytes;
+    }
+}
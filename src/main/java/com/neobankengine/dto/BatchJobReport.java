@@ -0,0 +1,26 @@
+package com.neobankengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress / result snapshot of an admin-triggered batch job.
+ */
+@Data
+@AllArgsConstructor
+public class BatchJobReport {
+    private String jobId;
+    private String type;              // MONTHLY_STATEMENTS, RECONCILIATION
+    private String state;             // RUNNING, COMPLETED, FAILED
+    private int totalPartitions;
+    private int completedPartitions;  // includes partitions skipped from a checkpoint
+    private long accountsProcessed;
+    private double accountsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String outputPath;        // directory / report file written by the job
+    private long mismatches;          // RECONCILIATION: accounts whose balance disagrees with the ledger
+    private String error;             // set when FAILED
+}
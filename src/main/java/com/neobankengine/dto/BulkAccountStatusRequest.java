@@ -0,0 +1,21 @@
+package com.neobankengine.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkAccountStatusRequest {
+
+    @NotEmpty(message = "accountIds is required")
+    @Size(max = 100000, message = "at most 100000 accounts per request")
+    private List<Long> accountIds;
+
+    @NotNull(message = "status is required")
+    @Pattern(regexp = "ACTIVE|FROZEN", message = "status must be ACTIVE or FROZEN")
+    private String status;
+}
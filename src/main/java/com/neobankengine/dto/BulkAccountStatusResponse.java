@@ -0,0 +1,16 @@
+package com.neobankengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of a bulk freeze/unfreeze: accounts that changed vs. requested
+ * (already in the target status or unknown ids are not counted as updated).
+ */
+@Data
+@AllArgsConstructor
+public class BulkAccountStatusResponse {
+    private String status;
+    private int requested;
+    private int updated;
+}
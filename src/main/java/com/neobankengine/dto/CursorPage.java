@@ -0,0 +1,17 @@
+package com.neobankengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * Pass nextCursor back to get the following page; null means this was the last page.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+}
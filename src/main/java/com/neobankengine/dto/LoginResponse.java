@@ -8,4 +8,6 @@ import lombok.Data;
 public class LoginResponse {
     private String token;
     private String tokenType; // e.g. "Bearer"
+    private String refreshToken; // single use: every refresh returns a new one
+    private long expiresIn; // access token lifetime in seconds
 }
@@ -1,5 +1,6 @@
 package com.neobankengine.dto;
 
+import com.neobankengine.fields.FieldCatalog;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,6 +11,16 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 public class NotificationDto {
+
+    // ?fields= on the notification listing
+    public static final FieldCatalog<NotificationDto> FIELDS = FieldCatalog.<NotificationDto>of("n")
+            .field("id", NotificationDto::getId)
+            .field("title", NotificationDto::getTitle)
+            .field("message", NotificationDto::getMessage)
+            .field("type", NotificationDto::getType)
+            .field("readFlag", NotificationDto::isReadFlag)
+            .field("createdAt", NotificationDto::getCreatedAt);
+
     private Long id;
     private String title;
     private String message;
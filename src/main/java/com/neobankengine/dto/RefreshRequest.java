@@ -0,0 +1,10 @@
+package com.neobankengine.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshRequest {
+    @NotBlank(message = "refreshToken is required")
+    private String refreshToken;
+}
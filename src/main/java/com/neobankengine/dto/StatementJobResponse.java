@@ -0,0 +1,21 @@
+package com.neobankengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class StatementJobResponse {
+    private String jobId;
+    private Long accountId;
+    private LocalDate from;           // optional range start
+    private LocalDate to;             // optional range end
+    private String format;            // pdf / csv / json / ndjson
+    private String status;            // QUEUED, RUNNING, READY, FAILED
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+    private String error;             // set when FAILED
+}
@@ -0,0 +1,20 @@
+package com.neobankengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of an account's transaction history (newest first, keyset-paginated).
+ * nextCursor is opaque: pass it back as ?cursor= for the following page; null means
+ * this was the last page. total is only filled when asked for (?total=true).
+ * Items are TransactionResponse, or SparseRow when the caller asked for ?fields=.
+ */
+@Data
+@AllArgsConstructor
+public class TransactionHistoryPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private Long total;
+}
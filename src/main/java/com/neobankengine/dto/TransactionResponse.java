@@ -1,5 +1,6 @@
 package com.neobankengine.dto;
 
+import com.neobankengine.fields.FieldCatalog;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -8,6 +9,15 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class TransactionResponse
 {
+    // ?fields= on the transaction listings and statements
+    public static final FieldCatalog<TransactionResponse> FIELDS = FieldCatalog.<TransactionResponse>of("t")
+            .field("transactionId", TransactionResponse::getTransactionId)
+            .field("accountId", TransactionResponse::getAccountId)
+            .field("type", TransactionResponse::getType)
+            .field("amount", TransactionResponse::getAmount)
+            .field("timestamp", TransactionResponse::getTimestamp)
+            .field("referenceText", TransactionResponse::getReferenceText);
+
     private Long transactionId;
     private Long accountId;
     private String type;          // CREDIT / DEBIT
@@ -0,0 +1,20 @@
+package com.neobankengine.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filters for the admin transaction search. Every field is optional.
+ */
+@Data
+public class TransactionSearchCriteria {
+    private List<Long> accountIds;
+    private String type;
+    private Double minAmount;
+    private Double maxAmount;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String reference; // substring of referenceText
+}
@@ -4,8 +4,15 @@ import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
 
+/**
+ * Not in the second-level cache: a cached row would serve balances changed on another
+ * node until it expired. What is safe to cache is cached elsewhere: the owner, which
+ * never changes (AccountOwnershipIndex), and the status, with a bounded staleness
+ * (AccountStatusCache).
+ */
 @Entity
 @Data
+@Table(indexes = @Index(name = "idx_account_user", columnList = "user_id"))
 public class Account {
 
     @Id
@@ -21,6 +28,13 @@ public class Account {
      */
     private String status = "ACTIVE";
 
+    /**
+     * Transactions ever posted to this account (archived ones included); kept up to date
+     * by the money paths under the row lock, so history pages don't need COUNT(*).
+     */
+    @Column(nullable = false)
+    private Long txCount = 0L;
+
     @Column(updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 }
@@ -5,7 +5,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notification")
+@Table(name = "notification", indexes = {
+        @Index(name = "idx_notif_user_read_created", columnList = "user_email, read_flag, created_at"),
+        @Index(name = "idx_notif_user_created", columnList = "user_email, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,45 @@
+package com.neobankengine.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A refresh token. Only the SHA-256 of the token is stored; the token itself is
+ * handed to the client once. Every refresh revokes the token and issues a new one
+ * in the same family, so presenting a revoked token means it was stolen or replayed
+ * and the whole family is revoked.
+ */
+@Entity
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_family", columnList = "familyId"),
+        @Index(name = "idx_refresh_expires", columnList = "expiresAt")
+})
+@Data
+@NoArgsConstructor
+public class RefreshToken
+{
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // hex SHA-256 of the token
+    @Column(unique = true, nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // all tokens descending from one login
+    @Column(nullable = false, length = 36)
+    private String familyId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private boolean revoked = false;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,35 @@
+package com.neobankengine.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An access token (by its jti) that was revoked before its expiry, e.g. on logout.
+ * Rows are only needed until the token would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_token", indexes = {
+        @Index(name = "idx_revoked_at", columnList = "revokedAt"),
+        @Index(name = "idx_revoked_expires", columnList = "expiresAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken
+{
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+}
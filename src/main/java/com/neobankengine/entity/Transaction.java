@@ -6,9 +6,18 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-
+@Table(indexes = {
+        @Index(name = Transaction.IDX_ACCOUNT_TIME, columnList = "account_id, timestamp"),
+        @Index(name = Transaction.IDX_TIME_AMOUNT, columnList = "timestamp, amount"),
+        @Index(name = Transaction.IDX_TYPE_TIME, columnList = "type, timestamp")
+})
 public class Transaction
 {
+    // composite indexes the admin search planner chooses between (see TransactionSearchService)
+    public static final String IDX_ACCOUNT_TIME = "idx_tx_account_ts";
+    public static final String IDX_TIME_AMOUNT = "idx_tx_ts_amount";
+    public static final String IDX_TYPE_TIME = "idx_tx_type_ts";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long transactionId;
@@ -1,12 +1,23 @@
 package com.neobankengine.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.time.LocalDateTime;
 
+/**
+ * Cached in the second-level cache by id (region "user") and by email, the natural id
+ * (region "user-by-email"); see UserRepository.findByEmail.
+ */
 @Entity
+@Table(indexes = @Index(name = "idx_user_status_changed", columnList = "status_changed_at"))
 @Data
-
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-by-email")
 public class User
 {
     @Id
@@ -15,14 +26,22 @@ public class User
 
     private String name;
 
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String email;
 
+    @JsonIgnore // never leak hashes through admin listings/exports
     private String password;
 
     private String role;
 
     private Boolean status = true; // active by default
 
+    // bumped on every status change; tokens issued with an older value are rejected
+    private Integer statusVersion = 0;
+
+    // set with every statusVersion bump; UserStatusRegistry syncs the users changed since its last poll
+    private LocalDateTime statusChangedAt;
+
     private LocalDateTime createdAt = LocalDateTime.now();
 }
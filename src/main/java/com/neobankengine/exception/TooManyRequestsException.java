@@ -0,0 +1,13 @@
+package com.neobankengine.exception;
+
+public class TooManyRequestsException extends RuntimeException
+{
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String msg, long retryAfterSeconds) {
+        super(msg);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
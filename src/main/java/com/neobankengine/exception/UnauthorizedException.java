@@ -0,0 +1,6 @@
+package com.neobankengine.exception;
+
+public class UnauthorizedException extends RuntimeException
+{
+    public UnauthorizedException(String msg) { super(msg); }
+}
@@ -0,0 +1,82 @@
+package com.neobankengine.fields;
+
+import com.neobankengine.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The fields a listing can be trimmed to with {@code ?fields=a,b,c}, each with its JPQL
+ * path (same name as the entity attribute) and its getter on the full DTO.
+ *
+ * {@link #parse(String)} returns one {@link FieldSet} per distinct combination, built the
+ * first time it is asked for and cached; the order in the request does not matter
+ * (fields come out in catalog order), so the cache holds at most 2^n entries.
+ */
+public final class FieldCatalog<T> {
+
+    private final String alias;
+    private final List<String> names = new ArrayList<>();
+    private final List<Function<T, ?>> getters = new ArrayList<>();
+    private final Map<Long, FieldSet<T>> sets = new ConcurrentHashMap<>();
+
+    private FieldCatalog(String alias) {
+        this.alias = alias;
+    }
+
+    /**
+     * @param alias entity alias the listing queries use (e.g. "t" for Transaction t)
+     */
+    public static <T> FieldCatalog<T> of(String alias) {
+        return new FieldCatalog<>(alias);
+    }
+
+    public FieldCatalog<T> field(String name, Function<T, ?> getter) {
+        if (names.size() == Long.SIZE) {
+            throw new IllegalStateException("too many fields");
+        }
+        names.add(name);
+        getters.add(getter);
+        return this;
+    }
+
+    /**
+     * The field set for a {@code fields} parameter, or null when it is absent or blank
+     * (the caller serves full rows). Unknown names are a 400.
+     */
+    public FieldSet<T> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        long mask = 0;
+        for (String part : fields.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            int i = names.indexOf(name);
+            if (i < 0) {
+                throw new BadRequestException("Unknown field '" + name + "'. Allowed: " + String.join(", ", names) + ".");
+            }
+            mask |= 1L << i;
+        }
+        return mask == 0 ? null : sets.computeIfAbsent(mask, this::build);
+    }
+
+    private FieldSet<T> build(long mask) {
+        List<String> selected = new ArrayList<>();
+        List<String> paths = new ArrayList<>();
+        List<Function<T, ?>> selectedGetters = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            if ((mask & (1L << i)) != 0) {
+                selected.add(names.get(i));
+                paths.add(alias + "." + names.get(i));
+                selectedGetters.add(getters.get(i));
+            }
+        }
+        return new FieldSet<>(selected, String.join(", ", paths), selectedGetters);
+    }
+}
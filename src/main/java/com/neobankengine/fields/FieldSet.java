@@ -0,0 +1,62 @@
+package com.neobankengine.fields;
+
+import tools.jackson.core.io.SerializedString;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One requested combination of fields (see {@link FieldCatalog}): the JPQL select list
+ * for exactly those columns, their pre-encoded property names and their getters on the
+ * full DTO. Immutable and shared by every request asking for the same fields.
+ */
+public final class FieldSet<T> {
+
+    private final List<String> names;
+    private final SerializedString[] serializedNames;
+    private final String select;
+    private final List<Function<T, ?>> getters;
+
+    FieldSet(List<String> names, String select, List<Function<T, ?>> getters) {
+        this.names = List.copyOf(names);
+        this.serializedNames = names.stream().map(SerializedString::new).toArray(SerializedString[]::new);
+        this.select = select;
+        this.getters = List.copyOf(getters);
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * JPQL select list, e.g. "t.transactionId, t.amount". Queries may append columns of
+     * their own after it (cursor keys); those are carried by the row but not serialized.
+     */
+    public String select() {
+        return select;
+    }
+
+    /**
+     * A row of a query that selected {@link #select()} (plus any trailing columns).
+     */
+    public SparseRow row(Object[] values) {
+        return new SparseRow(serializedNames, values);
+    }
+
+    /**
+     * The same row cut from a full DTO (e.g. archived rows), with trailing values
+     * appended as a query would.
+     */
+    public SparseRow project(T full, Object... trailing) {
+        Object[] values = new Object[getters.size() + trailing.length];
+        for (int i = 0; i < getters.size(); i++) {
+            values[i] = getters.get(i).apply(full);
+        }
+        System.arraycopy(trailing, 0, values, getters.size(), trailing.length);
+        return new SparseRow(serializedNames, values);
+    }
+}
@@ -0,0 +1,48 @@
+package com.neobankengine.fields;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.JacksonSerializable;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.jsontype.TypeSerializer;
+
+/**
+ * A listing row trimmed to a {@link FieldSet}: serialized as an object with just those
+ * properties, in any format (JSON, CBOR, Smile), without per-row bean introspection.
+ */
+public final class SparseRow extends JacksonSerializable.Base {
+
+    private final SerializedString[] names;
+    private final Object[] values;
+
+    SparseRow(SerializedString[] names, Object[] values) {
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * Value of the i-th selected column (trailing columns included).
+     */
+    public Object value(int i) {
+        return values[i];
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializationContext ctxt) {
+        gen.writeStartObject(this);
+        for (int i = 0; i < names.length; i++) {
+            gen.writeName(names[i]);
+            if (values[i] == null) {
+                gen.writeNull();
+            } else {
+                ctxt.writeValue(gen, values[i]);
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializationContext ctxt, TypeSerializer typeSer) {
+        serialize(gen, ctxt);
+    }
+}
@@ -0,0 +1,83 @@
+package com.neobankengine.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many SQL statements and JDBC rows each request needed, per endpoint
+ * (uri template + HTTP method). Runs before Spring Security so the queries done during
+ * authentication are counted too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    // uri template -> HTTP method -> [statements, rows]; looked up without allocating
+    private final Map<String, Map<String, DistributionSummary[]>> summaries = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        RequestSqlCounters.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            DistributionSummary[] s = summariesFor(request);
+            s[0].record(RequestSqlCounters.statements());
+            s[1].record(RequestSqlCounters.rowsFetched());
+        }
+    }
+
+    private DistributionSummary[] summariesFor(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        String method = request.getMethod();
+
+        Map<String, DistributionSummary[]> byMethod = summaries.get(uri);
+        if (byMethod == null) {
+            byMethod = summaries.computeIfAbsent(uri, k -> new ConcurrentHashMap<>());
+        }
+        DistributionSummary[] s = byMethod.get(method);
+        if (s == null) {
+            s = byMethod.computeIfAbsent(method, m -> new DistributionSummary[] {
+                    summary("neobank.request.sql.statements", "SQL statements per request", uri, m),
+                    summary("neobank.request.rows.fetched", "JDBC rows read per request", uri, m)
+            });
+        }
+        return s;
+    }
+
+    private DistributionSummary summary(String name, String description, String uri, String method) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("uri", uri)
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(10_000.0)
+                .register(meterRegistry);
+    }
+}
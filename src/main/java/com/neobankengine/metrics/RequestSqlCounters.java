@@ -0,0 +1,41 @@
+package com.neobankengine.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Per-thread counters of SQL statements prepared by Hibernate and rows read from JDBC
+ * result sets (see {@link RowCountingDataSource}). {@link RequestMetricsFilter} resets
+ * them at the start of a request and records them at the end. One long[] per thread,
+ * so counting itself allocates nothing.
+ */
+public final class RequestSqlCounters implements StatementInspector {
+
+    private static final int STATEMENTS = 0;
+    private static final int ROWS = 1;
+
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNTS.get()[STATEMENTS]++;
+        return sql;
+    }
+
+    static void rowFetched() {
+        COUNTS.get()[ROWS]++;
+    }
+
+    static void reset() {
+        long[] c = COUNTS.get();
+        c[STATEMENTS] = 0;
+        c[ROWS] = 0;
+    }
+
+    static long statements() {
+        return COUNTS.get()[STATEMENTS];
+    }
+
+    static long rowsFetched() {
+        return COUNTS.get()[ROWS];
+    }
+}
@@ -0,0 +1,69 @@
+package com.neobankengine.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Counts the rows read from JDBC result sets into {@link RequestSqlCounters}: every
+ * {@code ResultSet.next()} that returns true is one row, whoever issued the query
+ * (Hibernate, Spring Data projections, JdbcTemplate). Connections, statements and
+ * result sets are wrapped in JDK proxies; everything else goes straight to the target.
+ */
+public class RowCountingDataSource extends DelegatingDataSource {
+
+    public RowCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    static Connection counting(Connection connection) {
+        return proxy(Connection.class, connection, (method, result) ->
+                result instanceof Statement statement ? counting(statement, method.getReturnType()) : result);
+    }
+
+    private static Statement counting(Statement statement, Class<?> type) {
+        return proxy(type.asSubclass(Statement.class), statement, (method, result) ->
+                result instanceof ResultSet rows ? counting(rows) : result);
+    }
+
+    private static ResultSet counting(ResultSet rows) {
+        return proxy(ResultSet.class, rows, (method, result) -> {
+            if (result == Boolean.TRUE && method.getName().equals("next")) {
+                RequestSqlCounters.rowFetched();
+            }
+            return result;
+        });
+    }
+
+    private interface ResultMapper {
+        Object map(Method method, Object result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<? extends T> type, T target, ResultMapper results) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            try {
+                return results.map(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package com.neobankengine.metrics;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Records {@link Timed} methods (annotation on the method or its class).
+ *
+ * Unlike Micrometer's TimedAspect, the two timers of a method (outcome=success/error)
+ * are built once and cached, and timing uses nanoTime directly, so a call allocates
+ * nothing beyond what the timer itself records.
+ */
+public class TimedMethodInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+    private final Function<Method, Timer[]> timerFactory = this::createTimers;
+
+    public TimedMethodInterceptor(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        Timer[] pair = timers.get(method);
+        if (pair == null) {
+            pair = timers.computeIfAbsent(method, timerFactory);
+        }
+
+        long start = System.nanoTime();
+        boolean ok = false;
+        try {
+            Object result = invocation.proceed();
+            ok = true;
+            return result;
+        } finally {
+            (ok ? pair[0] : pair[1]).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer[] createTimers(Method method) {
+        Timed timed = AnnotatedElementUtils.findMergedAnnotation(method, Timed.class);
+        if (timed == null) {
+            timed = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), Timed.class);
+        }
+        MeterRegistry meterRegistry = registry.getObject();
+        return new Timer[] {
+                build(timed, method, "success", meterRegistry),
+                build(timed, method, "error", meterRegistry)
+        };
+    }
+
+    private static Timer build(Timed timed, Method method, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder(timed.value().isEmpty() ? "method.timed" : timed.value())
+                .description(timed.description().isEmpty() ? null : timed.description())
+                .tags(timed.extraTags())
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram(timed.histogram())
+                .publishPercentiles(timed.percentiles().length == 0 ? null : timed.percentiles())
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry);
+    }
+}
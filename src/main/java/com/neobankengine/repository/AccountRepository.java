@@ -1,11 +1,102 @@
 package com.neobankengine.repository;
 
+import com.neobankengine.dto.AccountLedgerState;
 import com.neobankengine.entity.Account;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface AccountRepository extends JpaRepository<Account, Long>
 {
     List<Account> findByUserId(Long userId);
+
+    List<Account> findByUserIdOrderByAccountIdAsc(Long userId);
+
+    /**
+     * SELECT ... FOR UPDATE for the money paths: reads the current row and holds it
+     * until the transaction ends, so
+     * concurrent deposits/withdrawals/transfers on one account are serialized.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountId = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    // balance + version + status of one row in one read (the balance response and its ETag)
+    @Query("select new com.neobankengine.dto.AccountLedgerState(a.accountId, a.balance, a.txCount, a.status) " +
+            "from Account a where a.accountId = :id")
+    Optional<AccountLedgerState> findLedgerStateById(@Param("id") Long id);
+
+    // owner only (see AccountOwnershipIndex)
+    @Query("select a.userId from Account a where a.accountId = :id")
+    Long findUserIdById(@Param("id") Long id);
+
+    // maintained counter (see Account.txCount)
+    @Query("select a.txCount from Account a where a.accountId = :id")
+    Long findTxCountById(@Param("id") Long id);
+
+    // user's ledger version: grows with every posting and every new account (see LedgerVersionService)
+    @Query("select coalesce(sum(a.txCount + 1), 0) from Account a where a.userId = :userId")
+    long findLedgerVersionByUserId(@Param("userId") Long userId);
+
+    // ---- status (see AccountStatusCache) ----
+
+    @Query("select a.status from Account a where a.accountId = :id")
+    String findStatusById(@Param("id") Long id);
+
+    @Query("select a.accountId from Account a where a.accountId in :ids")
+    List<Long> findExistingIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Set-based status change for many accounts in one statement.
+     * Clears the persistence context so no stale Account instances survive it.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Account a set a.status = :status where a.accountId in :ids and a.status <> :status")
+    int updateStatusIn(@Param("ids") List<Long> ids, @Param("status") String status);
+
+    // ---- id-range partitioning for batch jobs ----
+    List<Account> findByAccountIdBetweenOrderByAccountIdAsc(Long fromId, Long toId);
+
+    @Query("select min(a.accountId) from Account a")
+    Long findMinAccountId();
+
+    @Query("select max(a.accountId) from Account a")
+    Long findMaxAccountId();
+
+    // ---- admin listings: keyset on accountId, all filters optional ----
+
+    String ADMIN_FILTER = "(:status is null or a.status = :status) " +
+            "and (:userId is null or a.userId = :userId) " +
+            "and (:from is null or a.createdAt >= :from) " +
+            "and (:to is null or a.createdAt <= :to) ";
+
+    @Query("select a from Account a where a.accountId > :after and " + ADMIN_FILTER + "order by a.accountId asc")
+    List<Account> findPageAfter(@Param("after") long after,
+                                @Param("status") String status,
+                                @Param("userId") Long userId,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to,
+                                Pageable limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TransactionRepository.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select a from Account a where " + ADMIN_FILTER + "order by a.accountId asc")
+    Stream<Account> streamForExport(@Param("status") String status,
+                                    @Param("userId") Long userId,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to);
 }
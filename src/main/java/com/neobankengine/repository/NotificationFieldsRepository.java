@@ -0,0 +1,20 @@
+package com.neobankengine.repository;
+
+import com.neobankengine.dto.NotificationDto;
+import com.neobankengine.fields.FieldSet;
+import com.neobankengine.fields.SparseRow;
+
+import java.util.List;
+
+/**
+ * The user's notification listing, selecting only the columns of a {@link FieldSet}
+ * (?fields=), so e.g. the 2,000-char message is not read unless asked for.
+ */
+public interface NotificationFieldsRepository
+{
+    /**
+     * Newest first; unread only if asked; at most {@code limit} rows (null = all).
+     */
+    List<SparseRow> findSparseByUserEmail(String userEmail, boolean unreadOnly, Integer limit,
+                                          FieldSet<NotificationDto> fields);
+}
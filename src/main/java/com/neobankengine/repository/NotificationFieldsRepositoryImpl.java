@@ -0,0 +1,32 @@
+package com.neobankengine.repository;
+
+import com.neobankengine.dto.NotificationDto;
+import com.neobankengine.fields.FieldSet;
+import com.neobankengine.fields.SparseRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class NotificationFieldsRepositoryImpl implements NotificationFieldsRepository
+{
+    private final EntityManager entityManager;
+
+    @Override
+    public List<SparseRow> findSparseByUserEmail(String userEmail, boolean unreadOnly, Integer limit,
+                                                 FieldSet<NotificationDto> fields) {
+        TypedQuery<Object[]> query = entityManager.createQuery("select " + fields.select() +
+                        " from Notification n where n.userEmail = :email " +
+                        (unreadOnly ? "and n.readFlag = false " : "") +
+                        "order by n.createdAt desc", Object[].class)
+                .setParameter("email", userEmail);
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultList().stream()
+                .map(fields::row)
+                .toList();
+    }
+}
@@ -0,0 +1,31 @@
+package com.neobankengine.repository;
+
+import com.neobankengine.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long>
+{
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Marks the token used. Returns 0 if it was already revoked, so of two concurrent
+     * refreshes with the same token only one wins.
+     */
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.id = :id and r.revoked = false")
+    int revokeIfActive(@Param("id") Long id);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revoked = true where r.familyId = :familyId and r.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
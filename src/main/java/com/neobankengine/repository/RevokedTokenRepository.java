@@ -0,0 +1,25 @@
+package com.neobankengine.repository;
+
+import com.neobankengine.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String>
+{
+    // jtis still worth checking (token not yet expired), to build the Bloom filter
+    @Query("select r.jti from RevokedToken r where r.expiresAt > :now")
+    List<String> findLiveJtis(@Param("now") LocalDateTime now);
+
+    // revocations made since the last sync (possibly on another node)
+    @Query("select r.jti from RevokedToken r where r.revokedAt >= :since")
+    List<String> findJtisRevokedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,39 @@
+package com.neobankengine.repository;
+
+import com.neobankengine.dto.TransactionResponse;
+import com.neobankengine.fields.FieldSet;
+import com.neobankengine.fields.SparseRow;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The account history queries of {@link TransactionRepository}, selecting only the
+ * columns of a {@link FieldSet} (?fields=). Same filters and order as their full-row
+ * counterparts.
+ */
+public interface TransactionFieldsRepository
+{
+    // columns appended after the requested ones by the keyset queries (cursor of the last row)
+    String KEYSET_COLUMNS = ", t.timestamp, t.transactionId";
+
+    /** See {@link TransactionRepository#findPageSince}. */
+    List<SparseRow> findSparsePageSince(Long accountId, LocalDateTime since, FieldSet<TransactionResponse> fields,
+                                        Pageable pageable);
+
+    /** See {@link TransactionRepository#findLatestByAccountId}. */
+    List<SparseRow> findSparseLatest(Long accountId, FieldSet<TransactionResponse> fields, int limit);
+
+    /**
+     * See {@link TransactionRepository#findPageBefore}; rows carry {@link #KEYSET_COLUMNS}
+     * after the requested fields.
+     */
+    List<SparseRow> findSparsePageBefore(Long accountId, LocalDateTime ts, Long id, LocalDateTime since,
+                                         FieldSet<TransactionResponse> fields, int limit);
+
+    /** See {@link TransactionRepository#streamForStatement}. */
+    Stream<SparseRow> streamSparseForStatement(Long accountId, LocalDateTime start, LocalDateTime end,
+                                               FieldSet<TransactionResponse> fields);
+}
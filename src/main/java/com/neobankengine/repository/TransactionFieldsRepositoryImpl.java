@@ -0,0 +1,87 @@
+package com.neobankengine.repository;
+
+import com.neobankengine.dto.TransactionResponse;
+import com.neobankengine.fields.FieldSet;
+import com.neobankengine.fields.SparseRow;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.neobankengine.repository.TransactionRepository.NEWEST_FIRST;
+import static com.neobankengine.repository.TransactionRepository.STREAM_FETCH_SIZE;
+
+/**
+ * Builds the JPQL from the field set's select list; Hibernate caches the plan per query
+ * string, so each field set is translated once.
+ */
+@RequiredArgsConstructor
+public class TransactionFieldsRepositoryImpl implements TransactionFieldsRepository
+{
+    private static final String BY_ACCOUNT = " from Transaction t where t.accountId = :accountId ";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<SparseRow> findSparsePageSince(Long accountId, LocalDateTime since,
+                                               FieldSet<TransactionResponse> fields, Pageable pageable) {
+        return entityManager
+                .createQuery("select " + fields.select() + BY_ACCOUNT +
+                        "and (:since is null or t.timestamp >= :since) " + NEWEST_FIRST, Object[].class)
+                .setParameter("accountId", accountId)
+                .setParameter("since", since)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList().stream()
+                .map(fields::row)
+                .toList();
+    }
+
+    @Override
+    public List<SparseRow> findSparseLatest(Long accountId, FieldSet<TransactionResponse> fields, int limit) {
+        return entityManager
+                .createQuery("select " + fields.select() + BY_ACCOUNT + NEWEST_FIRST, Object[].class)
+                .setParameter("accountId", accountId)
+                .setMaxResults(limit)
+                .getResultList().stream()
+                .map(fields::row)
+                .toList();
+    }
+
+    @Override
+    public List<SparseRow> findSparsePageBefore(Long accountId, LocalDateTime ts, Long id, LocalDateTime since,
+                                                FieldSet<TransactionResponse> fields, int limit) {
+        return entityManager
+                .createQuery("select " + fields.select() + KEYSET_COLUMNS + BY_ACCOUNT +
+                        "and (:ts is null or t.timestamp < :ts or (t.timestamp = :ts and t.transactionId < :id)) " +
+                        "and (:since is null or t.timestamp >= :since) " + NEWEST_FIRST, Object[].class)
+                .setParameter("accountId", accountId)
+                .setParameter("ts", ts)
+                .setParameter("id", id)
+                .setParameter("since", since)
+                .setMaxResults(limit)
+                .getResultList().stream()
+                .map(fields::row)
+                .toList();
+    }
+
+    @Override
+    public Stream<SparseRow> streamSparseForStatement(Long accountId, LocalDateTime start, LocalDateTime end,
+                                                      FieldSet<TransactionResponse> fields) {
+        return entityManager
+                .createQuery("select " + fields.select() + BY_ACCOUNT +
+                        "and (:start is null or t.timestamp >= :start) " +
+                        "and (:end is null or t.timestamp <= :end) " +
+                        "order by t.timestamp desc", Object[].class)
+                .setParameter("accountId", accountId)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.parseInt(STREAM_FETCH_SIZE))
+                .getResultStream()
+                .map(fields::row);
+    }
+}
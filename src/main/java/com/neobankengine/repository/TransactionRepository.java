@@ -1,25 +1,215 @@
 package com.neobankengine.repository;
 
+import com.neobankengine.dto.AccountNetDto;
+import com.neobankengine.dto.TransactionResponse;
 import com.neobankengine.entity.Transaction;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long>
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, TransactionFieldsRepository
 {
-    List<Transaction> findByAccountId(Long accountId);
-    Page<Transaction> findByAccountId(Long accountId, Pageable pageable);
-    List<Transaction> findByAccountIdOrderByTimestampDesc(Long accountId);
-    List<Transaction> findByAccountIdAndTimestampBetweenOrderByTimestampDesc(Long accountId, LocalDateTime start, LocalDateTime end);
-    List<Transaction> findByAccountIdAndTimestampAfterOrderByTimestampDesc(Long accountId, LocalDateTime start);
-    List<Transaction> findByAccountIdAndTimestampBeforeOrderByTimestampDesc(Long accountId, LocalDateTime end);
-    List<Transaction> findByAccountIdAndTimestampBefore(Long accountId, LocalDateTime timestamp);
+    // rows pulled per round trip by cursor-backed streams (needs useCursorFetch=true on MySQL)
+    String STREAM_FETCH_SIZE = "500";
+
     List<Transaction> findByAccountIdInAndTimestampBetween(List<Long> accountIds, LocalDateTime start, LocalDateTime end);
-    long countByAccountIdInAndTimestampBetween(List<Long> accountIds, LocalDateTime start, LocalDateTime end);
 
+    // ---- account history as DTOs (no entities, nothing in the persistence context) ----
+
+    String HISTORY_ROW = "select new com.neobankengine.dto.TransactionResponse(" +
+            "t.transactionId, t.accountId, t.type, t.amount, t.timestamp, t.referenceText) " +
+            "from Transaction t where t.accountId = :accountId ";
+
+    // newest first; the id breaks timestamp ties so pages never overlap or skip rows
+    String NEWEST_FIRST = "order by t.timestamp desc, t.transactionId desc";
+
+    /**
+     * Offset page of the rows at or after {@code since} (optional: the archive watermark);
+     * TransactionHistory continues it into the archived months.
+     */
+    @Query(HISTORY_ROW + "and (:since is null or t.timestamp >= :since) " + NEWEST_FIRST)
+    List<TransactionResponse> findPageSince(@Param("accountId") Long accountId,
+                                            @Param("since") LocalDateTime since,
+                                            Pageable pageable);
+
+    @Query("select count(t) from Transaction t where t.accountId = :accountId and t.timestamp >= :since")
+    long countSince(@Param("accountId") Long accountId, @Param("since") LocalDateTime since);
+
+    // first page only, without the count query a Page would run
+    @Query(HISTORY_ROW + NEWEST_FIRST)
+    List<TransactionResponse> findLatestByAccountId(@Param("accountId") Long accountId, Pageable limit);
+
+    /**
+     * Latest {@code n} rows of each of the accounts, in one statement: a LATERAL derived
+     * table per account reads the (account_id, timestamp) index backwards and stops after
+     * {@code n} rows (InnoDB keeps the id in the index, so the id tie-break needs no sort).
+     * Each account costs n index entries however long its history; numbering every row
+     * with ROW_NUMBER() read whole histories. Needs MySQL 8.0.14+.
+     * Ordered by account, then newest first; accounts that don't exist are absent.
+     */
+    @Query("select new com.neobankengine.dto.TransactionResponse(r.id, a.accountId, r.type, r.amount, r.ts, r.ref) " +
+            "from Account a join lateral (" +
+            "select t.transactionId as id, t.type as type, t.amount as amount, t.timestamp as ts, " +
+            "t.referenceText as ref " +
+            "from Transaction t where t.accountId = a.accountId " + NEWEST_FIRST + " limit :n) r " +
+            "where a.accountId in :accountIds order by a.accountId, r.ts desc, r.id desc")
+    List<TransactionResponse> findLatestByAccountIds(@Param("accountIds") List<Long> accountIds, @Param("n") int n);
+
+    /**
+     * Keyset page: rows strictly older than the (timestamp, id) cursor, newest first, at or
+     * after {@code since} (optional: the archive watermark). First page when ts/id are null.
+     * Uses the (account_id, timestamp) index as a range, so every page costs the same.
+     */
+    @Query(HISTORY_ROW +
+            "and (:ts is null or t.timestamp < :ts or (t.timestamp = :ts and t.transactionId < :id)) " +
+            "and (:since is null or t.timestamp >= :since) " + NEWEST_FIRST)
+    List<TransactionResponse> findPageBefore(@Param("accountId") Long accountId,
+                                             @Param("ts") LocalDateTime ts,
+                                             @Param("id") Long id,
+                                             @Param("since") LocalDateTime since,
+                                             Pageable limit);
+
+    /**
+     * Sum of CREDIT minus everything else at or after {@code since} (null amounts count as 0).
+     */
+    @Query("select coalesce(sum(case when upper(t.type) = 'CREDIT' then t.amount else -t.amount end), 0) " +
+            "from Transaction t where t.accountId = :accountId and t.timestamp >= :since")
+    double netAmountSince(@Param("accountId") Long accountId, @Param("since") LocalDateTime since);
+
+    /**
+     * Highest transaction id in the (optional) range, null if there are none.
+     * Ids only grow, so this identifies the exact contents of a statement.
+     */
+    @Query("select max(t.transactionId) from Transaction t " +
+            "where t.accountId = :accountId " +
+            "and (:start is null or t.timestamp >= :start) " +
+            "and (:end is null or t.timestamp <= :end)")
+    Long findLatestTransactionId(@Param("accountId") Long accountId,
+                                 @Param("start") LocalDateTime start,
+                                 @Param("end") LocalDateTime end);
+
+    /**
+     * Statement rows (newest first) read through a DB cursor straight into DTOs,
+     * so nothing is kept in the persistence context. start/end are optional.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select new com.neobankengine.dto.TransactionResponse(" +
+            "t.transactionId, t.accountId, t.type, t.amount, t.timestamp, t.referenceText) " +
+            "from Transaction t " +
+            "where t.accountId = :accountId " +
+            "and (:start is null or t.timestamp >= :start) " +
+            "and (:end is null or t.timestamp <= :end) " +
+            "order by t.timestamp desc")
+    Stream<TransactionResponse> streamForStatement(@Param("accountId") Long accountId,
+                                                   @Param("start") LocalDateTime start,
+                                                   @Param("end") LocalDateTime end);
+
+    // ---- id-range partition scans for batch jobs ----
+
+    /**
+     * Net movement (CREDIT - DEBIT) per account in [fromId, toId] at or after {@code since}.
+     * Accounts without transactions in that window are absent.
+     */
+    @Query("select new com.neobankengine.dto.AccountNetDto(t.accountId, " +
+            "coalesce(sum(case when upper(t.type) = 'CREDIT' then t.amount else -t.amount end), 0)) " +
+            "from Transaction t " +
+            "where t.accountId between :fromId and :toId and t.timestamp >= :since " +
+            "group by t.accountId")
+    List<AccountNetDto> netAmountSinceByAccount(@Param("fromId") Long fromId,
+                                                @Param("toId") Long toId,
+                                                @Param("since") LocalDateTime since);
+
+    /**
+     * Whole-ledger net movement (CREDIT - DEBIT) per account in [fromId, toId], used by
+     * reconciliation. Accounts without transactions are absent.
+     */
+    @Query("select new com.neobankengine.dto.AccountNetDto(t.accountId, " +
+            "coalesce(sum(case when upper(t.type) = 'CREDIT' then t.amount else -t.amount end), 0)) " +
+            "from Transaction t " +
+            "where t.accountId between :fromId and :toId " +
+            "group by t.accountId")
+    List<AccountNetDto> netAmountByAccount(@Param("fromId") Long fromId,
+                                           @Param("toId") Long toId);
+
+    /**
+     * All rows of an account-id range in one ordered scan:
+     * account ascending, then newest first (statement order) within each account.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select new com.neobankengine.dto.TransactionResponse(" +
+            "t.transactionId, t.accountId, t.type, t.amount, t.timestamp, t.referenceText) " +
+            "from Transaction t " +
+            "where t.accountId between :fromId and :toId " +
+            "and t.timestamp between :start and :end " +
+            "order by t.accountId asc, t.timestamp desc")
+    Stream<TransactionResponse> streamForAccountRange(@Param("fromId") Long fromId,
+                                                      @Param("toId") Long toId,
+                                                      @Param("start") LocalDateTime start,
+                                                      @Param("end") LocalDateTime end);
+
+    // ---- archival of old months (see TransactionArchiveService) ----
+
+    @Query("select min(t.timestamp) from Transaction t")
+    LocalDateTime findMinTimestamp();
+
+    long countByTimestampGreaterThanEqualAndTimestampLessThan(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * One month in segment order: account, then time, then id.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.neobankengine.dto.TransactionResponse(" +
+            "t.transactionId, t.accountId, t.type, t.amount, t.timestamp, t.referenceText) " +
+            "from Transaction t " +
+            "where t.timestamp >= :start and t.timestamp < :end " +
+            "order by t.accountId asc, t.timestamp asc, t.transactionId asc")
+    Stream<TransactionResponse> streamForArchive(@Param("start") LocalDateTime start,
+                                                 @Param("end") LocalDateTime end);
+
+    /**
+     * Deletes up to {@code limit} archived rows; called in a loop so no single
+     * statement holds locks on a whole month.
+     */
+    @Modifying
+    @Query(value = "delete from transaction where timestamp < :before limit :limit", nativeQuery = true)
+    int deleteOlderThan(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    // ---- admin listings: keyset on transactionId, all filters optional ----
+
+    String ADMIN_FILTER = "(:type is null or t.type = :type) " +
+            "and (:accountId is null or t.accountId = :accountId) " +
+            "and (:from is null or t.timestamp >= :from) " +
+            "and (:to is null or t.timestamp <= :to) ";
 
+    @Query("select t from Transaction t where t.transactionId > :after and " + ADMIN_FILTER +
+            "order by t.transactionId asc")
+    List<Transaction> findPageAfter(@Param("after") long after,
+                                    @Param("type") String type,
+                                    @Param("accountId") Long accountId,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to,
+                                    Pageable limit);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from Transaction t where " + ADMIN_FILTER + "order by t.transactionId asc")
+    Stream<Transaction> streamForExport(@Param("type") String type,
+                                        @Param("accountId") Long accountId,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
 }
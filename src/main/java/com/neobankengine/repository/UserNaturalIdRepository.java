@@ -0,0 +1,24 @@
+package com.neobankengine.repository;
+
+import com.neobankengine.entity.User;
+
+import java.util.Optional;
+
+/**
+ * Lookups by the User natural id (email), served from the second-level cache when possible,
+ * plus the database reads for decisions that must not use another node's stale entry.
+ */
+public interface UserNaturalIdRepository
+{
+    Optional<User> findByEmail(String email);
+
+    /**
+     * The User as the database has it now (password, status), refreshing the cached copy.
+     */
+    Optional<User> findFreshByEmail(String email);
+
+    /**
+     * See {@link #findFreshByEmail}.
+     */
+    Optional<User> findFreshById(Long id);
+}
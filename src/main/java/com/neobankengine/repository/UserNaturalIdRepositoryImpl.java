@@ -0,0 +1,59 @@
+package com.neobankengine.repository;
+
+import com.neobankengine.entity.User;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository
+{
+    private final EntityManager entityManager;
+
+    /**
+     * email -> id from the natural-id cache, then the User from the entity cache; a miss
+     * on either goes to the database and fills it. Replaces the derived query, which
+     * always hit the database.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(email);
+    }
+
+    /**
+     * Bypasses the cache for the read (an entry may predate a status or password change
+     * made on another node; only the node making it evicts) and puts the row it reads.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findFreshByEmail(String email) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode mode = session.getCacheMode();
+        session.setCacheMode(CacheMode.REFRESH);
+        try {
+            return session.bySimpleNaturalId(User.class).loadOptional(email);
+        } finally {
+            session.setCacheMode(mode);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findFreshById(Long id) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode mode = session.getCacheMode();
+        session.setCacheMode(CacheMode.REFRESH);
+        try {
+            return Optional.ofNullable(session.find(User.class, id));
+        } finally {
+            session.setCacheMode(mode);
+        }
+    }
+}
@@ -1,11 +1,52 @@
 package com.neobankengine.repository;
 
 import com.neobankengine.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import java.util.Optional;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface UserRepository extends JpaRepository<User, Long>
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+// findByEmail comes from UserNaturalIdRepository (second-level cache)
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository
 {
-    Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    // users whose status was ever changed (seeds UserStatusRegistry on startup)
+    List<User> findByStatusVersionGreaterThan(Integer version);
+
+    // status changes since the registry's last sync (idx_user_status_changed)
+    List<User> findByStatusChangedAtGreaterThanEqual(LocalDateTime since);
+
+    // ---- admin listings: keyset on id, all filters optional ----
+
+    String ADMIN_FILTER = "(:role is null or u.role = :role) " +
+            "and (:active is null or u.status = :active) " +
+            "and (:from is null or u.createdAt >= :from) " +
+            "and (:to is null or u.createdAt <= :to) ";
+
+    @Query("select u from User u where u.id > :after and " + ADMIN_FILTER + "order by u.id asc")
+    List<User> findPageAfter(@Param("after") long after,
+                             @Param("role") String role,
+                             @Param("active") Boolean active,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to,
+                             Pageable limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = TransactionRepository.STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select u from User u where " + ADMIN_FILTER + "order by u.id asc")
+    Stream<User> streamForExport(@Param("role") String role,
+                                 @Param("active") Boolean active,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
 }
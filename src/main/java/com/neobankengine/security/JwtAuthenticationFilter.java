@@ -5,6 +5,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -12,12 +13,16 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final UserStatusRegistry userStatusRegistry;
+    private final TokenRevocationList tokenRevocationList;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -27,40 +32,47 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
 
-        String token = null;
-        String username = null;
-
-        // Extract Bearer token
+        // Extract Bearer token and verify it (signature + expiry) exactly once
+        JwtPrincipal principal = null;
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-
             try {
-                username = jwtUtil.extractUsername(token);
+                principal = jwtUtil.verify(authHeader.substring(7));
             } catch (Exception e) {
                 // invalid or expired token; skip setting authentication
             }
         }
 
         // If token valid and no authentication exists yet
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-            if (jwtUtil.validateToken(token, userDetails.getUsername())) {
+        if (principal != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
-
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
+            UsernamePasswordAuthenticationToken authToken;
+            if (principal.hasUserClaims()) {
+                // everything needed is in the token; only the in-memory checks remain
+                // (the revocation list reaches the DB only on a Bloom filter hit)
+                if (userStatusRegistry.isRevoked(principal) || tokenRevocationList.isRevoked(principal)) {
+                    chain.doFilter(request, response);
+                    return;
+                }
+                authToken = new UsernamePasswordAuthenticationToken(
+                        principal,
+                        null,
+                        List.of(new SimpleGrantedAuthority("ROLE_" + principal.role()))
+                );
+            } else {
+                // token issued before uid/role claims existed: look the user up once more
+                UserDetails userDetails = userDetailsService.loadUserByUsername(principal.email());
+                authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
                 );
-
-                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
+
+            authToken.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request)
+            );
+
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         chain.doFilter(request, response);
@@ -0,0 +1,31 @@
+package com.neobankengine.security;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Verified content of a JWT, built once per token by {@link JwtUtil#verify(String)}.
+ * userId / role / statusVersion come from token claims, so authenticating a request
+ * needs no user lookup. They are null for tokens issued before those claims existed.
+ * jti identifies the token for revocation (logout); null on older tokens.
+ */
+public record JwtPrincipal(String email,
+                           Long userId,
+                           String role,
+                           Integer statusVersion,
+                           Instant expiresAt,
+                           String jti) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    public boolean hasUserClaims() {
+        return userId != null && role != null && statusVersion != null;
+    }
+}
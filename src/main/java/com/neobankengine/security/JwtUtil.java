@@ -1,68 +1,112 @@
 package com.neobankengine.security;
 
+import com.neobankengine.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
+    private final VerifiedTokenCache verifiedTokenCache;
+
     @Value("${jwt.secret}")
     private String secret;  // Must be long enough (32+ chars recommended)
 
     @Value("${jwt.expiration-ms}")
-    private long jwtExpirationMs;
+    private long jwtExpirationMs;  // access tokens are short-lived; clients renew them with a refresh token
+
+    // built once: deriving the key and the parser per call was most of the verification cost
+    private Key signingKey;
+    private JwtParser parser;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
-    // Generate token with subject = email
-    public String generateToken(String subject) {
+    // claim names (kept short: they travel with every request)
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_STATUS_VERSION = "sv";
+
+    public long getExpirationMs() {
+        return jwtExpirationMs;
+    }
+
+    // Generate token with subject = email plus the claims needed to authorize without a DB read;
+    // the random jti lets a single token be revoked on logout
+    public String generateToken(User user) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + jwtExpirationMs);
 
         return Jwts.builder()
-                .setSubject(subject)
+                .setSubject(user.getEmail())
+                .setId(UUID.randomUUID().toString())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole())
+                .claim(CLAIM_STATUS_VERSION, user.getStatusVersion() == null ? 0 : user.getStatusVersion())
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    // Extract username (email) from token
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    /**
+     * Verifies signature and expiry and returns the token's principal.
+     * Each distinct token is parsed once; repeats are served from {@link VerifiedTokenCache}.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public JwtPrincipal verify(String token) {
+        Instant now = Instant.now();
+        JwtPrincipal cached = verifiedTokenCache.get(token, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        // parseClaimsJws checks signature and exp
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            throw new MalformedJwtException("Token has no subject or expiry");
+        }
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        Number statusVersion = claims.get(CLAIM_STATUS_VERSION, Number.class);
+        JwtPrincipal principal = new JwtPrincipal(
+                claims.getSubject(),
+                userId == null ? null : userId.longValue(),
+                claims.get(CLAIM_ROLE, String.class),
+                statusVersion == null ? null : statusVersion.intValue(),
+                claims.getExpiration().toInstant(),
+                claims.getId());
+        verifiedTokenCache.put(token, principal, now);
+        return principal;
     }
 
-    // Generic extractor
-    public <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = parseClaims(token);
-        return resolver.apply(claims);
+    // Extract username (email) from token
+    public String extractUsername(String token) {
+        return verify(token).email();
     }
 
     // Validate token
     public boolean validateToken(String token, String username) {
-        String extracted = extractUsername(token);
-        return (extracted.equals(username) && !isTokenExpired(token));
-    }
-
-    // Expiration
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
-    }
-
-    // Parse token
-    private Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        try {
+            return verify(token).email().equals(username);
+        } catch (JwtException e) {
+            return false;
+        }
     }
 }
@@ -0,0 +1,191 @@
+package com.neobankengine.security;
+
+import com.neobankengine.dto.ApiError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Admission control, runs right after {@link JwtAuthenticationFilter}.
+ *
+ * 1. Rate limit: a token bucket per (endpoint class, caller). The caller is the user id
+ *    when the request carries a token with claims, otherwise the client IP; login is
+ *    always per IP since that is where credential stuffing comes from.
+ * 2. Bulkhead: endpoints that are expensive per call (login = BCrypt, PDF rendering,
+ *    admin listings/exports) also get a cap on concurrent requests, so a burst on one
+ *    of them cannot take every worker thread away from /transfer.
+ *
+ * Rejections are 429 with Retry-After. The response is written here because the
+ * exception handler only sees exceptions thrown from controllers.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Endpoint classes, each with its own buckets and optional bulkhead.
+     */
+    enum EndpointClass {
+        LOGIN, MONEY, STATEMENT_PDF, ADMIN_LISTING, DEFAULT
+    }
+
+    private static final int BULKHEAD_RETRY_AFTER_SECONDS = 1;
+
+    private final TokenBucketTable buckets;
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+
+    // indexed by EndpointClass.ordinal()
+    private final long[] intervalMs = new long[EndpointClass.values().length];
+    private final int[] burst = new int[EndpointClass.values().length];
+    private final Semaphore[] bulkheads = new Semaphore[EndpointClass.values().length];
+    private final Counter[] rateLimited = new Counter[EndpointClass.values().length];
+    private final Counter[] bulkheadFull = new Counter[EndpointClass.values().length];
+
+    public RateLimitFilter(JsonMapper jsonMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.table-size:4194304}") int tableSize,
+                           @Value("${rate-limit.login.per-minute:10}") int loginPerMinute,
+                           @Value("${rate-limit.login.burst:10}") int loginBurst,
+                           @Value("${rate-limit.money.per-second:5}") int moneyPerSecond,
+                           @Value("${rate-limit.money.burst:10}") int moneyBurst,
+                           @Value("${rate-limit.api.per-second:20}") int apiPerSecond,
+                           @Value("${rate-limit.api.burst:40}") int apiBurst,
+                           @Value("${bulkhead.login.max-concurrent:0}") int loginConcurrent,
+                           @Value("${bulkhead.statement-pdf.max-concurrent:4}") int pdfConcurrent,
+                           @Value("${bulkhead.admin-listing.max-concurrent:8}") int adminConcurrent) {
+        this.jsonMapper = jsonMapper;
+        this.enabled = enabled;
+        this.buckets = new TokenBucketTable(tableSize);
+
+        limit(EndpointClass.LOGIN, 60_000L / loginPerMinute, loginBurst);
+        limit(EndpointClass.MONEY, 1_000L / moneyPerSecond, moneyBurst);
+        limit(EndpointClass.STATEMENT_PDF, 1_000L / apiPerSecond, apiBurst);
+        limit(EndpointClass.ADMIN_LISTING, 1_000L / apiPerSecond, apiBurst);
+        limit(EndpointClass.DEFAULT, 1_000L / apiPerSecond, apiBurst);
+
+        // 0 = one BCrypt check per core at a time
+        int cores = Runtime.getRuntime().availableProcessors();
+        bulkheads[EndpointClass.LOGIN.ordinal()] = new Semaphore(loginConcurrent > 0 ? loginConcurrent : cores);
+        bulkheads[EndpointClass.STATEMENT_PDF.ordinal()] = new Semaphore(pdfConcurrent);
+        bulkheads[EndpointClass.ADMIN_LISTING.ordinal()] = new Semaphore(adminConcurrent);
+
+        for (EndpointClass c : EndpointClass.values()) {
+            String name = c.name().toLowerCase();
+            rateLimited[c.ordinal()] = Counter.builder("neobank.admission.rejected")
+                    .description("Requests rejected with 429")
+                    .tag("endpoint", name).tag("reason", "rate_limit")
+                    .register(meterRegistry);
+            bulkheadFull[c.ordinal()] = Counter.builder("neobank.admission.rejected")
+                    .description("Requests rejected with 429")
+                    .tag("endpoint", name).tag("reason", "bulkhead")
+                    .register(meterRegistry);
+        }
+    }
+
+    private void limit(EndpointClass c, long interval, int size) {
+        intervalMs[c.ordinal()] = Math.max(1, interval);
+        burst[c.ordinal()] = Math.max(1, size);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        EndpointClass c = classify(request);
+        int i = c.ordinal();
+
+        long waitMs = buckets.tryAcquire(callerKey(c, request), intervalMs[i], burst[i]);
+        if (waitMs > 0) {
+            rateLimited[i].increment();
+            reject(request, response, (waitMs + 999) / 1000, "Rate limit exceeded, please retry later.");
+            return;
+        }
+
+        Semaphore bulkhead = bulkheads[i];
+        if (bulkhead == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!bulkhead.tryAcquire()) {
+            bulkheadFull[i].increment();
+            reject(request, response, BULKHEAD_RETRY_AFTER_SECONDS, "Server is busy, please retry shortly.");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    // plain string checks on the path: no pattern matcher, nothing allocated
+    static EndpointClass classify(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String method = request.getMethod();
+
+        if ("POST".equals(method)) {
+            if (uri.equals("/api/auth/login")) {
+                return EndpointClass.LOGIN;
+            }
+            if (uri.startsWith("/api/accounts/")
+                    && (uri.equals("/api/accounts/transfer") || uri.endsWith("/deposit") || uri.endsWith("/withdraw"))) {
+                return EndpointClass.MONEY;
+            }
+            return EndpointClass.DEFAULT;
+        }
+        if ("GET".equals(method)) {
+            if (uri.startsWith("/api/accounts/") && uri.endsWith("/statement.pdf")) {
+                return EndpointClass.STATEMENT_PDF;
+            }
+            if (uri.startsWith("/api/admin/users")
+                    || uri.startsWith("/api/admin/accounts")
+                    || uri.startsWith("/api/admin/transactions")) {
+                return EndpointClass.ADMIN_LISTING;
+            }
+        }
+        return EndpointClass.DEFAULT;
+    }
+
+    private static long callerKey(EndpointClass c, HttpServletRequest request) {
+        if (c != EndpointClass.LOGIN) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.getPrincipal() instanceof JwtPrincipal p && p.hasUserClaims()) {
+                return TokenBucketTable.key(c.ordinal(), p.userId());
+            }
+        }
+        // behind a proxy set server.forward-headers-strategy so this is the client, not the proxy
+        return TokenBucketTable.key(c.ordinal(), request.getRemoteAddr());
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response,
+                        long retryAfterSeconds, String message) throws IOException {
+        ApiError err = new ApiError(Instant.now(), HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests",
+                message, request.getRequestURI(), null);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfterSeconds)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), err);
+    }
+}
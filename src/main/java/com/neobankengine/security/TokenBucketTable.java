@@ -0,0 +1,123 @@
+package com.neobankengine.security;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token buckets for any number of keys in one fixed-size array of longs.
+ *
+ * Each bucket is kept as its "theoretical arrival time" (GCRA): the instant the bucket
+ * would be full again. That single number is all a token bucket needs, so a bucket is
+ * one long: 20 bits of key fingerprint + 44 bits of time in ms, updated with CAS.
+ * No locks, and nothing is allocated per call.
+ *
+ * A key may use any slot of its group of 8 (one 64-byte cache line). A slot owned by
+ * another key is taken over once that bucket is full again (it holds no state worth
+ * keeping); if the whole group is busy with other keys the new key shares a slot, which
+ * can only make the limit stricter, never looser. Keep the table at about 4x the number
+ * of keys active within one refill period and sharing stays rare.
+ */
+public class TokenBucketTable {
+
+    private static final int TIME_BITS = 44;
+    private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+    private static final int GROUP = 8;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * @param size slot count, rounded up to a power of two (8 bytes per slot)
+     */
+    public TokenBucketTable(int size) {
+        int capacity = Integer.highestOneBit(Math.max(GROUP, size - 1)) << 1;
+        this.slots = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @param key        hashed key, see {@link #key}
+     * @param intervalMs one token is added every intervalMs
+     * @param burst      bucket size
+     * @return 0 if allowed, else how many ms until a token is available
+     */
+    public long tryAcquire(long key, long intervalMs, int burst) {
+        long h = mix(key ^ seed);
+        long fp = h >>> TIME_BITS;
+        int group = (int) h & mask & -GROUP;
+        long tolerance = intervalMs * (burst - 1);
+        long now = nowMillis();
+
+        while (true) {
+            int idx = pickSlot(group, fp, now);
+            long cur = slots.get(idx);
+            long tat = cur & TIME_MASK;
+            if ((cur >>> TIME_BITS) != fp && tat <= now) {
+                tat = now; // someone else's bucket, already full again: start ours
+            }
+            long start = Math.max(tat, now);
+            if (start - now > tolerance) {
+                return start - tolerance - now;
+            }
+            if (slots.compareAndSet(idx, cur, (fp << TIME_BITS) | (start + intervalMs))) {
+                return 0;
+            }
+        }
+    }
+
+    // our own slot in the group, else the first idle one, else the group's first slot (shared)
+    private int pickSlot(int group, long fp, long now) {
+        int idle = -1;
+        for (int i = group; i < group + GROUP; i++) {
+            long v = slots.get(i);
+            if ((v >>> TIME_BITS) == fp) {
+                return i;
+            }
+            if (idle < 0 && (v & TIME_MASK) <= now) {
+                idle = i;
+            }
+        }
+        return idle >= 0 ? idle : group;
+    }
+
+    // ms since this table was created, never 0 (0 = empty slot)
+    private long nowMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000 + 1;
+    }
+
+    // ---------- keys ----------
+
+    public static long key(int keyClass, long id) {
+        return mix(id * 31 + keyClass);
+    }
+
+    /**
+     * Key for a string (IP address, email) without allocating: FNV-1a over the chars.
+     */
+    public static long key(int keyClass, CharSequence s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h * 31 + keyClass);
+    }
+
+    // murmur3 fmix64
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,194 @@
+package com.neobankengine.security;
+
+import com.neobankengine.entity.RevokedToken;
+import com.neobankengine.repository.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Access tokens revoked before expiry (logout), checked on every authenticated request.
+ *
+ * The revoked jtis live in the revoked_token table; in memory there is only a Bloom
+ * filter over them. A token whose jti is not in the filter is certainly not revoked,
+ * which is the answer for almost every request, and costs no I/O. Only a filter hit
+ * (a revoked token, or a ~1% false positive) is confirmed with a primary-key lookup.
+ *
+ * The filter is topped up every {@code jwt.revocation.sync-ms} with revocations made
+ * on other nodes, and rebuilt hourly without the expired ones (a Bloom filter cannot
+ * forget) after purging expired rows.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    // re-read a little before the last sync: a row may commit after our query started
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedEntries;
+    private final TransactionTemplate primaryTx;
+
+    private volatile Bloom bloom;
+    private volatile LocalDateTime lastSync;
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${jwt.revocation.bloom-expected-entries:100000}") int expectedEntries) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.primaryTx = new TransactionTemplate(transactionManager);
+        this.expectedEntries = expectedEntries;
+        rebuild();
+    }
+
+    /**
+     * True if this access token was revoked. Tokens without a jti (issued before
+     * revocation existed) cannot be revoked and simply run to their expiry.
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        String jti = principal.jti();
+        if (jti == null || !bloom.mightContain(jti)) {
+            return false;
+        }
+        // read-write transaction = primary: a logout from a moment ago may not be on the replica yet
+        return Boolean.TRUE.equals(primaryTx.execute(status -> revokedTokenRepository.existsById(jti)));
+    }
+
+    /**
+     * Revokes the access token; visible to this node's filter once the transaction commits.
+     */
+    public void revoke(JwtPrincipal principal) {
+        if (principal.jti() == null) {
+            return;
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(principal.expiresAt(), ZoneId.systemDefault());
+        revokedTokenRepository.save(new RevokedToken(principal.jti(), principal.userId(), expiresAt, LocalDateTime.now()));
+
+        String jti = principal.jti();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bloom.add(jti);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bloom.add(jti);
+            }
+        });
+    }
+
+    // ------------------------------------------------
+    // SYNC / REBUILD
+    // ------------------------------------------------
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-ms:15000}", initialDelayString = "${jwt.revocation.sync-ms:15000}")
+    public void sync() {
+        LocalDateTime since = lastSync.minusSeconds(SYNC_OVERLAP_SECONDS);
+        LocalDateTime started = LocalDateTime.now();
+        Bloom current = bloom;
+        for (String jti : revokedTokenRepository.findJtisRevokedSince(since)) {
+            current.add(jti);
+        }
+        lastSync = started;
+    }
+
+    @Scheduled(cron = "${jwt.revocation.rebuild-cron:0 0 * * * *}")
+    @Transactional
+    public void purgeAndRebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        int revoked = revokedTokenRepository.deleteExpired(now);
+        log.info("token revocation list: purged {} expired rows", revoked);
+        rebuild();
+    }
+
+    private void rebuild() {
+        LocalDateTime started = LocalDateTime.now();
+        List<String> live = revokedTokenRepository.findLiveJtis(started);
+        Bloom next = new Bloom(Math.max(expectedEntries, live.size() * 2));
+        for (String jti : live) {
+            next.add(jti);
+        }
+        bloom = next;
+        lastSync = started;
+        // revocations committed while we were loading go into the new filter too
+        sync();
+        log.info("token revocation list: {} live revoked tokens, {} KiB filter", live.size(), next.sizeBytes() / 1024);
+    }
+
+    // ---------- Bloom filter ----------
+
+    /**
+     * Bloom filter with 1% false positives at its expected size; bits set with CAS
+     * so adds from concurrent logouts are never lost.
+     */
+    static final class Bloom {
+
+        private static final int HASHES = 7;
+
+        private final AtomicLongArray words;
+        private final long bits;
+
+        Bloom(int expectedEntries) {
+            // m = -n ln(p) / (ln 2)^2 with p = 0.01  ->  ~9.6 bits per entry
+            long m = Math.max(64, (long) Math.ceil(expectedEntries * 9.6));
+            this.words = new AtomicLongArray((int) ((m + 63) / 64));
+            this.bits = words.length() * 64L;
+        }
+
+        void add(String s) {
+            long h = hash(s);
+            long h1 = h, h2 = (h >>> 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int w = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long cur;
+                while (((cur = words.get(w)) & mask) == 0 && !words.compareAndSet(w, cur, cur | mask)) {
+                    // retry
+                }
+            }
+        }
+
+        boolean mightContain(String s) {
+            long h = hash(s);
+            long h1 = h, h2 = (h >>> 32) | 1;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long sizeBytes() {
+            return words.length() * 8L;
+        }
+
+        // FNV-1a then murmur3 fmix64
+        private static long hash(String s) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < s.length(); i++) {
+                h ^= s.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.neobankengine.security;
+
+import com.neobankengine.entity.User;
+import com.neobankengine.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current status of every user whose status was ever changed, so tokens can be checked
+ * without a DB read. Seeded on startup from users with statusVersion > 0 and updated
+ * after commit by admin status changes on this node. Changes made on other nodes are
+ * picked up every {@code jwt.user-status.sync-ms} from the users whose statusChangedAt
+ * moved since the last sync. Users absent here are active at version 0.
+ */
+@Component
+@Slf4j
+public class UserStatusRegistry {
+
+    // re-read a little before the last sync: a row may commit after our query started
+    private static final long SYNC_OVERLAP_SECONDS = 5;
+
+    private record Status(boolean active, int version) {
+    }
+
+    private final UserRepository userRepository;
+    private final Map<Long, Status> statuses = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastSync;
+
+    public UserStatusRegistry(UserRepository userRepository) {
+        this.userRepository = userRepository;
+        lastSync = LocalDateTime.now();
+        for (User u : userRepository.findByStatusVersionGreaterThan(0)) {
+            apply(u);
+        }
+        log.info("user status registry: {} users with status changes", statuses.size());
+    }
+
+    /**
+     * True if the user is deactivated or the token predates the user's last status change.
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        Status s = statuses.get(principal.userId());
+        return s != null && (!s.active() || principal.statusVersion() < s.version());
+    }
+
+    /**
+     * Publishes a status change once the surrounding transaction commits.
+     */
+    public void updateAfterCommit(Long userId, boolean active, int version) {
+        Status status = new Status(active, version);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            statuses.merge(userId, status, UserStatusRegistry::newer);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                statuses.merge(userId, status, UserStatusRegistry::newer);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.user-status.sync-ms:15000}", initialDelayString = "${jwt.user-status.sync-ms:15000}")
+    public void sync() {
+        LocalDateTime since = lastSync.minusSeconds(SYNC_OVERLAP_SECONDS);
+        LocalDateTime started = LocalDateTime.now();
+        for (User u : userRepository.findByStatusChangedAtGreaterThanEqual(since)) {
+            apply(u);
+        }
+        lastSync = started;
+    }
+
+    private void apply(User u) {
+        int version = u.getStatusVersion() == null ? 0 : u.getStatusVersion();
+        statuses.merge(u.getId(), new Status(!Boolean.FALSE.equals(u.getStatus()), version), UserStatusRegistry::newer);
+    }
+
+    private static Status newer(Status a, Status b) {
+        return b.version() >= a.version() ? b : a;
+    }
+}
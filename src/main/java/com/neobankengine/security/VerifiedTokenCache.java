@@ -0,0 +1,46 @@
+package com.neobankengine.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Tokens whose signature was already checked, keyed by the token itself: a lookup is
+ * one String hash + equals, far cheaper than a digest, and only the identical token can
+ * hit an entry (a short hash would let a crafted collision borrow someone's principal).
+ * Each entry expires at the token's own expiry; the cache holds at most
+ * {@code jwt.cache.max-entries} tokens and evicts the least useful ones beyond that.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, JwtPrincipal> entries;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-entries:10000}") int maxEntries) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(Expiry.creating((String token, JwtPrincipal p) ->
+                        Duration.between(Instant.now(), p.expiresAt())))
+                .build();
+    }
+
+    /**
+     * Cached principal for the token if present and not expired, else null.
+     */
+    public JwtPrincipal get(String token, Instant now) {
+        JwtPrincipal p = entries.getIfPresent(token);
+        // the cache's own expiry runs on its ticker; the token's exp is the authority
+        return p == null || p.isExpired(now) ? null : p;
+    }
+
+    public void put(String token, JwtPrincipal principal, Instant now) {
+        if (!principal.isExpired(now)) {
+            entries.put(token, principal);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.neobankengine.service;
+
+import com.neobankengine.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * accountId -> owning userId. An account never changes owner, so entries never go stale
+ * and are never invalidated; misses are filled from the DB once.
+ *
+ * Stored in an open-addressing long/long table (16 bytes per slot, no boxing) guarded
+ * by a StampedLock, so the hot path is an optimistic, lock-free read. Stops growing at
+ * {@code accounts.ownership-index.max-entries}; accounts beyond that are looked up in
+ * the DB each time.
+ */
+@Component
+public class AccountOwnershipIndex {
+
+    private final AccountRepository accountRepository;
+    private final int maxEntries;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongLongTable table = new LongLongTable(1 << 12);
+
+    public AccountOwnershipIndex(AccountRepository accountRepository,
+                                 @Value("${accounts.ownership-index.max-entries:5000000}") int maxEntries) {
+        this.accountRepository = accountRepository;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Owner of the account, or null if the account does not exist.
+     */
+    public Long findOwner(long accountId) {
+        long owner = get(accountId);
+        if (owner != LongLongTable.MISSING) {
+            return owner;
+        }
+        Long userId = accountRepository.findUserIdById(accountId);
+        if (userId != null) {
+            put(accountId, userId);
+        }
+        return userId;
+    }
+
+    public void put(long accountId, long userId) {
+        long stamp = lock.writeLock();
+        try {
+            if (table.size() < maxEntries || table.get(accountId) != LongLongTable.MISSING) {
+                table.put(accountId, userId);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private long get(long accountId) {
+        long stamp = lock.tryOptimisticRead();
+        long owner = table.get(accountId);
+        if (lock.validate(stamp)) {
+            return owner;
+        }
+        stamp = lock.readLock();
+        try {
+            return table.get(accountId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Linear-probing hash table of long keys to long values. Key 0 marks an empty slot
+     * (account ids start at 1). Not thread-safe on its own; reads racing a resize may see
+     * garbage, which the optimistic-read validation above discards.
+     */
+    static final class LongLongTable {
+        static final long MISSING = -1L;
+
+        private long[] keys;
+        private long[] values;
+        private int size;
+
+        LongLongTable(int capacity) {
+            keys = new long[capacity];
+            values = new long[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        long get(long key) {
+            long[] k = keys;
+            long[] v = values;
+            if (k.length != v.length) {
+                return MISSING; // caught mid-resize; the caller's validation retries
+            }
+            int mask = k.length - 1;
+            // bounded probe: a read racing a resize must not spin forever
+            for (int i = slot(key, mask), n = 0; n <= mask; i = (i + 1) & mask, n++) {
+                long found = k[i];
+                if (found == key) {
+                    return v[i];
+                }
+                if (found == 0L) {
+                    return MISSING;
+                }
+            }
+            return MISSING;
+        }
+
+        void put(long key, long value) {
+            if ((size + 1) * 4L > keys.length * 3L) { // keep load factor <= 0.75
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (keys[i] != 0L && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0L) {
+                size++;
+            }
+            values[i] = value;
+            keys[i] = key;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            long[] newKeys = new long[capacity];
+            long[] newValues = new long[capacity];
+            int mask = capacity - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] != 0L) {
+                    int i = slot(oldKeys[j], mask);
+                    while (newKeys[i] != 0L) {
+                        i = (i + 1) & mask;
+                    }
+                    newKeys[i] = oldKeys[j];
+                    newValues[i] = oldValues[j];
+                }
+            }
+            keys = newKeys;
+            values = newValues;
+        }
+
+        // sequential ids: mix the bits so neighbours do not cluster
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.neobankengine.service;
 
+import com.neobankengine.datasource.ReplicaRouting;
+import com.neobankengine.dto.AccountLedgerState;
+import com.neobankengine.dto.AccountSummaryResponse;
 import com.neobankengine.dto.AmountRequest;
 import com.neobankengine.dto.CreateAccountRequest;
+import com.neobankengine.dto.TransactionResponse;
 import com.neobankengine.entity.Account;
 import com.neobankengine.entity.Transaction;
 import com.neobankengine.entity.User;
@@ -12,6 +16,7 @@ import com.neobankengine.exception.ResourceNotFoundException;
 import com.neobankengine.repository.AccountRepository;
 import com.neobankengine.repository.TransactionRepository;
 import com.neobankengine.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +24,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,16 +34,39 @@ public class AccountService {
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
+    private final TransactionHistory transactionHistory;
     private final NotificationService notificationService; // injected
+    private final AccountStatusCache accountStatusCache;
+    private final OwnershipService ownershipService;
+    private final ReplicaRouting replicaRouting;
 
     // ---- Business rule constants ----
     private static final double MIN_BALANCE_AFTER_DEBIT = 1000.0;   // ₹1000 must remain after withdraw/transfer
     private static final double MAX_TX_AMOUNT = 50000.0;            // ₹50,000 per transaction
 
+    // ---- Portfolio summary ----
+    private static final int DEFAULT_SUMMARY_TX = 5;
+    private static final int MAX_SUMMARY_TX = 20;
+
     // ---- Helper methods for rules ----
 
-    /** Ensure account is ACTIVE, otherwise throw ForbiddenException. */
-    private void ensureAccountActive(Account account, String messageIfNotActive) {
+    /**
+     * Early reject: a frozen account known to AccountStatusCache fails before its row is
+     * loaded. A cache miss passes (no query); {@link #ensureActive} checks the row itself.
+     */
+    private void ensureAccountActive(Long accountId, String messageIfNotActive) {
+        String status = accountStatusCache.getIfPresent(accountId);
+        if (status != null && !"ACTIVE".equalsIgnoreCase(status)) {
+            throw new ForbiddenException(messageIfNotActive);
+        }
+    }
+
+    /**
+     * Ensure the loaded account is ACTIVE, otherwise throw ForbiddenException; its status
+     * is remembered in AccountStatusCache for the next early reject.
+     */
+    private void ensureActive(Account account, String messageIfNotActive) {
+        accountStatusCache.remember(account.getAccountId(), account.getStatus());
         if (!"ACTIVE".equalsIgnoreCase(account.getStatus())) {
             throw new ForbiddenException(messageIfNotActive);
         }
@@ -69,14 +99,19 @@ public class AccountService {
         }
     }
 
+    /** Load an account with a row lock (SELECT ... FOR UPDATE) for a balance change. */
+    private Account lockAccount(Long accountId, String messageIfMissing) {
+        return accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException(messageIfMissing));
+    }
+
     // ----------------------------------------------------
     // ACCOUNT CREATION
     // ----------------------------------------------------
 
     @Transactional
     public Account createAccount(String userEmail, CreateAccountRequest request) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found. Please log in again."));
+        Long userId = ownershipService.resolveUserId(userEmail);
 
         Double initial = request.getInitialDeposit() == null ? 0.0 : request.getInitialDeposit();
         if (initial < 0) {
@@ -85,12 +120,15 @@ public class AccountService {
         ensureMaxPerTxLimit(initial);
 
         Account account = new Account();
-        account.setUserId(user.getId());
+        account.setUserId(userId);
         account.setBalance(initial);
         account.setStatus("ACTIVE");
         account.setCreatedAt(LocalDateTime.now());
+        account.setTxCount(initial > 0 ? 1L : 0L);
 
         Account saved = accountRepository.save(account);
+        // the user reads the new account back right away: keep them off the replica until it has it
+        replicaRouting.markWriteAfterCommit();
 
         // If initial deposit > 0, record transaction
         if (saved.getBalance() != null && saved.getBalance() > 0) {
@@ -105,7 +143,7 @@ public class AccountService {
             // notify user about initial deposit
             String title = "Initial Deposit";
             String msg = String.format("₹%.2f credited to account %d", saved.getBalance(), saved.getAccountId());
-            notificationService.createNotification(user.getEmail(), title, msg, "DEPOSIT", null);
+            notificationService.createNotification(userEmail, title, msg, "DEPOSIT", null);
         }
 
         return saved;
@@ -115,22 +153,54 @@ public class AccountService {
     // BALANCE
     // ----------------------------------------------------
 
+    /**
+     * Balance, version and status of the account from one read of its row; the controller
+     * builds the ETag from the same state it returns, so a 304 never validates an older body.
+     */
     @Transactional(readOnly = true)
-    public Double getBalance(Long accountId, String userEmail) {
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found for the current user."));
+    public AccountLedgerState getBalance(Long accountId, String userEmail) {
+        // check owner (no queries on the common path), then status
+        ownershipService.checkOwner(accountId, userEmail, "You are not allowed to view this account.");
+        ensureAccountActive(accountId, "Account is not active");
 
-        ensureAccountActive(account, "Account is not active");
+        AccountLedgerState state = accountRepository.findLedgerStateById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found for the current user."));
+        accountStatusCache.remember(accountId, state.getStatus());
+        if (!"ACTIVE".equalsIgnoreCase(state.getStatus())) {
+            throw new ForbiddenException("Account is not active");
+        }
+        return state;
+    }
 
-        // check owner
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found. Please log in again."));
+    /**
+     * All of the caller's accounts with balance, status and last {@code limit} transactions
+     * (default 5): two queries however many accounts the user has.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = "neobank.service", histogram = true)
+    public List<AccountSummaryResponse> getAccountSummaries(String userEmail, Integer limit) {
+        int n = limit == null ? DEFAULT_SUMMARY_TX : limit;
+        if (n < 1 || n > MAX_SUMMARY_TX) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_SUMMARY_TX + ".");
+        }
 
-        if (!account.getUserId().equals(user.getId())) {
-            throw new ForbiddenException("You are not allowed to view this account.");
+        Long userId = ownershipService.resolveUserId(userEmail);
+        List<Account> accounts = accountRepository.findByUserIdOrderByAccountIdAsc(userId);
+        if (accounts.isEmpty()) {
+            return List.of();
         }
 
-        return account.getBalance();
+        List<Long> ids = accounts.stream().map(Account::getAccountId).toList();
+        Map<Long, List<TransactionResponse>> recent = transactionRepository.findLatestByAccountIds(ids, n).stream()
+                .collect(Collectors.groupingBy(TransactionResponse::getAccountId));
+
+        return accounts.stream()
+                .map(a -> new AccountSummaryResponse(
+                        a.getAccountId(),
+                        a.getBalance(),
+                        a.getStatus(),
+                        recent.getOrDefault(a.getAccountId(), List.of())))
+                .toList();
     }
 
     // ----------------------------------------------------
@@ -138,24 +208,22 @@ public class AccountService {
     // ----------------------------------------------------
 
     @Transactional
+    @Timed(value = "neobank.service", histogram = true)
     public Account deposit(Long accountId, AmountRequest request, String userEmail) {
         Double amount = request.getAmount();
         ensureAmountPositive(amount, "Deposit");
         ensureMaxPerTxLimit(amount);
 
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found for this user."));
-
-        ensureAccountActive(account, "Account is not active");
+        ownershipService.checkOwner(accountId, userEmail, "You are not allowed to deposit into this account.");
+        ensureAccountActive(accountId, "Account is not active");
 
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found. Please log in again."));
-        if (!account.getUserId().equals(user.getId())) {
-            throw new ForbiddenException("You are not allowed to deposit into this account.");
-        }
+        // locking read: current balance, row held until commit
+        Account account = lockAccount(accountId, "Account not found for this user.");
+        ensureActive(account, "Account is not active");
 
         double current = account.getBalance() == null ? 0.0 : account.getBalance();
         account.setBalance(current + amount);
+        account.setTxCount(account.getTxCount() + 1);
         Account updated = accountRepository.save(account);
 
         Transaction t = new Transaction();
@@ -168,7 +236,8 @@ public class AccountService {
 
         String title = "Deposit Successful";
         String msg = String.format("₹%.2f deposited to account %d", amount, accountId);
-        notificationService.createNotification(user.getEmail(), title, msg, "DEPOSIT", null);
+        notificationService.createNotification(userEmail, title, msg, "DEPOSIT", null);
+        replicaRouting.markWriteAfterCommit();
 
         return updated;
     }
@@ -178,25 +247,21 @@ public class AccountService {
     // ----------------------------------------------------
 
     @Transactional
+    @Timed(value = "neobank.service", histogram = true)
     public Account withdraw(Long accountId, AmountRequest request, String userEmail) {
         Double amount = request.getAmount();
         ensureAmountPositive(amount, "Withdrawal");
 
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found for this user."));
-
-        ensureAccountActive(account, "Account is not active");
-
         if (userEmail == null || userEmail.isBlank()) {
             throw new BadRequestException("User email is required to process this request.");
         }
 
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found. Please log in again."));
+        ownershipService.checkOwner(accountId, userEmail, "You are not allowed to withdraw from this account.");
+        ensureAccountActive(accountId, "Account is not active");
 
-        if (!account.getUserId().equals(user.getId())) {
-            throw new ForbiddenException("You are not allowed to withdraw from this account.");
-        }
+        // locking read: current balance, row held until commit
+        Account account = lockAccount(accountId, "Account not found for this user.");
+        ensureActive(account, "Account is not active");
 
         double current = account.getBalance() == null ? 0.0 : account.getBalance();
 
@@ -209,6 +274,7 @@ public class AccountService {
         ensureMinBalanceAfterDebit(account, amount);
 
         account.setBalance(current - amount);
+        account.setTxCount(account.getTxCount() + 1);
         Account updated = accountRepository.save(account);
 
         Transaction t = new Transaction();
@@ -221,7 +287,8 @@ public class AccountService {
 
         String title = "Withdrawal Successful";
         String msg = String.format("₹%.2f withdrawn from account %d", amount, accountId);
-        notificationService.createNotification(user.getEmail(), title, msg, "WITHDRAW", null);
+        notificationService.createNotification(userEmail, title, msg, "WITHDRAW", null);
+        replicaRouting.markWriteAfterCommit();
 
         return updated;
     }
@@ -236,6 +303,7 @@ public class AccountService {
     // ----------------------------------------------------
 
     @Transactional
+    @Timed(value = "neobank.service", histogram = true)
     public String transfer(String userEmail, Long fromAccountId, Long toAccountId, Double amount, String note) {
         ensureAmountPositive(amount, "Transfer");
         ensureMaxPerTxLimit(amount);
@@ -244,21 +312,25 @@ public class AccountService {
             throw new BadRequestException("Source and destination accounts must be different.");
         }
 
-        Account accountFrom = accountRepository.findById(fromAccountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Source account not found."));
-
-        Account accountTo = accountRepository.findById(toAccountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Destination account not found."));
-
-        ensureAccountActive(accountFrom, "Sender account is not active");
-        ensureAccountActive(accountTo, "Receiver account is not active");
-
         // Verify caller owns the from-account
-        User caller = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found. Please log in again."));
-        if (!accountFrom.getUserId().equals(caller.getId())) {
-            throw new ForbiddenException("You are not allowed to transfer from this account.");
+        ownershipService.checkOwner(fromAccountId, userEmail, "You are not allowed to transfer from this account.");
+
+        ensureAccountActive(fromAccountId, "Sender account is not active");
+        ensureAccountActive(toAccountId, "Receiver account is not active");
+
+        // locking reads (current balances, rows held until commit), lower id first so
+        // two opposite transfers between the same accounts cannot deadlock
+        Account accountFrom;
+        Account accountTo;
+        if (fromAccountId < toAccountId) {
+            accountFrom = lockAccount(fromAccountId, "Source account not found.");
+            accountTo = lockAccount(toAccountId, "Destination account not found.");
+        } else {
+            accountTo = lockAccount(toAccountId, "Destination account not found.");
+            accountFrom = lockAccount(fromAccountId, "Source account not found.");
         }
+        ensureActive(accountFrom, "Sender account is not active");
+        ensureActive(accountTo, "Receiver account is not active");
 
         // Business rule: minimum balance after transfer
         ensureMinBalanceAfterDebit(accountFrom, amount);
@@ -269,19 +341,18 @@ public class AccountService {
             throw new BadRequestException("Insufficient balance to complete this transfer.");
         }
 
-        // Load sender & receiver users to get emails for notifications
-        User sender = userRepository.findById(accountFrom.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("Sender not found"));
-
+        // Sender is the caller; load the receiver only to get the email for notifications
         User receiver = userRepository.findById(accountTo.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("Receiver not found"));
 
-        String senderEmail = sender.getEmail();
+        String senderEmail = userEmail;
         String receiverEmail = receiver.getEmail();
 
         // Update balances
         accountFrom.setBalance(fromBalance - amount);
         accountTo.setBalance((accountTo.getBalance() == null ? 0.0 : accountTo.getBalance()) + amount);
+        accountFrom.setTxCount(accountFrom.getTxCount() + 1);
+        accountTo.setTxCount(accountTo.getTxCount() + 1);
 
         accountRepository.save(accountFrom);
         accountRepository.save(accountTo);
@@ -311,6 +382,7 @@ public class AccountService {
         String titleReceiver = "Transfer Received";
         String msgReceiver = String.format("₹%.2f received from account %d", amount, fromAccountId);
         notificationService.createNotification(receiverEmail, titleReceiver, msgReceiver, "TRANSFER", null);
+        replicaRouting.markWriteAfterCommit();
 
         return "Transfer Successful";
     }
@@ -319,32 +391,28 @@ public class AccountService {
     // OPENING BALANCE FOR STATEMENT
     // ----------------------------------------------------
 
+    /**
+     * Opening balance of a statement starting at {@code fromDate}. Ownership is checked
+     * first, so a non-owner gets 403 (and an unknown account 404) before any aggregate runs.
+     */
     @Transactional(readOnly = true)
-    public Double getBalanceBefore(Long accountId, LocalDate fromDate) {
-        // if no date requested, return current balance
-        if (fromDate == null) {
-            Account acc = accountRepository.findById(accountId)
-                    .orElseThrow(() -> new RuntimeException("Account not found for this user."));
-            return acc.getBalance() == null ? 0.0 : acc.getBalance();
-        }
+    public Double getBalanceBefore(Long accountId, String userEmail, LocalDate fromDate) {
+        ownershipService.checkOwner(accountId, userEmail, "Access denied");
 
         Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RuntimeException("Account not found for this user."));
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found for this user."));
 
-        // fetch all transactions for account
-        List<Transaction> txs = transactionRepository.findByAccountId(accountId);
+        // if no date requested, return current balance
+        if (fromDate == null) {
+            return account.getBalance() == null ? 0.0 : account.getBalance();
+        }
 
         // cutoff is the start of the 'from' day (opening = balance *before* that day)
         LocalDateTime cutoff = fromDate.atStartOfDay();
 
-        // compute net amount from cutoff (inclusive) to now (CREDIT positive, DEBIT negative)
-        double netSinceCutoff = txs.stream()
-                .filter(t -> t.getTimestamp() != null && !t.getTimestamp().isBefore(cutoff))
-                .mapToDouble(t -> {
-                    Double amt = t.getAmount() == null ? 0.0 : t.getAmount();
-                    return "CREDIT".equalsIgnoreCase(t.getType()) ? amt : -amt;
-                })
-                .sum();
+        // net amount from cutoff (inclusive) to now (CREDIT positive, DEBIT negative),
+        // aggregated in the database instead of loading every transaction (plus archived months)
+        double netSinceCutoff = transactionHistory.netAmountSince(accountId, cutoff);
 
         double current = account.getBalance() == null ? 0.0 : account.getBalance();
 
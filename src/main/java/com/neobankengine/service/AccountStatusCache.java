@@ -0,0 +1,91 @@
+package com.neobankengine.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neobankengine.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * In-memory account status (ACTIVE / FROZEN) for the money paths.
+ *
+ * Status changes go through {@link AdminService}, which pushes the new value here
+ * after its transaction commits, so this node never serves a status that was rolled
+ * back. Entries also expire after {@code accounts.status-cache.ttl-seconds} to bound
+ * staleness from changes made on other nodes or directly in the DB, and at most
+ * {@code accounts.status-cache.max-entries} accounts are kept.
+ *
+ * Paths that load the account row anyway use {@link #getIfPresent} as an early reject
+ * and {@link #remember} the status of the row they loaded, so a miss costs no query.
+ */
+@Component
+public class AccountStatusCache {
+
+    private final AccountRepository accountRepository;
+    private final Cache<Long, String> statuses;
+
+    public AccountStatusCache(AccountRepository accountRepository,
+                              @Value("${accounts.status-cache.ttl-seconds:60}") long ttlSeconds,
+                              @Value("${accounts.status-cache.max-entries:100000}") long maxEntries) {
+        this.accountRepository = accountRepository;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Status of the account, loaded once on a miss; null if the account does not exist.
+     */
+    public String getStatus(Long accountId) {
+        // a status published by putAfterCommit while the row is read waits for the load and replaces it
+        return statuses.get(accountId, accountRepository::findStatusById);
+    }
+
+    /**
+     * Cached status of the account, or null on a miss (no query).
+     */
+    public String getIfPresent(Long accountId) {
+        return statuses.getIfPresent(accountId);
+    }
+
+    /**
+     * Caches the status of an account row the caller loaded. A status already cached
+     * (e.g. published on commit of a change the row predates) is kept.
+     */
+    public void remember(Long accountId, String status) {
+        if (status != null) {
+            statuses.asMap().putIfAbsent(accountId, status);
+        }
+    }
+
+    /**
+     * Publishes a new status for these accounts once the surrounding transaction commits
+     * (immediately if there is none).
+     */
+    public void putAfterCommit(Collection<Long> accountIds, String status) {
+        List<Long> ids = List.copyOf(accountIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            putAll(ids, status);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                putAll(ids, status);
+            }
+        });
+    }
+
+    private void putAll(List<Long> ids, String status) {
+        for (Long id : ids) {
+            statuses.put(id, status);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.neobankengine.service;
+
+import com.neobankengine.dto.BulkAccountStatusResponse;
+import com.neobankengine.dto.CursorPage;
+import com.neobankengine.entity.Account;
+import com.neobankengine.entity.Transaction;
+import com.neobankengine.entity.User;
+import com.neobankengine.exception.BadRequestException;
+import com.neobankengine.exception.ResourceNotFoundException;
+import com.neobankengine.repository.AccountRepository;
+import com.neobankengine.repository.TransactionRepository;
+import com.neobankengine.repository.UserRepository;
+import com.neobankengine.security.UserStatusRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Admin listings. Pages are keyset-based (id > cursor, ordered by id) so every page
+ * costs the same regardless of how deep the admin scrolls; exports stream the whole
+ * filtered table through a DB cursor instead of loading it.
+ * Also owns user and account status changes (account: single and bulk).
+ */
+@Service
+@RequiredArgsConstructor
+public class AdminService {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    // ids per UPDATE ... IN (...) statement in bulk status changes
+    private static final int STATUS_UPDATE_CHUNK = 1000;
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final AccountStatusCache accountStatusCache;
+    private final UserStatusRegistry userStatusRegistry;
+
+    // ------------------------------------------------
+    // PAGES
+    // ------------------------------------------------
+    @Transactional(readOnly = true)
+    public CursorPage<User> listUsers(String after, Integer limit, String role, Boolean active,
+                                      LocalDateTime from, LocalDateTime to) {
+        int size = checkLimit(limit);
+        List<User> rows = userRepository.findPageAfter(parseCursor(after), blankToNull(role), active,
+                from, to, PageRequest.of(0, size));
+        return toPage(rows, size, User::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Account> listAccounts(String after, Integer limit, String status, Long userId,
+                                            LocalDateTime from, LocalDateTime to) {
+        int size = checkLimit(limit);
+        List<Account> rows = accountRepository.findPageAfter(parseCursor(after), blankToNull(status), userId,
+                from, to, PageRequest.of(0, size));
+        return toPage(rows, size, Account::getAccountId);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Transaction> listTransactions(String after, Integer limit, String type, Long accountId,
+                                                    LocalDateTime from, LocalDateTime to) {
+        int size = checkLimit(limit);
+        List<Transaction> rows = transactionRepository.findPageAfter(parseCursor(after), blankToNull(type), accountId,
+                from, to, PageRequest.of(0, size));
+        return toPage(rows, size, Transaction::getTransactionId);
+    }
+
+    // ------------------------------------------------
+    // EXPORTS
+    // The stream is only valid inside the consumer. Each row is detached once
+    // handed out so the persistence context does not grow with the table.
+    // ------------------------------------------------
+    @Transactional(readOnly = true)
+    public void streamUsers(String role, Boolean active, LocalDateTime from, LocalDateTime to,
+                            Consumer<Stream<User>> consumer) {
+        try (Stream<User> rows = userRepository.streamForExport(blankToNull(role), active, from, to)) {
+            consumer.accept(rows.peek(entityManager::detach));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAccounts(String status, Long userId, LocalDateTime from, LocalDateTime to,
+                               Consumer<Stream<Account>> consumer) {
+        try (Stream<Account> rows = accountRepository.streamForExport(blankToNull(status), userId, from, to)) {
+            consumer.accept(rows.peek(entityManager::detach));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void streamTransactions(String type, Long accountId, LocalDateTime from, LocalDateTime to,
+                                   Consumer<Stream<Transaction>> consumer) {
+        try (Stream<Transaction> rows = transactionRepository.streamForExport(blankToNull(type), accountId, from, to)) {
+            consumer.accept(rows.peek(entityManager::detach));
+        }
+    }
+
+    // ------------------------------------------------
+    // USER STATUS
+    // Tokens are checked against UserStatusRegistry instead of the DB,
+    // so the new status is published there on commit (and the cached User evicted).
+    // ------------------------------------------------
+    @Transactional
+    public void setUserStatus(Long userId, boolean active) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        int version = (user.getStatusVersion() == null ? 0 : user.getStatusVersion()) + 1;
+        user.setStatus(active);
+        user.setStatusVersion(version);
+        user.setStatusChangedAt(LocalDateTime.now());
+        userRepository.save(user);
+        userStatusRegistry.updateAfterCommit(userId, active, version);
+        evictAfterCommit(User.class, List.of(userId));
+    }
+
+    // ------------------------------------------------
+    // ACCOUNT STATUS
+    // Every status change goes through here so AccountStatusCache stays exact.
+    // ------------------------------------------------
+    @Transactional
+    public void setAccountStatus(Long accountId, String status) {
+        Account acc = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+
+        acc.setStatus(status);
+        accountRepository.save(acc);
+        accountStatusCache.putAfterCommit(List.of(accountId), status);
+    }
+
+    /**
+     * Freeze/unfreeze many accounts with set-based updates (one statement per chunk),
+     * all in one transaction.
+     */
+    @Transactional
+    public BulkAccountStatusResponse setAccountStatus(List<Long> accountIds, String status) {
+        List<Long> ids = accountIds.stream().distinct().toList();
+        List<Long> existing = new ArrayList<>(ids.size());
+        int updated = 0;
+
+        for (int i = 0; i < ids.size(); i += STATUS_UPDATE_CHUNK) {
+            List<Long> chunk = ids.subList(i, Math.min(i + STATUS_UPDATE_CHUNK, ids.size()));
+            existing.addAll(accountRepository.findExistingIds(chunk));
+            updated += accountRepository.updateStatusIn(chunk, status);
+        }
+
+        accountStatusCache.putAfterCommit(existing, status);
+        return new BulkAccountStatusResponse(status, ids.size(), updated);
+    }
+
+    // ------------------------------------------------
+    // HELPERS
+    // ------------------------------------------------
+
+    // second-level cache entries of this node; other nodes drop theirs on TTL
+    private void evictAfterCommit(Class<?> entity, Collection<Long> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        List<Long> copy = List.copyOf(ids);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                copy.forEach(id -> cache.evict(entity, id));
+            }
+        });
+    }
+    private static int checkLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        return limit;
+    }
+
+    // cursor is the last id of the previous page; absent = first page
+    private static long parseCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(after.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+
+    private static String blankToNull(String s) {
+        return (s == null || s.isBlank()) ? null : s.trim();
+    }
+
+    private static <T> CursorPage<T> toPage(List<T> rows, int size, Function<T, Long> id) {
+        // a short page means we reached the end
+        String next = rows.size() < size ? null : String.valueOf(id.apply(rows.get(rows.size() - 1)));
+        return new CursorPage<>(rows, next);
+    }
+}
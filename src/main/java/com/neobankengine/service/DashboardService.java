@@ -5,10 +5,9 @@ import com.neobankengine.dto.DailyPointDto;
 import com.neobankengine.dto.MonthlySummaryDto;
 import com.neobankengine.entity.Account;
 import com.neobankengine.entity.Transaction;
-import com.neobankengine.entity.User;
 import com.neobankengine.repository.AccountRepository;
 import com.neobankengine.repository.TransactionRepository;
-import com.neobankengine.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,12 +17,13 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "neobank.service", histogram = true)
 @RequiredArgsConstructor
 public class DashboardService {
 
-    private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final OwnershipService ownershipService;
 
     /**
      * Overview: total balance, total txns, credit/debit in last N days, small monthly list
@@ -31,10 +31,9 @@ public class DashboardService {
     @Transactional(readOnly = true)
     public DashboardOverviewDto getOverview(String userEmail, int lastNDays, int lastNMonths) {
 
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        Long userId = ownershipService.resolveUserId(userEmail);
 
-        List<Account> accounts = accountRepository.findByUserId(user.getId());
+        List<Account> accounts = accountRepository.findByUserId(userId);
 
         List<Long> accountIds = accounts.stream().map(Account::getAccountId).collect(Collectors.toList());
 
@@ -43,9 +42,10 @@ public class DashboardService {
                 .mapToDouble(a -> a.getBalance() == null ? 0.0 : a.getBalance())
                 .sum();
 
-        // time window for last N days
+        // time window for last N days, from the start of the day so the result only
+        // changes with postings or the date (the dashboard ETag, see LedgerVersionService)
         LocalDateTime end = LocalDateTime.now();
-        LocalDateTime start = end.minusDays(lastNDays);
+        LocalDateTime start = LocalDate.now().minusDays(lastNDays).atStartOfDay();
 
         // transactions in window
         List<Transaction> recentTxs = accountIds.isEmpty() ? Collections.emptyList() :
@@ -64,7 +64,12 @@ public class DashboardService {
         // monthly summaries (last N months)
         List<MonthlySummaryDto> months = buildMonthlySummaries(accountIds, lastNMonths);
 
-        return new DashboardOverviewDto(totalBalance, accountIds.isEmpty() ? 0L : transactionRepository.countByAccountIdInAndTimestampBetween(accountIds, LocalDateTime.of(1970,1,1,0,0), end), totalCredit, totalDebit, months);
+        // all-time count from the maintained counters (archived rows included), not COUNT(*)
+        long totalTransactions = accounts.stream()
+                .mapToLong(a -> a.getTxCount() == null ? 0L : a.getTxCount())
+                .sum();
+
+        return new DashboardOverviewDto(totalBalance, totalTransactions, totalCredit, totalDebit, months);
     }
 
     private List<MonthlySummaryDto> buildMonthlySummaries(List<Long> accountIds, int months) {
@@ -101,10 +106,9 @@ public class DashboardService {
      */
     @Transactional(readOnly = true)
     public List<DailyPointDto> getDailySeries(String userEmail, int lastNDays) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        Long userId = ownershipService.resolveUserId(userEmail);
 
-        List<Account> accounts = accountRepository.findByUserId(user.getId());
+        List<Account> accounts = accountRepository.findByUserId(userId);
         List<Long> accountIds = accounts.stream().map(Account::getAccountId).collect(Collectors.toList());
 
         List<DailyPointDto> series = new ArrayList<>();
@@ -0,0 +1,81 @@
+package com.neobankengine.service;
+
+import com.neobankengine.archive.TransactionSegmentStore;
+import com.neobankengine.dto.AccountLedgerState;
+import com.neobankengine.exception.ResourceNotFoundException;
+import com.neobankengine.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Ledger versions behind the strong ETags of the balance, history, analytics and
+ * dashboard endpoints, so a client polling an unchanged ledger gets 304 without the
+ * endpoint's queries running.
+ *
+ * An account's version is its transaction counter (Account.txCount): monotonic, bumped
+ * by every posting in {@link AccountService} under the account's row lock, and committed
+ * with the posting, so every node sees the same value. A user's version is derived from
+ * their accounts (sum of txCount + 1 over idx_account_user) instead of a counter on the
+ * user row, which would make every posting of a user contend on one lock.
+ *
+ * The tags also carry what else the responses depend on: the account status (a frozen
+ * account must get its 403, not a 304), the archive watermark (archived months leave the
+ * transaction table) and, for dashboards, today's date (their windows end today).
+ * Access is checked before a version is read, exactly as on the full path.
+ */
+@Service
+@RequiredArgsConstructor
+public class LedgerVersionService {
+
+    private final AccountRepository accountRepository;
+    private final OwnershipService ownershipService;
+    private final AccountStatusCache accountStatusCache;
+    private final TransactionSegmentStore segmentStore;
+
+    /**
+     * ETag of the caller's view of one account.
+     */
+    @Transactional(readOnly = true)
+    public String accountEtag(Long accountId, String userEmail) {
+        ownershipService.checkOwner(accountId, userEmail, "Access denied");
+
+        Long version = accountRepository.findTxCountById(accountId);
+        if (version == null) {
+            throw new ResourceNotFoundException("Account not found.");
+        }
+        return accountTag(accountId, version, accountStatusCache.getStatus(accountId));
+    }
+
+    /**
+     * ETag of an account state the caller has already read (and been allowed to read):
+     * for responses built from that same read, such as the balance.
+     */
+    public String accountEtag(AccountLedgerState state) {
+        return accountTag(state.getAccountId(), state.getTxCount(), state.getStatus());
+    }
+
+    /**
+     * ETag of the caller's dashboard (all their accounts, windows ending today).
+     */
+    @Transactional(readOnly = true)
+    public String userEtag(String userEmail) {
+        Long userId = ownershipService.resolveUserId(userEmail);
+
+        long version = accountRepository.findLedgerVersionByUserId(userId);
+        return "u" + userId + "-" + version + "-" + LocalDate.now() + "-" + archiveTag();
+    }
+
+    private String accountTag(Long accountId, long version, String status) {
+        return "a" + accountId + "-" + version + "-" + status + "-" + archiveTag();
+    }
+
+    private String archiveTag() {
+        LocalDateTime watermark = segmentStore.archivedBefore();
+        return watermark == null ? "0" : YearMonth.from(watermark).toString();
+    }
+}
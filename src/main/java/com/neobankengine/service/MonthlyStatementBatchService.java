@@ -0,0 +1,330 @@
+package com.neobankengine.service;
+
+import com.neobankengine.dto.AccountNetDto;
+import com.neobankengine.dto.BatchJobReport;
+import com.neobankengine.dto.TransactionResponse;
+import com.neobankengine.entity.Account;
+import com.neobankengine.exception.ConflictException;
+import com.neobankengine.repository.AccountRepository;
+import com.neobankengine.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Month-end statement run for every account.
+ *
+ * Accounts are split into id-range partitions. Each partition needs three queries
+ * (accounts, per-account net since month start for the opening balance, and one
+ * ordered scan of the month's transactions) instead of three per account.
+ * Partitions run on a {@link PartitionedBatchRunner}, at most {@code parallelism}
+ * at a time.
+ *
+ * Output: {@code <output-dir>/<yyyy-MM>/statement-account-<id>.pdf}. Finished
+ * partitions are appended to a checkpoint file in the same directory, so re-running
+ * the same month resumes where a crashed run stopped. The checkpoint starts with the
+ * run's layout (partition size and account id bounds); a resumed run cuts exactly the
+ * same partitions, and a run with a different partition size is refused.
+ */
+@Service
+@Slf4j
+public class MonthlyStatementBatchService {
+
+    private static final String CHECKPOINT_FILE = ".checkpoint";
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final PdfService pdfService;
+    private final TransactionTemplate readOnlyTx;
+
+    private final Path outputDir;
+    private final long partitionSize;
+    private final PartitionedBatchRunner runner;
+
+    // months currently being generated (one run per month at a time)
+    private final Set<YearMonth> activeMonths = ConcurrentHashMap.newKeySet();
+
+    public MonthlyStatementBatchService(AccountRepository accountRepository,
+                                        TransactionRepository transactionRepository,
+                                        PdfService pdfService,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${batch.statements.output-dir:./statements}") String outputDir,
+                                        @Value("${batch.statements.partition-size:1000}") long partitionSize,
+                                        @Value("${batch.statements.parallelism:0}") int parallelism) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.pdfService = pdfService;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.outputDir = Path.of(outputDir);
+        this.partitionSize = partitionSize;
+        this.runner = new PartitionedBatchRunner("MONTHLY_STATEMENTS", parallelism);
+    }
+
+    // ------------------------------------------------
+    // START / STATUS
+    // ------------------------------------------------
+
+    /**
+     * Starts (or resumes) the run for a month in the background.
+     */
+    public BatchJobReport start(YearMonth month) {
+        if (!activeMonths.add(month)) {
+            throw new ConflictException("Statements for " + month + " are already being generated.");
+        }
+
+        Path monthDir = outputDir.resolve(month.toString());
+        Checkpoint checkpoint;
+        try {
+            checkpoint = openCheckpoint(month, monthDir);
+        } catch (RuntimeException ex) {
+            activeMonths.remove(month);
+            throw ex;
+        }
+        PartitionedBatchRunner.Run run = runner.newRun(monthDir);
+
+        Thread.ofVirtual().name("monthly-statements-" + month).start(() -> {
+            try {
+                execute(run, month, checkpoint);
+            } finally {
+                activeMonths.remove(month);
+            }
+        });
+        return run.toReport();
+    }
+
+    public BatchJobReport getReport(String jobId) {
+        return runner.getReport(jobId);
+    }
+
+    // ------------------------------------------------
+    // RUN
+    // ------------------------------------------------
+
+    private void execute(PartitionedBatchRunner.Run run, YearMonth month, Checkpoint checkpoint) {
+        try {
+            List<Long> partitionStarts = PartitionedBatchRunner.partitionStarts(
+                    checkpoint.minId(), checkpoint.maxId(), partitionSize);
+            runner.runPartitions(run, partitionStarts, partitionSize, checkpoint.done(), (lo, hi) -> {
+                int accounts = processPartition(month, lo, hi, run.output);
+                appendCheckpoint(run.output, lo);
+                return accounts;
+            });
+
+            run.finish(null);
+            BatchJobReport report = run.toReport();
+            log.info("monthly statements {} done: {} accounts in {} partitions, {} accounts/s",
+                    month, report.getAccountsProcessed(), report.getTotalPartitions(),
+                    String.format("%.1f", report.getAccountsPerSecond()));
+        } catch (Exception ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            log.error("monthly statements {} failed (re-run to resume from checkpoint)", month, cause);
+            run.finish(cause.getMessage());
+        }
+    }
+
+    /**
+     * Writes the statements of every account in [lo, hi]; returns the number of accounts.
+     */
+    private int processPartition(YearMonth month, long lo, long hi, Path monthDir) {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.atEndOfMonth().atTime(LocalTime.MAX);
+
+        Integer written = readOnlyTx.execute(status -> {
+            List<Account> accounts = accountRepository.findByAccountIdBetweenOrderByAccountIdAsc(lo, hi);
+            if (accounts.isEmpty()) {
+                return 0;
+            }
+
+            // opening balance = current balance - net movement since the month started
+            Map<Long, Double> netSinceStart = new HashMap<>();
+            for (AccountNetDto n : transactionRepository.netAmountSinceByAccount(lo, hi, start)) {
+                netSinceStart.put(n.getAccountId(), n.getNet());
+            }
+
+            try (Stream<TransactionResponse> rows = transactionRepository.streamForAccountRange(lo, hi, start, end)) {
+                PeekingIterator it = new PeekingIterator(rows.iterator());
+                for (Account account : accounts) {
+                    Long id = account.getAccountId();
+                    // skip rows of ids without an account row (should not happen)
+                    while (it.hasNext() && it.peek().getAccountId() < id) {
+                        it.next();
+                    }
+
+                    double current = account.getBalance() == null ? 0.0 : account.getBalance();
+                    double opening = current - netSinceStart.getOrDefault(id, 0.0);
+                    writeStatement(monthDir, id, new AccountRows(it, id), opening);
+                }
+            }
+            return accounts.size();
+        });
+        return written == null ? 0 : written;
+    }
+
+    private void writeStatement(Path monthDir, Long accountId, Iterator<TransactionResponse> rows, double opening) {
+        Path target = monthDir.resolve("statement-account-" + accountId + ".pdf");
+        try {
+            Path tmp = Files.createTempFile(monthDir, "statement-account-" + accountId + "-", ".part");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                pdfService.writeStatementPdf(accountId, rows, opening, out);
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write statement for account " + accountId, e);
+        }
+    }
+
+    // ---------- checkpoint (layout header, then one finished partition start id per line) ----------
+
+    /**
+     * Layout of the month's run: the one recorded in an existing checkpoint (a resumed run
+     * must cut the same partitions, even if accounts were opened since), or a new one over
+     * the current account id range, whose header is written before any partition runs.
+     */
+    private Checkpoint openCheckpoint(YearMonth month, Path monthDir) {
+        Path file = monthDir.resolve(CHECKPOINT_FILE);
+        try {
+            Files.createDirectories(monthDir);
+            if (Files.exists(file)) {
+                Checkpoint checkpoint = readCheckpoint(file, month);
+                if (checkpoint.partitionSize() != partitionSize) {
+                    throw new ConflictException("Statements for " + month + " were started with partition size "
+                            + checkpoint.partitionSize() + ", not " + partitionSize
+                            + "; restore that setting or delete " + file + " to regenerate the month.");
+                }
+                return checkpoint;
+            }
+
+            Long minId = accountRepository.findMinAccountId();
+            Long maxId = accountRepository.findMaxAccountId();
+            if (minId != null) {
+                Files.writeString(file, "# partition-size=" + partitionSize + " min-id=" + minId + " max-id=" + maxId + "\n",
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW, StandardOpenOption.SYNC);
+            }
+            return new Checkpoint(partitionSize, minId, maxId, new HashSet<>());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open checkpoint " + file, e);
+        }
+    }
+
+    private static Checkpoint readCheckpoint(Path file, YearMonth month) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Map<String, Long> header = new HashMap<>();
+        if (!lines.isEmpty() && lines.getFirst().startsWith("# ")) {
+            for (String field : lines.getFirst().substring(2).trim().split("\\s+")) {
+                int eq = field.indexOf('=');
+                if (eq > 0) {
+                    header.put(field.substring(0, eq), Long.parseLong(field.substring(eq + 1)));
+                }
+            }
+        }
+        Long size = header.get("partition-size");
+        Long minId = header.get("min-id");
+        Long maxId = header.get("max-id");
+        if (size == null || minId == null || maxId == null) {
+            throw new ConflictException("Checkpoint " + file + " for " + month
+                    + " has no partition layout; delete it to regenerate the month.");
+        }
+
+        Set<Long> done = new HashSet<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            long lo = Long.parseLong(line.trim());
+            if (lo < minId || lo > maxId || (lo - minId) % size != 0) {
+                throw new ConflictException("Checkpoint " + file + " for " + month
+                        + " lists partition " + lo + " outside its layout; delete it to regenerate the month.");
+            }
+            done.add(lo);
+        }
+        return new Checkpoint(size, minId, maxId, done);
+    }
+
+    private static synchronized void appendCheckpoint(Path monthDir, long partitionStart) throws IOException {
+        Files.writeString(monthDir.resolve(CHECKPOINT_FILE), partitionStart + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+    }
+
+    /** Partition layout of a month's run (null bounds = no accounts) and its finished partitions. */
+    private record Checkpoint(long partitionSize, Long minId, Long maxId, Set<Long> done) {
+    }
+
+    // ---------- iterators over the ordered partition scan ----------
+
+    private static final class PeekingIterator implements Iterator<TransactionResponse> {
+        private final Iterator<TransactionResponse> delegate;
+        private TransactionResponse peeked;
+
+        PeekingIterator(Iterator<TransactionResponse> delegate) {
+            this.delegate = delegate;
+        }
+
+        TransactionResponse peek() {
+            if (peeked == null) {
+                peeked = delegate.next();
+            }
+            return peeked;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return peeked != null || delegate.hasNext();
+        }
+
+        @Override
+        public TransactionResponse next() {
+            TransactionResponse t = peek();
+            peeked = null;
+            return t;
+        }
+    }
+
+    /** Rows of one account: consumes the shared scan while the account id matches. */
+    private static final class AccountRows implements Iterator<TransactionResponse> {
+        private final PeekingIterator scan;
+        private final Long accountId;
+
+        AccountRows(PeekingIterator scan, Long accountId) {
+            this.scan = scan;
+            this.accountId = accountId;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return scan.hasNext() && accountId.equals(scan.peek().getAccountId());
+        }
+
+        @Override
+        public TransactionResponse next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return scan.next();
+        }
+    }
+}
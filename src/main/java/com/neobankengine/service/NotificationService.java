@@ -1,10 +1,17 @@
 package com.neobankengine.service;
 
+import com.neobankengine.datasource.ReplicaRouting;
 import com.neobankengine.dto.NotificationDto;
 import com.neobankengine.entity.Notification;
 import com.neobankengine.exception.ForbiddenException;
 import com.neobankengine.exception.ResourceNotFoundException;
+import com.neobankengine.fields.FieldSet;
+import com.neobankengine.fields.SparseRow;
 import com.neobankengine.repository.NotificationRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.SimpleMailMessage;
@@ -13,9 +20,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "neobank.service", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
@@ -23,6 +32,26 @@ public class NotificationService {
     private final NotificationRepository notificationRepository;
     // JavaMailSender is optional in usage – if not configured, you can set this bean or remove mail sending logic.
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
+    private final ReplicaRouting replicaRouting;
+
+    // SMTP dispatch latency, by outcome (built once)
+    private Timer emailSent;
+    private Timer emailFailed;
+
+    @PostConstruct
+    void initMetrics() {
+        emailSent = emailTimer("success");
+        emailFailed = emailTimer("error");
+    }
+
+    private Timer emailTimer(String outcome) {
+        return Timer.builder("neobank.email.send")
+                .description("Notification email dispatch latency")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     // ------------------------------------------------
     // CREATE
@@ -101,6 +130,19 @@ public class NotificationService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Same listing with only the requested fields selected and serialized (?fields=);
+     * the limit is applied in SQL.
+     */
+    @Transactional(readOnly = true)
+    public List<SparseRow> getNotificationsForUser(String email,
+                                                   Boolean unreadOnly,
+                                                   Integer limit,
+                                                   FieldSet<NotificationDto> fields) {
+        return notificationRepository.findSparseByUserEmail(email, Boolean.TRUE.equals(unreadOnly),
+                limit != null && limit > 0 ? limit : null, fields);
+    }
+
     // ------------------------------------------------
     // UNREAD COUNT
     // ------------------------------------------------
@@ -129,6 +171,7 @@ public class NotificationService {
         if (!n.isReadFlag()) {
             n.setReadFlag(true);
             notificationRepository.save(n);
+            replicaRouting.markWriteAfterCommit();
         }
     }
 
@@ -148,6 +191,7 @@ public class NotificationService {
             n.setReadFlag(true);
         }
         notificationRepository.saveAll(list);
+        replicaRouting.markWriteAfterCommit();
     }
 
     // ------------------------------------------------
@@ -169,14 +213,17 @@ public class NotificationService {
             log.info("MailSender not configured - skipping email to {}", to);
             return;
         }
+        long start = System.nanoTime();
         try {
             SimpleMailMessage msg = new SimpleMailMessage();
             msg.setTo(to);
             msg.setSubject(subject);
             msg.setText(text);
             mailSender.send(msg);
+            emailSent.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             log.info("Notification email sent to {}", to);
         } catch (Exception e) {
+            emailFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             log.warn("Failed sending email to {}: {}", to, e.getMessage());
         }
     }
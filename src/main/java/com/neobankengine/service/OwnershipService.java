@@ -0,0 +1,59 @@
+package com.neobankengine.service;
+
+import com.neobankengine.exception.ForbiddenException;
+import com.neobankengine.exception.ResourceNotFoundException;
+import com.neobankengine.repository.UserRepository;
+import com.neobankengine.security.JwtPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * The one ownership check shared by the account, transaction and dashboard services.
+ *
+ * The caller's userId comes from the request's JwtPrincipal (token claims) and the
+ * account's owner from {@link AccountOwnershipIndex}, so a check normally costs no
+ * queries. Callers outside a request (async statement jobs) or holding a pre-claims
+ * token fall back to a user lookup by email.
+ */
+@Service
+@RequiredArgsConstructor
+public class OwnershipService {
+
+    private final UserRepository userRepository;
+    private final AccountOwnershipIndex accountOwnershipIndex;
+
+    /**
+     * Id of the user behind this email.
+     */
+    public Long resolveUserId(String userEmail) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null
+                && auth.getPrincipal() instanceof JwtPrincipal p
+                && p.userId() != null
+                && p.email().equals(userEmail)) {
+            return p.userId();
+        }
+        return userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found. Please log in again."))
+                .getId();
+    }
+
+    /**
+     * Throws ResourceNotFoundException if the account does not exist and
+     * ForbiddenException (with {@code deniedMessage}) if the user does not own it.
+     * Returns the caller's userId.
+     */
+    public Long checkOwner(Long accountId, String userEmail, String deniedMessage) {
+        Long ownerId = accountOwnershipIndex.findOwner(accountId);
+        if (ownerId == null) {
+            throw new ResourceNotFoundException("Account not found.");
+        }
+        Long userId = resolveUserId(userEmail);
+        if (!ownerId.equals(userId)) {
+            throw new ForbiddenException(deniedMessage);
+        }
+        return userId;
+    }
+}
@@ -0,0 +1,162 @@
+package com.neobankengine.service;
+
+import com.neobankengine.dto.BatchJobReport;
+import com.neobankengine.exception.ResourceNotFoundException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs an account batch job over account id-range partitions: partitions run on
+ * virtual threads, at most {@code parallelism} at a time (each holds one DB connection
+ * while it runs), and progress is kept in a {@link Run} that the admin API reports.
+ * Used by {@link MonthlyStatementBatchService} and {@link ReconciliationService}.
+ */
+final class PartitionedBatchRunner {
+
+    /**
+     * Work of one partition [lo, hi]; returns the number of accounts it processed.
+     */
+    @FunctionalInterface
+    interface PartitionTask {
+        long run(long lo, long hi) throws Exception;
+    }
+
+    // finished runs are forgotten after this (their output stays on disk)
+    private static final Duration RUN_RETENTION = Duration.ofHours(24);
+
+    private final String type;
+    private final int parallelism;
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+
+    /**
+     * @param parallelism concurrent partitions; 0 = one per core
+     */
+    PartitionedBatchRunner(String type, int parallelism) {
+        this.type = type;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Registers a new run writing to {@code output}.
+     */
+    Run newRun(Path output) {
+        purgeExpiredRuns();
+        Run run = new Run(UUID.randomUUID().toString(), type, output);
+        runs.put(run.id, run);
+        return run;
+    }
+
+    BatchJobReport getReport(String jobId) {
+        Run run = runs.get(jobId);
+        if (run == null) {
+            throw new ResourceNotFoundException("Batch job not found.");
+        }
+        return run.toReport();
+    }
+
+    private void purgeExpiredRuns() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(RUN_RETENTION);
+        runs.values().removeIf(r -> r.finishedAt != null && r.finishedAt.isBefore(cutoff));
+    }
+
+    /**
+     * Start ids of the {@code partitionSize} wide partitions covering [minId, maxId]
+     * (none when there are no accounts).
+     */
+    static List<Long> partitionStarts(Long minId, Long maxId, long partitionSize) {
+        List<Long> starts = new ArrayList<>();
+        if (minId != null) {
+            for (long lo = minId; lo <= maxId; lo += partitionSize) {
+                starts.add(lo);
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Runs the task for every partition not in {@code done} (those count as completed
+     * by an earlier run) and waits for all of them; throws the first partition failure.
+     */
+    void runPartitions(Run run, List<Long> partitionStarts, long partitionSize, Set<Long> done,
+                       PartitionTask task) throws Exception {
+        run.totalPartitions = partitionStarts.size();
+
+        Semaphore slots = new Semaphore(parallelism);
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long lo : partitionStarts) {
+                if (done.contains(lo)) {
+                    run.completedPartitions.incrementAndGet(); // finished by an earlier run
+                    continue;
+                }
+                long hi = lo + partitionSize - 1;
+                futures.add(pool.submit(() -> {
+                    slots.acquire();
+                    try {
+                        run.accountsProcessed.addAndGet(task.run(lo, hi));
+                        run.completedPartitions.incrementAndGet();
+                    } finally {
+                        slots.release();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(); // surface the first partition failure
+            }
+        }
+    }
+
+    // ---------- run state ----------
+
+    static final class Run {
+        final String id;
+        final String type;
+        final Path output;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        final long startNanos = System.nanoTime();
+        final AtomicInteger completedPartitions = new AtomicInteger();
+        final AtomicLong accountsProcessed = new AtomicLong();
+        final AtomicLong mismatches = new AtomicLong();
+        volatile int totalPartitions;
+        volatile LocalDateTime finishedAt;
+        volatile long elapsedNanos = -1;
+        volatile String error;
+
+        Run(String id, String type, Path output) {
+            this.id = id;
+            this.type = type;
+            this.output = output;
+        }
+
+        void finish(String errorMessage) {
+            this.error = errorMessage;
+            this.elapsedNanos = System.nanoTime() - startNanos;
+            this.finishedAt = LocalDateTime.now();
+        }
+
+        BatchJobReport toReport() {
+            long nanos = elapsedNanos >= 0 ? elapsedNanos : System.nanoTime() - startNanos;
+            long accounts = accountsProcessed.get();
+            double perSecond = nanos > 0 ? accounts / (nanos / 1_000_000_000.0) : 0.0;
+            String state = finishedAt == null ? "RUNNING" : (error == null ? "COMPLETED" : "FAILED");
+            return new BatchJobReport(id, type, state, totalPartitions, completedPartitions.get(),
+                    accounts, perSecond, startedAt, finishedAt, output.toAbsolutePath().toString(),
+                    mismatches.get(), error);
+        }
+    }
+}
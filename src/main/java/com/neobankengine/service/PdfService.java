@@ -9,65 +9,105 @@ import com.lowagie.text.pdf.*;
 import com.google.zxing.*;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.io.*;
 import java.text.DecimalFormat;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Iterator;
+import java.util.Map;
 
 @Service
+@Timed(value = "neobank.service", histogram = true)
 @Slf4j
 public class PdfService {
 
     private static final DateTimeFormatter TS_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-    private static final DecimalFormat MONEY_FMT = new DecimalFormat("#,##0.00");
+    // DecimalFormat is not thread-safe, so each statement gets its own instance
+    private static final String MONEY_PATTERN = "#,##0.00";
+
+    // size of the reserved summary value box (fits "99,999,999,999.00" at 10pt)
+    private static final float SUMMARY_VALUE_WIDTH = 110f;
+    private static final float SUMMARY_VALUE_HEIGHT = 12f;
+
+    // transaction rows added to the table between flushes (roughly 3-4 pages)
+    private static final int ROWS_PER_CHUNK = 100;
+
+    private static final String WATERMARK_TEXT = "NEO BANK ENGINE - CONFIDENTIAL";
+    private static final float QR_SIZE = 120f;
+
+    // Fonts (never mutated, safe to share between statements)
+    private static final Font TITLE_FONT = new Font(Font.HELVETICA, 18, Font.BOLD);
+    private static final Font SUB_FONT = new Font(Font.HELVETICA, 10, Font.NORMAL);
+    private static final Font TABLE_HEADER_FONT = new Font(Font.HELVETICA, 11, Font.BOLD);
+    private static final Font TABLE_CELL_FONT = new Font(Font.HELVETICA, 10, Font.NORMAL);
+
+    // ---------- assets prepared once at startup ----------
+
+    /** Scaled logo, or null if /static/logo.png is missing. Copied per statement. */
+    private final Image logo;
+
+    private final BaseFont watermarkFont;
+
+    /** Watermark font size that fits the A4 page width (computed once). */
+    private final float watermarkFontSize;
+
+    public PdfService() {
+        this.logo = loadLogo();
+        this.watermarkFont = loadWatermarkFont();
+        this.watermarkFontSize = watermarkFont == null ? 0f : fitWatermarkFontSize(watermarkFont, PageSize.A4);
+    }
 
     /**
-     * Build PDF statement with logo, summary, watermark, and QR code
+     * Build PDF statement with logo, summary, watermark, and QR code. Rows are pulled
+     * from the iterator and the table is flushed every ROWS_PER_CHUNK rows, so finished
+     * pages go straight to {@code out} and only one chunk is held in memory. Totals are accumulated in the same pass and filled
+     * into the summary box (reserved as templates) just before the document closes.
      *
-     * @param accountId account id (for header)
-     * @param txs       list of TransactionResponse (sorted newest -> oldest)
+     * @param accountId      account id (for header)
+     * @param rows           transactions (sorted newest -> oldest)
      * @param openingBalance optional opening balance (may be null)
-     * @return PDF bytes
+     * @param out            destination, e.g. the response stream (not closed here)
      */
-    public byte[] buildStatementPdf(Long accountId, List<TransactionResponse> txs, Double openingBalance) {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
+    public void writeStatementPdf(Long accountId,
+                                  Iterator<TransactionResponse> rows,
+                                  Double openingBalance,
+                                  OutputStream out) {
+        try {
             // Document and writer
             Document document = new Document(PageSize.A4, 36, 36, 64, 36); // margins
-            PdfWriter writer = PdfWriter.getInstance(document, baos);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
             writer.setPdfVersion(PdfWriter.PDF_VERSION_1_7);
+            writer.setCloseStream(false);
+
+            // --- Watermark (diagonal, scaled, centered, subtle) on every page ---
+            if (watermarkFont != null) {
+                writer.setPageEvent(new WatermarkEvent(watermarkFont, watermarkFontSize));
+            }
+
             document.open();
 
+            DecimalFormat moneyFmt = new DecimalFormat(MONEY_PATTERN);
+
             // Fonts
-            Font titleFont = new Font(Font.HELVETICA, 18, Font.BOLD);
-            Font subFont = new Font(Font.HELVETICA, 10, Font.NORMAL);
-            Font tableHeader = new Font(Font.HELVETICA, 11, Font.BOLD);
-            Font tableCell = new Font(Font.HELVETICA, 10, Font.NORMAL);
+            Font titleFont = TITLE_FONT;
+            Font subFont = SUB_FONT;
+            Font tableHeader = TABLE_HEADER_FONT;
+            Font tableCell = TABLE_CELL_FONT;
 
             // --- Header with logo and title ---
             PdfPTable headerTbl = new PdfPTable(new float[]{1f, 3f});
             headerTbl.setWidthPercentage(100);
 
-            // logo: try load from resources
-            try {
-                InputStream is = getClass().getResourceAsStream("/static/logo.png");
-                if (is != null) {
-                    Image logo = Image.getInstance(readAllBytes(is));
-                    logo.scaleToFit(80, 80);
-                    PdfPCell logoCell = new PdfPCell(logo, false);
-                    logoCell.setBorder(Rectangle.NO_BORDER);
-                    headerTbl.addCell(logoCell);
-                } else {
-                    headerTbl.addCell(emptyCell());
-                }
-            } catch (Exception e) {
-                log.warn("logo load failed: {}", e.getMessage());
+            // logo: cached at startup, copied so concurrent statements never share an instance
+            if (logo != null) {
+                PdfPCell logoCell = new PdfPCell(Image.getInstance(logo), false);
+                logoCell.setBorder(Rectangle.NO_BORDER);
+                headerTbl.addCell(logoCell);
+            } else {
                 headerTbl.addCell(emptyCell());
             }
 
@@ -85,32 +125,29 @@ public class PdfService {
             document.add(Chunk.NEWLINE);
 
             // --- Summary box (opening balance, total credit, total debit, closing balance) ---
-            double totalCredit = txs.stream()
-                    .filter(t -> "CREDIT".equalsIgnoreCase(t.getType()))
-                    .mapToDouble(t -> t.getAmount() == null ? 0.0 : t.getAmount())
-                    .sum();
-
-            double totalDebit = txs.stream()
-                    .filter(t -> "DEBIT".equalsIgnoreCase(t.getType()))
-                    .mapToDouble(t -> t.getAmount() == null ? 0.0 : t.getAmount())
-                    .sum();
-
-            double closing = (openingBalance == null ? 0.0 : openingBalance) + totalCredit - totalDebit;
-
+            // Totals are only known after the last row, so their values are reserved as
+            // templates here and written once the table is done.
+            double opening = openingBalance == null ? 0.0 : openingBalance;
+            PdfContentByte cb = writer.getDirectContent();
+            PdfTemplate creditTpl = cb.createTemplate(SUMMARY_VALUE_WIDTH, SUMMARY_VALUE_HEIGHT);
+            PdfTemplate debitTpl = cb.createTemplate(SUMMARY_VALUE_WIDTH, SUMMARY_VALUE_HEIGHT);
+            PdfTemplate closingTpl = cb.createTemplate(SUMMARY_VALUE_WIDTH, SUMMARY_VALUE_HEIGHT);
 
             PdfPTable summary = new PdfPTable(4);
             summary.setWidthPercentage(100);
             summary.setSpacingBefore(6f);
             summary.setSpacingAfter(10f);
-            addSummaryCell(summary, "Opening Balance", MONEY_FMT.format(openingBalance == null ? 0.0 : openingBalance), tableHeader, tableCell);
-            addSummaryCell(summary, "Total Credit", MONEY_FMT.format(totalCredit), tableHeader, tableCell);
-            addSummaryCell(summary, "Total Debit", MONEY_FMT.format(totalDebit), tableHeader, tableCell);
-            addSummaryCell(summary, "Closing Balance", MONEY_FMT.format(closing), tableHeader, tableCell);
+            addSummaryCell(summary, "Opening Balance", moneyFmt.format(opening), tableHeader, tableCell);
+            addSummaryCell(summary, "Total Credit", creditTpl, tableHeader);
+            addSummaryCell(summary, "Total Debit", debitTpl, tableHeader);
+            addSummaryCell(summary, "Closing Balance", closingTpl, tableHeader);
             document.add(summary);
 
             // --- Transactions table ---
             PdfPTable table = new PdfPTable(new float[]{1f, 1.2f, 1f, 1.4f, 2.6f});
             table.setWidthPercentage(100);
+            table.setHeaderRows(1); // repeat header on every page
+            table.setComplete(false); // rows are flushed in chunks
             // headers
             addTableHeader(table, "Txn ID", tableHeader);
             addTableHeader(table, "Type", tableHeader);
@@ -118,35 +155,53 @@ public class PdfService {
             addTableHeader(table, "Timestamp", tableHeader);
             addTableHeader(table, "Reference", tableHeader);
 
-            // rows (newest first)
-            for (TransactionResponse t : txs) {
+            // rows (newest first), totals accumulated in the same pass
+            double totalCredit = 0.0;
+            double totalDebit = 0.0;
+            int inChunk = 0;
+            while (rows.hasNext()) {
+                TransactionResponse t = rows.next();
+                double amt = t.getAmount() == null ? 0.0 : t.getAmount();
+                if ("CREDIT".equalsIgnoreCase(t.getType())) {
+                    totalCredit += amt;
+                } else if ("DEBIT".equalsIgnoreCase(t.getType())) {
+                    totalDebit += amt;
+                }
+
                 addTableCell(table, t.getTransactionId() == null ? "" : t.getTransactionId().toString(), tableCell);
                 addTableCell(table, t.getType() == null ? "" : t.getType(), tableCell);
-                addTableCell(table, MONEY_FMT.format(t.getAmount() == null ? 0.0 : t.getAmount()), tableCell);
+                addTableCell(table, moneyFmt.format(amt), tableCell);
                 addTableCell(table, t.getTimestamp() == null ? "" : t.getTimestamp().format(TS_FMT), tableCell);
                 addTableCell(table, t.getReferenceText() == null ? "" : t.getReferenceText(), tableCell);
+
+                if (++inChunk == ROWS_PER_CHUNK) {
+                    document.add(table); // writes finished rows and drops them from the table
+                    inChunk = 0;
+                }
             }
 
+            table.setComplete(true);
             document.add(table);
 
+            double closing = opening + totalCredit - totalDebit;
+            BaseFont valueFont = tableCell.getCalculatedBaseFont(false);
+            fillSummaryValue(creditTpl, moneyFmt.format(totalCredit), valueFont, tableCell.getSize());
+            fillSummaryValue(debitTpl, moneyFmt.format(totalDebit), valueFont, tableCell.getSize());
+            fillSummaryValue(closingTpl, moneyFmt.format(closing), valueFont, tableCell.getSize());
+
             // --- QR Code for verification (bottom-right) ---
             try {
                 String verificationUrl = "https://yourbank.example.com/verify?acc=" + accountId; // change as needed
-                Image qrImage = createQrImage(verificationUrl, 120, 120);
+                Image qrImage = createQrImage(cb, verificationUrl, QR_SIZE);
                 qrImage.setAbsolutePosition(document.getPageSize().getRight() - 140, document.bottom() + 20);
                 document.add(qrImage);
             } catch (Exception e) {
                 log.warn("QR generation failed: {}", e.getMessage());
             }
 
-            // --- Watermark (diagonal, scaled, centered, subtle) ---
-            addWatermark(writer, "NEO BANK ENGINE - CONFIDENTIAL");
-
             document.close();
-            return baos.toByteArray();
-        } catch (Exception e) {
-            log.error("PDF generation failed", e);
-            return new byte[0];
+        } catch (DocumentException e) {
+            throw new ExceptionConverter(e);
         }
     }
 
@@ -178,86 +233,145 @@ public class PdfService {
         summary.addCell(p);
     }
 
+    // summary value whose text is written later into a reserved template
+    private static void addSummaryCell(PdfPTable summary, String title, PdfTemplate value, Font hFont)
+            throws BadElementException {
+        PdfPCell p = new PdfPCell();
+        p.setBorderColor(Color.GRAY);
+        p.setPadding(6f);
+        Paragraph t = new Paragraph(title, hFont);
+        p.addElement(t);
+        p.addElement(Chunk.NEWLINE);
+        p.addElement(new Chunk(Image.getInstance(value), 0, 0, true));
+        summary.addCell(p);
+    }
+
+    private static void fillSummaryValue(PdfTemplate tpl, String text, BaseFont font, float size) {
+        tpl.beginText();
+        tpl.setFontAndSize(font, size);
+        tpl.setTextMatrix(0, SUMMARY_VALUE_HEIGHT - size);
+        tpl.showText(text);
+        tpl.endText();
+    }
+
     private static PdfPCell emptyCell() {
         PdfPCell c = new PdfPCell(new Phrase(""));
         c.setBorder(Rectangle.NO_BORDER);
         return c;
     }
 
-    private static byte[] readAllBytes(InputStream is) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        byte[] buf = new byte[4096];
-        int n;
-        while ((n = is.read(buf)) > -1) baos.write(buf, 0, n);
-        return baos.toByteArray();
+    private Image loadLogo() {
+        try (InputStream is = getClass().getResourceAsStream("/static/logo.png")) {
+            if (is == null) {
+                log.warn("logo not found at /static/logo.png - statements will have no logo");
+                return null;
+            }
+            Image img = Image.getInstance(is.readAllBytes());
+            img.scaleToFit(80, 80);
+            return img;
+        } catch (Exception e) {
+            log.warn("logo load failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private BaseFont loadWatermarkFont() {
+        try {
+            return BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.EMBEDDED);
+        } catch (Exception e) {
+            log.warn("watermark font load failed, statements will have no watermark: {}", e.getMessage());
+            return null;
+        }
     }
 
-    private static Image createQrImage(String text, int width, int height) throws Exception {
-        QRCodeWriter qrWriter = new QRCodeWriter();
-        BitMatrix matrix = qrWriter.encode(text, BarcodeFormat.QR_CODE, width, height);
+    /**
+     * Computes a font size that fits the page (so the watermark won't overflow).
+     */
+    private static float fitWatermarkFontSize(BaseFont bf, Rectangle pageSize) {
+        float baseFontSize = 60f; // starting point
+        float maxAllowedWidth = pageSize.getWidth() * 0.85f; // leave margins
+        float textWidth = bf.getWidthPoint(WATERMARK_TEXT, baseFontSize);
+
+        if (textWidth > maxAllowedWidth) {
+            baseFontSize = baseFontSize * (maxAllowedWidth / textWidth);
+            if (baseFontSize < 20f) baseFontSize = 20f; // don't go too small
+        }
+        return baseFontSize;
+    }
 
-        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                int grayValue = (matrix.get(x, y) ? 0 : 0xFFFFFF);
-                img.setRGB(x, y, grayValue);
+    /**
+     * QR code drawn as vector rectangles straight from the ZXing BitMatrix
+     * (one rectangle per horizontal run of dark modules, no raster/PNG round trip).
+     */
+    private static Image createQrImage(PdfContentByte cb, String text, float size) throws Exception {
+        QRCodeWriter qrWriter = new QRCodeWriter();
+        // width/height 0 -> one matrix cell per module (quiet zone included)
+        BitMatrix matrix = qrWriter.encode(text, BarcodeFormat.QR_CODE, 0, 0,
+                Map.of(EncodeHintType.MARGIN, 4));
+
+        int modules = matrix.getWidth();
+        float m = size / modules;
+
+        PdfTemplate tpl = cb.createTemplate(size, size);
+        tpl.setColorFill(Color.BLACK);
+        for (int y = 0; y < modules; y++) {
+            float top = size - (y + 1) * m; // PDF origin is bottom-left
+            int x = 0;
+            while (x < modules) {
+                if (!matrix.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int runStart = x;
+                while (x < modules && matrix.get(x, y)) x++;
+                tpl.rectangle(runStart * m, top, (x - runStart) * m, m);
             }
         }
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write(img, "PNG", baos);
-        return Image.getInstance(baos.toByteArray());
+        tpl.fill();
+        return Image.getInstance(tpl);
     }
 
     /**
-     * Improved watermark routine:
-     * - computes a font size that fits the page (so it won't overflow)
-     * - centers the text and rotates it diagonally
-     * - uses subtle opacity
+     * Watermark rendered once per document into a template and stamped under
+     * the content of every page:
+     * - font size precomputed to fit the page
+     * - centered and rotated diagonally
+     * - subtle opacity
      */
-    private static void addWatermark(PdfWriter writer, String watermarkText) {
-        PdfContentByte canvas = writer.getDirectContentUnder();
-        BaseFont bf = null;
-        try {
-            bf = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.EMBEDDED);
+    private static final class WatermarkEvent extends PdfPageEventHelper {
 
-            // compute a base font size and scale down if text wider than page width
-            com.lowagie.text.Rectangle pageSize = writer.getPageSize();
-            float pageWidth = pageSize.getWidth();
-            float pageHeight = pageSize.getHeight();
+        private final BaseFont font;
+        private final float fontSize;
+        private PdfTemplate template;
 
-            float baseFontSize = 60f; // starting point
-            float maxAllowedWidth = pageWidth * 0.85f; // leave margins
-            float textWidth = bf.getWidthPoint(watermarkText, baseFontSize);
+        WatermarkEvent(BaseFont font, float fontSize) {
+            this.font = font;
+            this.fontSize = fontSize;
+        }
 
-            if (textWidth > maxAllowedWidth) {
-                baseFontSize = baseFontSize * (maxAllowedWidth / textWidth);
-                if (baseFontSize < 20f) baseFontSize = 20f; // don't go too small
-            }
+        @Override
+        public void onOpenDocument(PdfWriter writer, Document document) {
+            Rectangle pageSize = document.getPageSize();
+            template = writer.getDirectContent().createTemplate(pageSize.getWidth(), pageSize.getHeight());
 
             // subtle opacity
             PdfGState gs = new PdfGState();
-            gs.setFillOpacity(0.08f); // subtle
-            canvas.saveState();
-            canvas.setGState(gs);
-
-            // set text
-            canvas.beginText();
-            canvas.setFontAndSize(bf, baseFontSize);
-
-            // center coordinates
-            float x = (pageSize.getLeft() + pageSize.getRight()) / 2f;
-            float y = (pageSize.getTop() + pageSize.getBottom()) / 2f;
+            gs.setFillOpacity(0.08f);
+            template.saveState();
+            template.setGState(gs);
 
+            template.beginText();
+            template.setFontAndSize(font, fontSize);
             // rotate 45 degrees around center
-            canvas.showTextAligned(Element.ALIGN_CENTER, watermarkText, x, y, 45f);
-
-            canvas.endText();
-            canvas.restoreState();
+            template.showTextAligned(Element.ALIGN_CENTER, WATERMARK_TEXT,
+                    pageSize.getWidth() / 2f, pageSize.getHeight() / 2f, 45f);
+            template.endText();
+            template.restoreState();
+        }
 
-        } catch (Exception e) {
-            // swallow watermark errors so PDF still generates
-            // but log if needed
-            // (no logger here because this is static; calling class logs in calling method)
+        @Override
+        public void onEndPage(PdfWriter writer, Document document) {
+            writer.getDirectContentUnder().addTemplate(template, 0, 0);
         }
     }
 }
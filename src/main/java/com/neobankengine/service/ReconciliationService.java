@@ -0,0 +1,185 @@
+package com.neobankengine.service;
+
+import com.neobankengine.dto.AccountNetDto;
+import com.neobankengine.dto.BatchJobReport;
+import com.neobankengine.entity.Account;
+import com.neobankengine.exception.ConflictException;
+import com.neobankengine.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ledger reconciliation: checks that every Account.balance equals the sum of its
+ * CREDIT minus DEBIT transactions.
+ *
+ * Same partitioning as {@link MonthlyStatementBatchService}: accounts are split into
+ * id ranges, each partition costs two queries (accounts, one grouped sum over the
+ * partition's transactions) inside one read-only transaction, so balances and sums
+ * come from the same snapshot. Partitions are compared on a {@link PartitionedBatchRunner},
+ * at most {@code parallelism} at a time.
+ *
+ * Output: {@code <output-dir>/reconciliation-<timestamp>.csv} listing every mismatch.
+ */
+@Service
+@Slf4j
+public class ReconciliationService {
+
+    // balances are doubles; anything below half a paisa is rounding noise
+    private static final double TOLERANCE = 0.005;
+    private static final DateTimeFormatter FILE_TS = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final AccountRepository accountRepository;
+    private final TransactionHistory transactionHistory;
+    private final TransactionTemplate readOnlyTx;
+
+    private final Path outputDir;
+    private final long partitionSize;
+    private final PartitionedBatchRunner runner;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public ReconciliationService(AccountRepository accountRepository,
+                                 TransactionHistory transactionHistory,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${batch.reconciliation.output-dir:./reconciliation}") String outputDir,
+                                 @Value("${batch.reconciliation.partition-size:5000}") long partitionSize,
+                                 @Value("${batch.reconciliation.parallelism:0}") int parallelism) {
+        this.accountRepository = accountRepository;
+        this.transactionHistory = transactionHistory;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.outputDir = Path.of(outputDir);
+        this.partitionSize = partitionSize;
+        this.runner = new PartitionedBatchRunner("RECONCILIATION", parallelism);
+    }
+
+    // ------------------------------------------------
+    // START / STATUS
+    // ------------------------------------------------
+
+    public BatchJobReport start() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ConflictException("A reconciliation run is already in progress.");
+        }
+
+        Path report = outputDir.resolve("reconciliation-" + LocalDateTime.now().format(FILE_TS) + ".csv");
+        PartitionedBatchRunner.Run run = runner.newRun(report);
+
+        Thread.ofVirtual().name("reconciliation").start(() -> {
+            try {
+                execute(run);
+            } finally {
+                running.set(false);
+            }
+        });
+        return run.toReport();
+    }
+
+    public BatchJobReport getReport(String jobId) {
+        return runner.getReport(jobId);
+    }
+
+    // ------------------------------------------------
+    // RUN
+    // ------------------------------------------------
+
+    private void execute(PartitionedBatchRunner.Run run) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(outputDir);
+            tmp = Files.createTempFile(outputDir, "reconciliation-", ".part");
+
+            try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                out.write("accountId,balance,ledgerNet,difference\n");
+
+                List<Long> partitionStarts = PartitionedBatchRunner.partitionStarts(
+                        accountRepository.findMinAccountId(), accountRepository.findMaxAccountId(), partitionSize);
+                runner.runPartitions(run, partitionStarts, partitionSize, Set.of(),
+                        (lo, hi) -> reconcilePartition(run, lo, hi, out));
+            }
+
+            Files.move(tmp, run.output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            run.finish(null);
+            BatchJobReport report = run.toReport();
+            log.info("reconciliation done: {} accounts, {} mismatches, {} accounts/s",
+                    report.getAccountsProcessed(), report.getMismatches(),
+                    String.format("%.1f", report.getAccountsPerSecond()));
+        } catch (Exception ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            log.error("reconciliation failed", cause);
+            run.finish(cause.getMessage());
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // leftover .part file is harmless
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the partition's mismatches; returns the number of accounts compared.
+     */
+    private int reconcilePartition(PartitionedBatchRunner.Run run, long lo, long hi, BufferedWriter out) {
+        StringBuilder lines = new StringBuilder();
+        int[] counts = new int[2]; // accounts, mismatches
+
+        readOnlyTx.executeWithoutResult(status -> {
+            List<Account> accounts = accountRepository.findByAccountIdBetweenOrderByAccountIdAsc(lo, hi);
+            if (accounts.isEmpty()) {
+                return;
+            }
+
+            Map<Long, Double> ledger = new HashMap<>();
+            // live table + archived months
+            for (AccountNetDto n : transactionHistory.netAmountByAccount(lo, hi)) {
+                ledger.put(n.getAccountId(), n.getNet());
+            }
+
+            for (Account account : accounts) {
+                double balance = account.getBalance() == null ? 0.0 : account.getBalance();
+                double net = ledger.getOrDefault(account.getAccountId(), 0.0);
+                double diff = balance - net;
+                if (Math.abs(diff) >= TOLERANCE) {
+                    lines.append(account.getAccountId()).append(',')
+                            .append(String.format(Locale.ROOT, "%.2f,%.2f,%.2f", balance, net, diff))
+                            .append('\n');
+                    counts[1]++;
+                }
+            }
+            counts[0] = accounts.size();
+        });
+
+        if (!lines.isEmpty()) {
+            synchronized (out) {
+                try {
+                    out.write(lines.toString());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        run.mismatches.addAndGet(counts[1]);
+        return counts[0];
+    }
+}
@@ -0,0 +1,140 @@
+package com.neobankengine.service;
+
+import com.neobankengine.dto.LoginResponse;
+import com.neobankengine.entity.RefreshToken;
+import com.neobankengine.entity.User;
+import com.neobankengine.exception.ForbiddenException;
+import com.neobankengine.exception.UnauthorizedException;
+import com.neobankengine.repository.RefreshTokenRepository;
+import com.neobankengine.repository.UserRepository;
+import com.neobankengine.security.JwtPrincipal;
+import com.neobankengine.security.JwtUtil;
+import com.neobankengine.security.TokenRevocationList;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Access + refresh token pairs. Login (BCrypt) happens once per session; after that the
+ * client trades its refresh token for a new pair before the short-lived access token
+ * expires. Refresh tokens are opaque, single use and stored only as SHA-256.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationList tokenRevocationList;
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${jwt.refresh-expiration-ms:1209600000}")
+    private long refreshExpirationMs;
+
+    /**
+     * New session after a successful login.
+     */
+    @Transactional
+    public LoginResponse issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Rotates a refresh token. A token that was already used means someone else holds a
+     * copy, so the whole family (this login's session) is revoked and both parties must
+     * log in again. Revocations are kept even though the request fails.
+     */
+    @Transactional(noRollbackFor = {UnauthorizedException.class, ForbiddenException.class})
+    public LoginResponse refresh(String refreshToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new UnauthorizedException("Invalid refresh token."));
+
+        // revokeIfActive is a conditional update, so concurrent reuse is caught too
+        if (current.isRevoked() || refreshTokenRepository.revokeIfActive(current.getId()) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId());
+            log.warn("refresh token reuse for user {}: revoked {} tokens of family {}",
+                    current.getUserId(), revoked, current.getFamilyId());
+            throw new UnauthorizedException("Refresh token already used. Please log in again.");
+        }
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new UnauthorizedException("Refresh token expired. Please log in again.");
+        }
+
+        // the status as of now: a deactivation on another node only evicted that node's cache
+        User user = userRepository.findFreshById(current.getUserId()).orElse(null);
+        if (user == null || Boolean.FALSE.equals(user.getStatus())) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new ForbiddenException("Your account has been deactivated.");
+        }
+        return issue(user, current.getFamilyId());
+    }
+
+    /**
+     * Ends the session: revokes the refresh token's family and, if the request was made
+     * with an access token, that access token too. Unknown tokens are ignored.
+     */
+    @Transactional
+    public void logout(String refreshToken, JwtPrincipal accessToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                    .filter(t -> accessToken == null || accessToken.userId() == null
+                            || t.getUserId().equals(accessToken.userId()))
+                    .ifPresent(t -> refreshTokenRepository.revokeFamily(t.getFamilyId()));
+        }
+        if (accessToken != null) {
+            tokenRevocationList.revoke(accessToken);
+        }
+    }
+
+    @Scheduled(cron = "${jwt.revocation.rebuild-cron:0 0 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        log.info("refresh tokens: purged {} expired rows", deleted);
+    }
+
+    // ------------------------------------------------
+    // HELPERS
+    // ------------------------------------------------
+    private LoginResponse issue(User user, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken row = new RefreshToken();
+        row.setTokenHash(hash(refreshToken));
+        row.setUserId(user.getId());
+        row.setFamilyId(familyId);
+        row.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs)));
+        refreshTokenRepository.save(row);
+
+        return new LoginResponse(jwtUtil.generateToken(user), "Bearer", refreshToken,
+                jwtUtil.getExpirationMs() / 1000);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
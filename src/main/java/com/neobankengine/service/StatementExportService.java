@@ -0,0 +1,137 @@
+package com.neobankengine.service;
+
+import com.neobankengine.dto.TransactionResponse;
+import com.neobankengine.fields.FieldSet;
+import com.neobankengine.fields.SparseRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes statement rows (CSV / JSON array / NDJSON) to an output stream one row at a time.
+ * Rows come from a cursor-backed stream, so memory use does not grow with statement size.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatementExportService {
+
+    // flush to the client once per cursor batch
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    // application-wide mapper (same config as the REST responses)
+    private final JsonMapper jsonMapper;
+
+    /**
+     * JSON array: [ {...}, {...} ] (full or sparse rows)
+     */
+    public void writeJson(Stream<?> rows, OutputStream out) {
+        try (JsonGenerator gen = jsonMapper.createGenerator(out)) {
+            gen.writeStartArray();
+            int n = 0;
+            for (Iterator<?> it = rows.iterator(); it.hasNext(); ) {
+                gen.writePOJO(it.next());
+                if (++n % FLUSH_EVERY_ROWS == 0) {
+                    gen.flush();
+                }
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    /**
+     * Newline-delimited JSON: one object per line. Works for any row type
+     * (also used by the admin exports).
+     */
+    public void writeNdjson(Stream<?> rows, OutputStream out) {
+        try (JsonGenerator gen = jsonMapper.writer().withRootValueSeparator("\n").createGenerator(out)) {
+            int n = 0;
+            for (Iterator<?> it = rows.iterator(); it.hasNext(); ) {
+                gen.writePOJO(it.next());
+                if (++n % FLUSH_EVERY_ROWS == 0) {
+                    gen.flush();
+                }
+            }
+            if (n > 0) {
+                gen.writeRaw('\n');
+            }
+        }
+    }
+
+    /**
+     * CSV with the same columns/format as the original byte[] export.
+     */
+    public void writeCsv(Stream<TransactionResponse> rows, OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        w.write("transactionId,accountId,type,amount,timestamp,referenceText\n");
+
+        int n = 0;
+        for (Iterator<TransactionResponse> it = rows.iterator(); it.hasNext(); ) {
+            TransactionResponse t = it.next();
+            String ref = t.getReferenceText() == null
+                    ? ""
+                    : t.getReferenceText().replace("\"", "\"\"");
+            String ts = (t.getTimestamp() == null)
+                    ? ""
+                    : t.getTimestamp().toString();
+
+            w.write(String.format("%d,%d,%s,%.2f,%s,\"%s\"%n",
+                    t.getTransactionId(),
+                    t.getAccountId(),
+                    t.getType(),
+                    t.getAmount() == null ? 0.0 : t.getAmount(),
+                    ts,
+                    ref
+            ));
+            if (++n % FLUSH_EVERY_ROWS == 0) {
+                w.flush();
+            }
+        }
+        w.flush();
+    }
+
+    /**
+     * CSV with only the requested columns (?fields=), in catalog order. Numbers as in the
+     * full export, text quoted, missing values empty.
+     */
+    public void writeCsv(Stream<SparseRow> rows, FieldSet<TransactionResponse> fields, OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        w.write(String.join(",", fields.names()));
+        w.write('\n');
+
+        int n = 0;
+        StringBuilder line = new StringBuilder();
+        for (Iterator<SparseRow> it = rows.iterator(); it.hasNext(); ) {
+            SparseRow row = it.next();
+            line.setLength(0);
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                Object v = row.value(i);
+                if (v instanceof Double d) {
+                    line.append(String.format("%.2f", d));
+                } else if (v instanceof String str) {
+                    line.append('"').append(str.replace("\"", "\"\"")).append('"');
+                } else if (v != null) {
+                    line.append(v);
+                }
+            }
+            line.append(System.lineSeparator());
+            w.write(line.toString());
+            if (++n % FLUSH_EVERY_ROWS == 0) {
+                w.flush();
+            }
+        }
+        w.flush();
+    }
+}
@@ -0,0 +1,208 @@
+package com.neobankengine.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Local disk cache of rendered statements, keyed by a content key
+ * (account + range + format + latest transaction id).
+ * Eviction is LRU by total size: once {@code statements.cache.max-bytes} is exceeded
+ * the least recently served files are deleted. Files that are being served are leased
+ * ({@link #acquire}) and skipped by eviction until the last lease is closed.
+ */
+@Component
+@Slf4j
+public class StatementFileCache {
+
+    private static final String TMP_SUFFIX = ".part";
+
+    private final Path dir;
+    private final long maxBytes;
+
+    // key -> file size, in access order (eldest = least recently used)
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+    // key -> number of open leases
+    private final Map<String, Integer> leases = new HashMap<>();
+
+    public StatementFileCache(@Value("${statements.cache.dir:${java.io.tmpdir}/neobank-statements}") String dir,
+                              @Value("${statements.cache.max-bytes:1073741824}") long maxBytes) throws IOException {
+        this.dir = Path.of(dir);
+        this.maxBytes = maxBytes;
+        Files.createDirectories(this.dir);
+        loadExisting();
+    }
+
+    /**
+     * Cached file for the key (marks it as recently used), or null.
+     */
+    public synchronized Path get(String key) {
+        if (entries.get(key) == null) {
+            return null;
+        }
+        return fileFor(key);
+    }
+
+    /**
+     * Leases the cached file for the key (marks it as recently used), or null.
+     * The file is not evicted until the lease is closed.
+     */
+    public synchronized Lease acquire(String key) {
+        Long size = entries.get(key);
+        if (size == null) {
+            return null;
+        }
+        leases.merge(key, 1, Integer::sum);
+        return new Lease(key, fileFor(key), size);
+    }
+
+    /**
+     * Fresh temp file in the cache directory to render into; publish it with {@link #put}.
+     */
+    public Path newTempFile(String key) throws IOException {
+        return Files.createTempFile(dir, key + "-", TMP_SUFFIX);
+    }
+
+    /**
+     * Atomically moves a fully written temp file into the cache and evicts LRU
+     * entries until the cache is back under its size limit.
+     */
+    public Path put(String key, Path tempFile) throws IOException {
+        Path target = fileFor(key);
+        Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        long size = Files.size(target);
+
+        synchronized (this) {
+            Long previous = entries.put(key, size);
+            totalBytes += size - (previous == null ? 0L : previous);
+            evictIfNeeded(key);
+        }
+        return target;
+    }
+
+    /**
+     * A served cached file. Closing the lease (or the stream from {@link #openStream})
+     * lets the file be evicted again.
+     */
+    public final class Lease implements AutoCloseable {
+        private final String key;
+        private final Path file;
+        private final long size;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease(String key, Path file, long size) {
+            this.key = key;
+            this.file = file;
+            this.size = size;
+        }
+
+        public Path file() {
+            return file;
+        }
+
+        public long size() {
+            return size;
+        }
+
+        /**
+         * Stream over the file that closes this lease when it is closed.
+         */
+        public InputStream openStream() throws IOException {
+            return new FilterInputStream(Files.newInputStream(file)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Lease.this.close();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(key);
+            }
+        }
+    }
+
+    // ---------- helpers ----------
+
+    private synchronized void release(String key) {
+        leases.computeIfPresent(key, (k, n) -> n == 1 ? null : n - 1);
+        if (!leases.containsKey(key)) {
+            evictIfNeeded(null); // eviction may have been held back by this lease
+        }
+    }
+
+    private Path fileFor(String key) {
+        return dir.resolve(key);
+    }
+
+    // caller holds the lock; never evicts the entry that was just added or a leased one
+    private void evictIfNeeded(String keep) {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            if (eldest.getKey().equals(keep) || leases.containsKey(eldest.getKey())) {
+                continue;
+            }
+            it.remove();
+            totalBytes -= eldest.getValue();
+            try {
+                Files.deleteIfExists(fileFor(eldest.getKey()));
+            } catch (IOException e) {
+                log.warn("could not delete evicted statement {}: {}", eldest.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    // rebuild the index after a restart (oldest modification = least recently used)
+    private void loadExisting() throws IOException {
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dir)) {
+            files = s.filter(Files::isRegularFile).toList();
+        }
+
+        files.stream()
+                .filter(f -> f.getFileName().toString().endsWith(TMP_SUFFIX))
+                .forEach(f -> {
+                    try {
+                        Files.deleteIfExists(f); // left over from an interrupted render
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+
+        files.stream()
+                .filter(f -> !f.getFileName().toString().endsWith(TMP_SUFFIX))
+                .sorted(Comparator.comparingLong(f -> f.toFile().lastModified()))
+                .forEach(f -> {
+                    long size = f.toFile().length();
+                    entries.put(f.getFileName().toString(), size);
+                    totalBytes += size;
+                });
+
+        evictIfNeeded(null);
+        log.info("statement cache at {}: {} files, {} bytes", dir, entries.size(), totalBytes);
+    }
+}
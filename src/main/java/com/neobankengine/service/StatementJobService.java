@@ -0,0 +1,292 @@
+package com.neobankengine.service;
+
+import com.neobankengine.dto.StatementJobResponse;
+import com.neobankengine.exception.BadRequestException;
+import com.neobankengine.exception.ForbiddenException;
+import com.neobankengine.exception.ResourceNotFoundException;
+import com.neobankengine.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Async statement rendering: jobs are queued on a bounded worker pool and the
+ * result is kept in {@link StatementFileCache}. Identical requests (same account,
+ * range, format and latest transaction) reuse the cached file or the job already
+ * rendering it.
+ *
+ * The worker pool is a small fixed pool with a bounded queue, owned by this service
+ * (not a bean, so Boot's applicationTaskExecutor stays in place): statement jobs can
+ * never take more than {@code statements.jobs.workers} DB connections / CPU threads
+ * away from the money-movement endpoints, and a full queue rejects new jobs (429).
+ */
+@Service
+@Slf4j
+public class StatementJobService {
+
+    public static final Set<String> FORMATS = Set.of("pdf", "csv", "json", "ndjson");
+
+    // finished jobs are forgotten after this (the file may still be cached)
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+
+    private final TransactionService transactionService;
+    private final AccountService accountService;
+    private final PdfService pdfService;
+    private final StatementExportService statementExportService;
+    private final StatementFileCache fileCache;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // cache key -> job currently rendering it
+    private final Map<String, Job> inFlight = new ConcurrentHashMap<>();
+
+    public StatementJobService(TransactionService transactionService,
+                               AccountService accountService,
+                               PdfService pdfService,
+                               StatementExportService statementExportService,
+                               StatementFileCache fileCache,
+                               @Value("${statements.jobs.workers:2}") int workers,
+                               @Value("${statements.jobs.queue-capacity:50}") int queueCapacity) {
+        this.transactionService = transactionService;
+        this.accountService = accountService;
+        this.pdfService = pdfService;
+        this.statementExportService = statementExportService;
+        this.fileCache = fileCache;
+        this.executor = new ThreadPoolExecutor(
+                workers,
+                workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("statement-job-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    // ------------------------------------------------
+    // SUBMIT
+    // ------------------------------------------------
+    public StatementJobResponse submit(Long accountId, String userEmail, LocalDate from, LocalDate to, String format) {
+        String fmt = format == null ? "" : format.toLowerCase(Locale.ROOT);
+        if (!FORMATS.contains(fmt)) {
+            throw new BadRequestException("format must be one of " + FORMATS);
+        }
+        purgeExpiredJobs();
+
+        // With no 'from', the PDF opening balance is the current balance, which moves with
+        // any later posting - so key PDFs on the account's latest transaction in that case.
+        LocalDate keyTo = ("pdf".equals(fmt) && from == null) ? null : to;
+        Long latestTxId = transactionService.getLatestTransactionIdForStatement(accountId, userEmail, from, keyTo);
+        String key = cacheKey(accountId, from, to, fmt, latestTxId);
+
+        Job job = new Job(UUID.randomUUID().toString(), userEmail, accountId, from, to, fmt, key);
+        jobs.put(job.id, job);
+
+        if (fileCache.get(key) != null) {
+            job.complete();
+            return job.toResponse();
+        }
+
+        Job running = inFlight.putIfAbsent(key, job);
+        if (running != null) {
+            // same statement already rendering - share its result
+            job.attachTo(running);
+            return job.toResponse();
+        }
+
+        try {
+            executor.execute(() -> render(job));
+        } catch (RejectedExecutionException ex) {
+            // requests that attached to this job meanwhile follow its status: fail it (and
+            // keep it until purged) rather than leave them QUEUED forever
+            job.fail("Statement queue was full, please request it again.");
+            inFlight.remove(key, job);
+            throw new TooManyRequestsException("Statement queue is full, please retry shortly.", 30);
+        }
+        return job.toResponse();
+    }
+
+    // ------------------------------------------------
+    // STATUS / RESULT
+    // ------------------------------------------------
+    public StatementJobResponse getJob(Long accountId, String jobId, String userEmail) {
+        return findOwnedJob(accountId, jobId, userEmail).toResponse();
+    }
+
+    /**
+     * Cached file of a READY job, leased so it cannot be evicted while it is served;
+     * null if the job is not READY. The caller must close the lease.
+     */
+    public StatementFileCache.Lease openResultFile(Long accountId, String jobId, String userEmail) {
+        Job job = findOwnedJob(accountId, jobId, userEmail);
+        if (!"READY".equals(job.status())) {
+            return null;
+        }
+        StatementFileCache.Lease lease = fileCache.acquire(job.cacheKey);
+        if (lease == null) {
+            throw new ResourceNotFoundException("Statement file expired, please request it again.");
+        }
+        return lease;
+    }
+
+    // ------------------------------------------------
+    // HELPERS
+    // ------------------------------------------------
+    private void render(Job job) {
+        job.status = "RUNNING";
+        Path tmp = null;
+        try {
+            tmp = fileCache.newTempFile(job.cacheKey);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                writeStatement(job, out);
+            }
+            fileCache.put(job.cacheKey, tmp);
+            job.complete();
+        } catch (Exception ex) {
+            log.warn("statement job {} failed: {}", job.id, ex.getMessage());
+            job.fail(ex.getMessage());
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // cache cleans up *.part files on restart
+                }
+            }
+        } finally {
+            inFlight.remove(job.cacheKey, job);
+        }
+    }
+
+    private void writeStatement(Job job, OutputStream out) {
+        Double openingBalance = "pdf".equals(job.format)
+                ? accountService.getBalanceBefore(job.accountId, job.userEmail, job.from)
+                : null;
+
+        transactionService.streamTransactionsForStatement(job.accountId, job.userEmail, job.from, job.to, rows -> {
+            try {
+                switch (job.format) {
+                    case "pdf" -> pdfService.writeStatementPdf(job.accountId, rows.iterator(), openingBalance, out);
+                    case "json" -> statementExportService.writeJson(rows, out);
+                    case "ndjson" -> statementExportService.writeNdjson(rows, out);
+                    default -> statementExportService.writeCsv(rows, out);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private Job findOwnedJob(Long accountId, String jobId, String userEmail) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.accountId.equals(accountId)) {
+            throw new ResourceNotFoundException("Statement job not found.");
+        }
+        if (!job.userEmail.equals(userEmail)) {
+            throw new ForbiddenException("You are not allowed to view this statement job.");
+        }
+        return job;
+    }
+
+    private void purgeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(j -> j.completedAt() != null && j.completedAt().isBefore(cutoff));
+    }
+
+    private static String cacheKey(Long accountId, LocalDate from, LocalDate to, String format, Long latestTxId) {
+        String raw = accountId + "|" + from + "|" + to + "|" + format + "|" + latestTxId;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest) + "." + format;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * In-memory job record. A job that found the same statement already rendering
+     * follows that job's status instead of rendering again.
+     */
+    private static final class Job {
+        final String id;
+        final String userEmail;
+        final Long accountId;
+        final LocalDate from;
+        final LocalDate to;
+        final String format;
+        final String cacheKey;
+        final LocalDateTime createdAt = LocalDateTime.now();
+
+        volatile String status = "QUEUED";
+        volatile LocalDateTime completedAt;
+        volatile String error;
+        volatile Job delegate;
+
+        Job(String id, String userEmail, Long accountId, LocalDate from, LocalDate to, String format, String cacheKey) {
+            this.id = id;
+            this.userEmail = userEmail;
+            this.accountId = accountId;
+            this.from = from;
+            this.to = to;
+            this.format = format;
+            this.cacheKey = cacheKey;
+        }
+
+        void attachTo(Job running) {
+            this.delegate = running;
+        }
+
+        void complete() {
+            this.completedAt = LocalDateTime.now();
+            this.status = "READY";
+        }
+
+        void fail(String message) {
+            this.error = message;
+            this.completedAt = LocalDateTime.now();
+            this.status = "FAILED";
+        }
+
+        String status() {
+            return delegate != null ? delegate.status : status;
+        }
+
+        LocalDateTime completedAt() {
+            return delegate != null ? delegate.completedAt : completedAt;
+        }
+
+        StatementJobResponse toResponse() {
+            Job source = delegate != null ? delegate : this;
+            return new StatementJobResponse(id, accountId, from, to, format,
+                    source.status, createdAt, source.completedAt, source.error);
+        }
+    }
+}
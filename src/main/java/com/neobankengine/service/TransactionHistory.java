@@ -0,0 +1,253 @@
+package com.neobankengine.service;
+
+import com.neobankengine.archive.TransactionSegment;
+import com.neobankengine.archive.TransactionSegmentStore;
+import com.neobankengine.dto.AccountNetDto;
+import com.neobankengine.dto.TransactionResponse;
+import com.neobankengine.fields.FieldSet;
+import com.neobankengine.fields.SparseRow;
+import com.neobankengine.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Full transaction history across the live table and the archived months.
+ *
+ * Everything at or after the archive watermark is read from the transaction table,
+ * everything before it from {@link TransactionSegment} files. The watermark is read once
+ * per call, so results are consistent while a month is being moved to the archive.
+ * Callers that only look at recent data (retention is at least 3 months) keep using
+ * {@link TransactionRepository} directly.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionHistory {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionSegmentStore segmentStore;
+
+    /**
+     * Statement rows for from <= timestamp <= to (either optional), newest first:
+     * live rows through a DB cursor, then archived months read lazily, one month at a time.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    public Stream<TransactionResponse> streamForStatement(Long accountId, LocalDateTime from, LocalDateTime to) {
+        return streamForStatement(accountId, from, to, transactionRepository::streamForStatement, Function.identity());
+    }
+
+    /**
+     * Same rows cut to {@code fields}: only those columns are selected from the table.
+     */
+    public Stream<SparseRow> streamForStatement(Long accountId, LocalDateTime from, LocalDateTime to,
+                                                FieldSet<TransactionResponse> fields) {
+        return streamForStatement(accountId, from, to,
+                (id, start, end) -> transactionRepository.streamSparseForStatement(id, start, end, fields),
+                r -> fields.project(r));
+    }
+
+    private <R> Stream<R> streamForStatement(Long accountId, LocalDateTime from, LocalDateTime to,
+                                             LiveRange<R> liveRows, Function<TransactionResponse, R> archivedRow) {
+        TransactionSegmentStore.State archive = segmentStore.state();
+        LocalDateTime watermark = archive.archivedBefore();
+        if (watermark == null) {
+            return liveRows.stream(accountId, from, to);
+        }
+
+        Stream<R> live = to != null && to.isBefore(watermark)
+                ? Stream.empty()
+                : liveRows.stream(accountId, later(from, watermark), to);
+        if (from != null && !from.isBefore(watermark)) {
+            return live;
+        }
+
+        LocalDateTime archivedTo = to == null || !to.isBefore(watermark) ? watermark.minusNanos(1) : to;
+        Stream<R> archived = archive.between(from, archivedTo).stream()
+                .flatMap(segment -> {
+                    List<TransactionResponse> rows = segment.rowsFor(accountId, from, archivedTo);
+                    Collections.reverse(rows);
+                    return rows.stream().map(archivedRow);
+                });
+        return Stream.concat(live, archived);
+    }
+
+    /**
+     * One keyset page of the account's history, newest first: up to {@code limit} rows
+     * strictly older than (ts, id), or the newest rows when ts is null. Live rows come
+     * from an index range scan; once they run out the page continues into the archived
+     * months, reading only the month the cursor is in (and older ones until full).
+     */
+    public List<TransactionResponse> pageBefore(Long accountId, LocalDateTime ts, Long id, int limit) {
+        return pageBefore(accountId, ts, id, limit,
+                since -> transactionRepository.findPageBefore(accountId, ts, id, since, PageRequest.of(0, limit)),
+                Function.identity());
+    }
+
+    /**
+     * Same page cut to {@code fields}; every row carries
+     * {@link com.neobankengine.repository.TransactionFieldsRepository#KEYSET_COLUMNS} after them.
+     */
+    public List<SparseRow> pageBefore(Long accountId, LocalDateTime ts, Long id, int limit,
+                                      FieldSet<TransactionResponse> fields) {
+        return pageBefore(accountId, ts, id, limit,
+                since -> transactionRepository.findSparsePageBefore(accountId, ts, id, since, fields, limit),
+                r -> fields.project(r, r.getTimestamp(), r.getTransactionId()));
+    }
+
+    private <R> List<R> pageBefore(Long accountId, LocalDateTime ts, Long id, int limit,
+                                   Function<LocalDateTime, List<R>> liveRowsSince,
+                                   Function<TransactionResponse, R> archivedRow) {
+        TransactionSegmentStore.State archive = segmentStore.state();
+        LocalDateTime watermark = archive.archivedBefore();
+
+        List<R> page = new ArrayList<>(limit);
+        if (watermark == null || ts == null || !ts.isBefore(watermark)) {
+            page.addAll(liveRowsSince.apply(watermark));
+        }
+        if (page.size() == limit || watermark == null) {
+            return page;
+        }
+
+        LocalDateTime upper = ts == null || !ts.isBefore(watermark) ? watermark.minusNanos(1) : ts;
+        for (TransactionSegment segment : archive.between(null, upper)) {
+            List<TransactionResponse> rows = segment.rowsFor(accountId, null, upper);
+            // oldest first within a segment: walk it backwards
+            for (int i = rows.size() - 1; i >= 0 && page.size() < limit; i--) {
+                TransactionResponse r = rows.get(i);
+                if (ts == null || olderThan(r, ts, id)) {
+                    page.add(archivedRow.apply(r));
+                }
+            }
+            if (page.size() == limit) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Page {@code page} of the account's history, newest first, by offset: the live rows
+     * at or after the watermark, then the archived months. A page that starts inside the
+     * archive counts the live rows once and skips whole months by their row count; deep
+     * pages still read every month they skip, which is why /transactions/cursor exists.
+     */
+    public List<TransactionResponse> pageAt(Long accountId, int page, int size) {
+        return pageAt(accountId, page, size,
+                since -> transactionRepository.findPageSince(accountId, since, PageRequest.of(page, size)),
+                Function.identity());
+    }
+
+    /**
+     * Same page cut to {@code fields}.
+     */
+    public List<SparseRow> pageAt(Long accountId, int page, int size, FieldSet<TransactionResponse> fields) {
+        return pageAt(accountId, page, size,
+                since -> transactionRepository.findSparsePageSince(accountId, since, fields, PageRequest.of(page, size)),
+                r -> fields.project(r));
+    }
+
+    private <R> List<R> pageAt(Long accountId, int page, int size,
+                               Function<LocalDateTime, List<R>> livePageSince,
+                               Function<TransactionResponse, R> archivedRow) {
+        TransactionSegmentStore.State archive = segmentStore.state();
+        LocalDateTime watermark = archive.archivedBefore();
+
+        List<R> rows = new ArrayList<>(livePageSince.apply(watermark));
+        if (rows.size() == size || watermark == null) {
+            return rows;
+        }
+
+        // live rows ran out on this page (skip nothing) or before it (skip the archived rows of earlier pages)
+        long skip = rows.isEmpty()
+                ? Math.max(0, (long) page * size - transactionRepository.countSince(accountId, watermark))
+                : 0;
+        for (TransactionSegment segment : archive.between(null, watermark.minusNanos(1))) {
+            List<TransactionResponse> month = segment.rowsFor(accountId, null, null);
+            if (skip >= month.size()) {
+                skip -= month.size();
+                continue;
+            }
+            // oldest first within a segment: walk it backwards
+            for (int i = month.size() - 1 - (int) skip; i >= 0 && rows.size() < size; i--) {
+                rows.add(archivedRow.apply(month.get(i)));
+            }
+            skip = 0;
+            if (rows.size() == size) {
+                break;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Sum of CREDIT minus everything else at or after {@code since}, archive included.
+     */
+    public double netAmountSince(Long accountId, LocalDateTime since) {
+        TransactionSegmentStore.State archive = segmentStore.state();
+        LocalDateTime watermark = archive.archivedBefore();
+        if (watermark == null || !since.isBefore(watermark)) {
+            return transactionRepository.netAmountSince(accountId, since);
+        }
+        double net = transactionRepository.netAmountSince(accountId, watermark);
+        for (TransactionSegment segment : archive.between(since, null)) {
+            for (TransactionResponse r : segment.rowsFor(accountId, since, null)) {
+                net += signed(r);
+            }
+        }
+        return net;
+    }
+
+    /**
+     * Whole-ledger net movement per account in [fromId, toId], archive included
+     * (accounts without transactions are absent).
+     */
+    public List<AccountNetDto> netAmountByAccount(Long fromId, Long toId) {
+        TransactionSegmentStore.State archive = segmentStore.state();
+        LocalDateTime watermark = archive.archivedBefore();
+        if (watermark == null) {
+            return transactionRepository.netAmountByAccount(fromId, toId);
+        }
+
+        Map<Long, Double> net = new HashMap<>();
+        for (AccountNetDto n : transactionRepository.netAmountSinceByAccount(fromId, toId, watermark)) {
+            net.put(n.getAccountId(), n.getNet());
+        }
+        for (TransactionSegment segment : archive.segments().values()) {
+            segment.forEachInRange(fromId, toId, r -> net.merge(r.getAccountId(), signed(r), Double::sum));
+        }
+
+        List<AccountNetDto> out = new ArrayList<>(net.size());
+        net.forEach((id, n) -> out.add(new AccountNetDto(id, n)));
+        return out;
+    }
+
+    // same rule as the repository queries: CREDIT adds, anything else subtracts, null counts as 0
+    private static double signed(TransactionResponse r) {
+        double amount = r.getAmount() == null ? 0.0 : r.getAmount();
+        return "CREDIT".equalsIgnoreCase(r.getType()) ? amount : -amount;
+    }
+
+    private static boolean olderThan(TransactionResponse r, LocalDateTime ts, Long id) {
+        int c = r.getTimestamp().compareTo(ts);
+        return c < 0 || (c == 0 && r.getTransactionId() < id);
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a == null || a.isBefore(b) ? b : a;
+    }
+
+    // the live-table part of a statement, full or sparse rows
+    @FunctionalInterface
+    private interface LiveRange<R> {
+        Stream<R> stream(Long accountId, LocalDateTime from, LocalDateTime to);
+    }
+}
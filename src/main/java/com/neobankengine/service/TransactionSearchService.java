@@ -0,0 +1,243 @@
+package com.neobankengine.service;
+
+import com.neobankengine.dto.CursorPage;
+import com.neobankengine.dto.TransactionResponse;
+import com.neobankengine.dto.TransactionSearchCriteria;
+import com.neobankengine.entity.Transaction;
+import com.neobankengine.exception.BadRequestException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-criteria admin search over transactions.
+ *
+ * A small planner picks one of the composite indexes on {@link Transaction} from the
+ * filters that were supplied and pins it with FORCE INDEX (USE INDEX is only a hint and
+ * still lets the optimizer pick a full table scan when it thinks that is cheaper), so a
+ * broad audit query can't fall back to scanning the table. Results are ordered newest first and paged with a
+ * (timestamp, id) keyset cursor; every query runs under MAX_EXECUTION_TIME.
+ */
+@Service
+@Slf4j
+public class TransactionSearchService {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+    public static final int MAX_ACCOUNT_IDS = 1000;
+
+    // MySQL ER_QUERY_TIMEOUT (MAX_EXECUTION_TIME exceeded)
+    private static final int MYSQL_QUERY_TIMEOUT = 3024;
+
+    private final EntityManager entityManager;
+    private final long maxExecutionMs;
+
+    public TransactionSearchService(EntityManager entityManager,
+                                    @Value("${admin.search.max-execution-ms:2000}") long maxExecutionMs) {
+        this.entityManager = entityManager;
+        this.maxExecutionMs = maxExecutionMs;
+    }
+
+    /**
+     * Index chosen for a search. Order of the checks in {@link #plan} matters:
+     * the most selective leading column wins.
+     */
+    public enum Plan {
+        // account history: equality on account_id, rows already in time order per account
+        ACCOUNT_TIME(Transaction.IDX_ACCOUNT_TIME),
+        // time window; amount bounds are checked inside the index without row lookups
+        TIME_AMOUNT(Transaction.IDX_TIME_AMOUNT),
+        // equality on type, then the time window in index order
+        TYPE_TIME(Transaction.IDX_TYPE_TIME);
+
+        private final String indexName;
+
+        Plan(String indexName) {
+            this.indexName = indexName;
+        }
+
+        public String getIndexName() {
+            return indexName;
+        }
+    }
+
+    public record Result(CursorPage<TransactionResponse> page, Plan plan) {
+    }
+
+    public static Plan plan(TransactionSearchCriteria c) {
+        if (c.getAccountIds() != null && !c.getAccountIds().isEmpty()) {
+            return Plan.ACCOUNT_TIME;
+        }
+        if (c.getMinAmount() != null || c.getMaxAmount() != null) {
+            return Plan.TIME_AMOUNT;
+        }
+        if (c.getType() != null) {
+            return Plan.TYPE_TIME;
+        }
+        // date window only (or nothing): walk the timestamp index newest first and stop at the limit
+        return Plan.TIME_AMOUNT;
+    }
+
+    @Transactional(readOnly = true)
+    public Result search(TransactionSearchCriteria c, String after, Integer limit) {
+        validate(c);
+        int size = checkLimit(limit);
+        Cursor cursor = Cursor.decode(after);
+        Plan plan = plan(c);
+
+        StringBuilder sql = new StringBuilder()
+                .append("select /*+ MAX_EXECUTION_TIME(").append(maxExecutionMs).append(") */ t.* ")
+                .append("from transaction t force index (").append(plan.getIndexName()).append(") ")
+                .append("where 1 = 1");
+        Map<String, Object> params = new LinkedHashMap<>();
+
+        if (c.getAccountIds() != null && !c.getAccountIds().isEmpty()) {
+            sql.append(" and t.account_id in (:accountIds)");
+            params.put("accountIds", c.getAccountIds());
+        }
+        if (c.getType() != null) {
+            sql.append(" and t.type = :type");
+            params.put("type", c.getType());
+        }
+        if (c.getFrom() != null) {
+            sql.append(" and t.timestamp >= :from");
+            params.put("from", c.getFrom());
+        }
+        if (c.getTo() != null) {
+            sql.append(" and t.timestamp <= :to");
+            params.put("to", c.getTo());
+        }
+        if (c.getMinAmount() != null) {
+            sql.append(" and t.amount >= :minAmount");
+            params.put("minAmount", c.getMinAmount());
+        }
+        if (c.getMaxAmount() != null) {
+            sql.append(" and t.amount <= :maxAmount");
+            params.put("maxAmount", c.getMaxAmount());
+        }
+        if (c.getReference() != null) {
+            sql.append(" and t.reference_text like :reference");
+            params.put("reference", "%" + escapeLike(c.getReference()) + "%");
+        }
+        if (cursor != null) {
+            sql.append(" and (t.timestamp < :cursorTs or (t.timestamp = :cursorTs and t.transaction_id < :cursorId))");
+            params.put("cursorTs", cursor.timestamp());
+            params.put("cursorId", cursor.id());
+        }
+        sql.append(" order by t.timestamp desc, t.transaction_id desc");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Transaction.class)
+                .setMaxResults(size);
+        params.forEach(query::setParameter);
+
+        List<Transaction> rows;
+        long started = System.nanoTime();
+        try {
+            @SuppressWarnings("unchecked")
+            List<Transaction> result = query.getResultList();
+            rows = result;
+        } catch (RuntimeException ex) {
+            if (isTimeout(ex)) {
+                throw new BadRequestException("Search exceeded its " + maxExecutionMs
+                        + " ms budget. Narrow the date window or add an account/type filter.");
+            }
+            throw ex;
+        }
+        log.debug("transaction search plan={} rows={} took={}ms", plan, rows.size(),
+                (System.nanoTime() - started) / 1_000_000);
+
+        List<TransactionResponse> items = rows.stream()
+                .map(t -> new TransactionResponse(
+                        t.getTransactionId(),
+                        t.getAccountId(),
+                        t.getType(),
+                        t.getAmount(),
+                        t.getTimestamp(),
+                        t.getReferenceText()
+                ))
+                .toList();
+
+        String next = null;
+        if (items.size() == size) {
+            TransactionResponse last = items.get(items.size() - 1);
+            next = new Cursor(last.getTimestamp(), last.getTransactionId()).encode();
+        }
+        return new Result(new CursorPage<>(items, next), plan);
+    }
+
+    // ------------------------------------------------
+    // HELPERS
+    // ------------------------------------------------
+    private static void validate(TransactionSearchCriteria c) {
+        if (c.getAccountIds() != null && c.getAccountIds().size() > MAX_ACCOUNT_IDS) {
+            throw new BadRequestException("At most " + MAX_ACCOUNT_IDS + " account ids per search.");
+        }
+        if (c.getMinAmount() != null && c.getMaxAmount() != null && c.getMinAmount() > c.getMaxAmount()) {
+            throw new BadRequestException("minAmount must not be greater than maxAmount.");
+        }
+        if (c.getFrom() != null && c.getTo() != null && c.getFrom().isAfter(c.getTo())) {
+            throw new BadRequestException("from must not be after to.");
+        }
+    }
+
+    private static int checkLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        return limit;
+    }
+
+    // MySQL's default LIKE escape character is backslash
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean isTimeout(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLTimeoutException
+                    || (t instanceof SQLException sql && sql.getErrorCode() == MYSQL_QUERY_TIMEOUT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Keyset position: last row of the previous page (opaque base64 to clients).
+     */
+    private record Cursor(LocalDateTime timestamp, Long id) {
+
+        String encode() {
+            String raw = timestamp + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String s) {
+            if (s == null || s.isBlank()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(s.trim()), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid cursor.");
+            }
+        }
+    }
+}
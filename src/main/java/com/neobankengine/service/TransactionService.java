@@ -2,107 +2,146 @@ package com.neobankengine.service;
 
 import com.neobankengine.dto.TransactionResponse;
 import com.neobankengine.dto.AccountAnalyticsResponse;
-import com.neobankengine.entity.Account;
-import com.neobankengine.entity.Transaction;
-import com.neobankengine.entity.User;
+import com.neobankengine.dto.TransactionHistoryPage;
+import com.neobankengine.exception.BadRequestException;
+import com.neobankengine.fields.FieldSet;
+import com.neobankengine.fields.SparseRow;
 import com.neobankengine.repository.AccountRepository;
 import com.neobankengine.repository.TransactionRepository;
-import com.neobankengine.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.ByteBuffer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "neobank.service", histogram = true)
 @RequiredArgsConstructor
 public class TransactionService {
 
-    private final AccountRepository accountRepository;
-    private final UserRepository userRepository;
+    public static final int DEFAULT_HISTORY_LIMIT = 20;
+    public static final int MAX_HISTORY_LIMIT = 100;
+
     private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionHistory transactionHistory;
+    private final OwnershipService ownershipService;
 
     /**
-     * Get paginated transaction history for an account
+     * Get paginated transaction history for an account, archived months included.
+     * The total is the account's maintained counter (archived rows included), not COUNT(*).
      */
     @Transactional(readOnly = true)
     public Page<TransactionResponse> getTransactions(Long accountId, String userEmail, int page, int size) {
 
-        // Verify account exists
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RuntimeException("Account not found for this user."));
+        // Verify account exists and belongs to the caller
+        ownershipService.checkOwner(accountId, userEmail, "You are not allowed to view transactions for this account.");
 
-        // Verify user exists and is the owner
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found. Please log in again."));
+        // rows go straight into DTOs (newest first, see TransactionRepository.NEWEST_FIRST)
+        List<TransactionResponse> rows = transactionHistory.pageAt(accountId, page, size);
+        return new PageImpl<>(rows, PageRequest.of(page, size), accountRepository.findTxCountById(accountId));
+    }
 
-        if (!account.getUserId().equals(user.getId())) {
-            throw new RuntimeException("You are not allowed to view transactions for this account.");
-        }
+    /**
+     * Same page with only the requested fields selected and serialized (?fields=).
+     */
+    @Transactional(readOnly = true)
+    public Page<SparseRow> getTransactions(Long accountId, String userEmail, int page, int size,
+                                           FieldSet<TransactionResponse> fields) {
+
+        // Verify account exists and belongs to the caller
+        ownershipService.checkOwner(accountId, userEmail, "You are not allowed to view transactions for this account.");
 
-        // Pageable: Sort newest first
-        PageRequest pageable = PageRequest.of(
-                page,
-                size,
-                Sort.by(Sort.Direction.DESC, "timestamp")
-        );
-
-        // Fetch paginated data
-        Page<Transaction> txPage =
-                transactionRepository.findByAccountId(accountId, pageable);
-
-        // Convert entity → DTO using map
-        return txPage.map(t -> new TransactionResponse(
-                t.getTransactionId(),
-                t.getAccountId(),
-                t.getType(),
-                t.getAmount(),
-                t.getTimestamp(),
-                t.getReferenceText()
-        ));
+        List<SparseRow> rows = transactionHistory.pageAt(accountId, page, size, fields);
+        return new PageImpl<>(rows, PageRequest.of(page, size), accountRepository.findTxCountById(accountId));
+    }
+
+    /**
+     * Keyset-paginated history, newest first. The cursor is the (timestamp, id) of the
+     * last row of the previous page, so page 1,000 costs the same as page 1. The total
+     * comes from the account's maintained counter, not COUNT(*), and only on request.
+     */
+    @Transactional(readOnly = true)
+    public TransactionHistoryPage<TransactionResponse> getTransactionHistory(Long accountId, String userEmail,
+                                                                             String cursor, Integer limit,
+                                                                             boolean withTotal) {
+        // Verify account exists and belongs to the caller
+        ownershipService.checkOwner(accountId, userEmail, "You are not allowed to view transactions for this account.");
+
+        int size = checkHistoryLimit(limit);
+        ByteBuffer key = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
+        LocalDateTime ts = key == null ? null : cursorTimestamp(key.getLong());
+        Long id = key == null ? null : key.getLong();
+
+        List<TransactionResponse> rows = transactionHistory.pageBefore(accountId, ts, id, size);
+        // a short page means we reached the end
+        TransactionResponse last = rows.size() < size ? null : rows.get(rows.size() - 1);
+        String next = last == null ? null : encodeCursor(last.getTimestamp(), last.getTransactionId());
+        Long total = withTotal ? accountRepository.findTxCountById(accountId) : null;
+        return new TransactionHistoryPage<>(rows, next, total);
+    }
+
+    /**
+     * Same page with only the requested fields selected and serialized (?fields=); the
+     * cursor keys are read along but not returned unless asked for.
+     */
+    @Transactional(readOnly = true)
+    public TransactionHistoryPage<SparseRow> getTransactionHistory(Long accountId, String userEmail,
+                                                                   String cursor, Integer limit, boolean withTotal,
+                                                                   FieldSet<TransactionResponse> fields) {
+        // Verify account exists and belongs to the caller
+        ownershipService.checkOwner(accountId, userEmail, "You are not allowed to view transactions for this account.");
+
+        int size = checkHistoryLimit(limit);
+        ByteBuffer key = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
+        LocalDateTime ts = key == null ? null : cursorTimestamp(key.getLong());
+        Long id = key == null ? null : key.getLong();
+
+        List<SparseRow> rows = transactionHistory.pageBefore(accountId, ts, id, size, fields);
+        // keys follow the requested fields (TransactionFieldsRepository.KEYSET_COLUMNS)
+        SparseRow last = rows.size() < size ? null : rows.get(rows.size() - 1);
+        String next = last == null ? null
+                : encodeCursor((LocalDateTime) last.value(fields.size()), (Long) last.value(fields.size() + 1));
+        Long total = withTotal ? accountRepository.findTxCountById(accountId) : null;
+        return new TransactionHistoryPage<>(rows, next, total);
     }
 
     /**
      * Get last N transactions (mini statement)
      */
     @Transactional(readOnly = true)
-    public java.util.List<TransactionResponse> getLastNTransactions(Long accountId, String userEmail, int limit) {
+    public List<TransactionResponse> getLastNTransactions(Long accountId, String userEmail, int limit) {
 
-        // Verify account exists
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
+        // Verify account exists and belongs to the caller
+        ownershipService.checkOwner(accountId, userEmail, "Access denied");
 
-        // Verify user exists and own account
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return transactionRepository.findLatestByAccountId(accountId, PageRequest.of(0, limit));
+    }
 
-        if (!account.getUserId().equals(user.getId())) {
-            throw new RuntimeException("Access denied");
-        }
+    /**
+     * Last N transactions with only the requested fields (?fields=).
+     */
+    @Transactional(readOnly = true)
+    public List<SparseRow> getLastNTransactions(Long accountId, String userEmail, int limit,
+                                                FieldSet<TransactionResponse> fields) {
+
+        // Verify account exists and belongs to the caller
+        ownershipService.checkOwner(accountId, userEmail, "Access denied");
 
-        PageRequest pageable = PageRequest.of(
-                0,
-                limit,
-                Sort.by(Sort.Direction.DESC, "timestamp")
-        );
-
-        return transactionRepository.findByAccountId(accountId, pageable)
-                .map(t -> new TransactionResponse(
-                        t.getTransactionId(),
-                        t.getAccountId(),
-                        t.getType(),
-                        t.getAmount(),
-                        t.getTimestamp(),
-                        t.getReferenceText()
-                ))
-                .getContent();
+        return transactionRepository.findSparseLatest(accountId, fields, limit);
     }
 
     /**
@@ -111,48 +150,118 @@ public class TransactionService {
      */
     @Transactional(readOnly = true)
     public List<TransactionResponse> getTransactionsForStatement(Long accountId, String userEmail, LocalDate from, LocalDate to) {
-        // Verify account exists
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
+        // Verify account exists and belongs to the caller
+        ownershipService.checkOwner(accountId, userEmail, "Access denied");
+
+        LocalDateTime fromDt = (from == null) ? null : from.atStartOfDay();
+        LocalDateTime toDt = (to == null) ? null : to.atTime(LocalTime.MAX);
+
+        // live table + archived months, newest first
+        try (Stream<TransactionResponse> rows = transactionHistory.streamForStatement(accountId, fromDt, toDt)) {
+            return rows.collect(Collectors.toList());
+        }
+    }
 
-        // Verify user exists and is the owner
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    /**
+     * Streaming variant of getTransactionsForStatement for large exports.
+     * Ownership is checked before the consumer runs, so nothing has been written
+     * to the response if access is denied. The stream is backed by a DB cursor (then
+     * archived months, see TransactionHistory) and is only valid inside the consumer
+     * (the transaction stays open until it returns).
+     */
+    @Transactional(readOnly = true)
+    public void streamTransactionsForStatement(Long accountId,
+                                               String userEmail,
+                                               LocalDate from,
+                                               LocalDate to,
+                                               Consumer<Stream<TransactionResponse>> consumer) {
+        // Verify account exists and belongs to the caller
+        ownershipService.checkOwner(accountId, userEmail, "Access denied");
 
-        if (!account.getUserId().equals(user.getId())) {
-            throw new RuntimeException("Access denied");
+        LocalDateTime fromDt = (from == null) ? null : from.atStartOfDay();
+        LocalDateTime toDt = (to == null) ? null : to.atTime(LocalTime.MAX);
+
+        try (Stream<TransactionResponse> rows = transactionHistory.streamForStatement(accountId, fromDt, toDt)) {
+            consumer.accept(rows);
         }
+    }
+
+    /**
+     * Streaming statement with only the requested fields selected (?fields=).
+     */
+    @Transactional(readOnly = true)
+    public void streamTransactionsForStatement(Long accountId,
+                                               String userEmail,
+                                               LocalDate from,
+                                               LocalDate to,
+                                               FieldSet<TransactionResponse> fields,
+                                               Consumer<Stream<SparseRow>> consumer) {
+        // Verify account exists and belongs to the caller
+        ownershipService.checkOwner(accountId, userEmail, "Access denied");
 
         LocalDateTime fromDt = (from == null) ? null : from.atStartOfDay();
         LocalDateTime toDt = (to == null) ? null : to.atTime(LocalTime.MAX);
 
-        List<Transaction> txs;
-
-        if (fromDt == null && toDt == null) {
-            // all transactions, newest first
-            txs = transactionRepository.findByAccountIdOrderByTimestampDesc(accountId);
-        } else if (fromDt != null && toDt != null) {
-            txs = transactionRepository.findByAccountIdAndTimestampBetweenOrderByTimestampDesc(accountId, fromDt, toDt);
-        } else if (fromDt != null) {
-            txs = transactionRepository.findByAccountIdAndTimestampAfterOrderByTimestampDesc(accountId, fromDt);
-        } else { // toDt != null
-            txs = transactionRepository.findByAccountIdAndTimestampBeforeOrderByTimestampDesc(accountId, toDt);
+        try (Stream<SparseRow> rows = transactionHistory.streamForStatement(accountId, fromDt, toDt, fields)) {
+            consumer.accept(rows);
         }
+    }
 
-        return txs.stream()
-                .map(t -> new TransactionResponse(
-                        t.getTransactionId(),
-                        t.getAccountId(),
-                        t.getType(),
-                        t.getAmount(),
-                        t.getTimestamp(),
-                        t.getReferenceText()
-                ))
-                .collect(Collectors.toList());
+    /**
+     * Latest transaction id in the statement range (null if empty), after the usual
+     * ownership checks. Used to key cached statement files.
+     */
+    @Transactional(readOnly = true)
+    public Long getLatestTransactionIdForStatement(Long accountId, String userEmail, LocalDate from, LocalDate to) {
+        // Verify account exists and belongs to the caller
+        ownershipService.checkOwner(accountId, userEmail, "Access denied");
+
+        LocalDateTime fromDt = (from == null) ? null : from.atStartOfDay();
+        LocalDateTime toDt = (to == null) ? null : to.atTime(LocalTime.MAX);
+
+        return transactionRepository.findLatestTransactionId(accountId, fromDt, toDt);
+    }
+
+    // ------------------------------------------------
+    // HISTORY CURSOR
+    // base64url of (timestamp as UTC epoch micros, transaction id)
+    // ------------------------------------------------
+    private static int checkHistoryLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_HISTORY_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_HISTORY_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_HISTORY_LIMIT + ".");
+        }
+        return limit;
+    }
+
+    private static String encodeCursor(LocalDateTime ts, Long id) {
+        long micros = ts.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + ts.getNano() / 1000;
+        ByteBuffer key = ByteBuffer.allocate(16).putLong(micros).putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.array());
+    }
+
+    private static LocalDateTime cursorTimestamp(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
     }
+
+    private static ByteBuffer decodeCursor(String cursor) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor.trim());
+            if (bytes.length == 16) {
+                return ByteBuffer.wrap(bytes);
+            }
+        } catch (IllegalArgumentException ignored) {
+            // fall through
+        }
+        throw new BadRequestException("Invalid cursor.");
+    }
+
     /**
      * Simple analytics for an account over an optional date range.
-     * Uses the same ownership checks as getTransactionsForStatement.
+     * Uses the same ownership checks and rows as getTransactionsForStatement.
      */
     @Transactional(readOnly = true)
     public AccountAnalyticsResponse getAnalytics(
@@ -161,22 +270,28 @@ public class TransactionService {
             LocalDate from,
             LocalDate to
     ) {
-        // Reuse existing statement logic (it already checks account & user)
-        var txs = getTransactionsForStatement(accountId, userEmail, from, to);
+        // Verify account exists and belongs to the caller
+        ownershipService.checkOwner(accountId, userEmail, "Access denied");
+
+        LocalDateTime fromDt = (from == null) ? null : from.atStartOfDay();
+        LocalDateTime toDt = (to == null) ? null : to.atTime(LocalTime.MAX);
 
         double totalCredits = 0.0;
         double totalDebits = 0.0;
         long creditCount = 0L;
         long debitCount = 0L;
 
-        for (TransactionResponse t : txs) {
-            double amt = t.getAmount() == null ? 0.0 : t.getAmount();
-            if ("CREDIT".equalsIgnoreCase(t.getType())) {
-                totalCredits += amt;
-                creditCount++;
-            } else if ("DEBIT".equalsIgnoreCase(t.getType())) {
-                totalDebits += amt;
-                debitCount++;
+        // same rows as the statement, folded as they stream in instead of collected first
+        try (Stream<TransactionResponse> rows = transactionHistory.streamForStatement(accountId, fromDt, toDt)) {
+            for (TransactionResponse t : (Iterable<TransactionResponse>) rows::iterator) {
+                double amt = t.getAmount() == null ? 0.0 : t.getAmount();
+                if ("CREDIT".equalsIgnoreCase(t.getType())) {
+                    totalCredits += amt;
+                    creditCount++;
+                } else if ("DEBIT".equalsIgnoreCase(t.getType())) {
+                    totalDebits += amt;
+                    debitCount++;
+                }
             }
         }
 
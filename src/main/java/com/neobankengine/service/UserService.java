@@ -1,12 +1,13 @@
 package com.neobankengine.service;
 
+import com.neobankengine.dto.LoginResponse;
 import com.neobankengine.dto.UserRegisterRequest;
 import com.neobankengine.entity.User;
 import com.neobankengine.exception.BadRequestException;
 import com.neobankengine.exception.ConflictException;
+import com.neobankengine.exception.ForbiddenException;
 import com.neobankengine.exception.ResourceNotFoundException;
 import com.neobankengine.repository.UserRepository;
-import com.neobankengine.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -17,7 +18,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
 
     /**
      * Register a new user.
@@ -46,7 +47,8 @@ public class UserService {
      * Throws ResourceNotFoundException or BadRequestException on failure.
      */
     public String login(String email, String password) {
-        User user = userRepository.findByEmail(email)
+        // password and status as of now, not a cached copy from before a change on another node
+        User user = userRepository.findFreshByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found!"));
 
         if (!passwordEncoder.matches(password, user.getPassword())) {
@@ -57,19 +59,24 @@ public class UserService {
     }
 
     /**
-     * Login and return JWT token.
+     * Login and return a short-lived JWT plus a refresh token.
      * Throws ResourceNotFoundException or BadRequestException on failure.
      */
-    public String loginAndGetToken(String email, String password) {
-        User user = userRepository.findByEmail(email)
+    public LoginResponse loginAndGetTokens(String email, String password) {
+        User user = userRepository.findFreshByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found!"));
 
         if (!passwordEncoder.matches(password, user.getPassword())) {
             throw new BadRequestException("Invalid password!");
         }
 
-        // include email as subject in token; JwtUtil handles signing
-        return jwtUtil.generateToken(user.getEmail());
+        // tokens are trusted without a user lookup, so never issue one to a deactivated user
+        if (Boolean.FALSE.equals(user.getStatus())) {
+            throw new ForbiddenException("Your account has been deactivated.");
+        }
+
+        // email as subject plus uid/role/status version claims; the refresh token starts a new session
+        return refreshTokenService.issue(user);
     }
 
 }
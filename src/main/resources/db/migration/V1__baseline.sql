@@ -0,0 +1,80 @@
+-- Baseline: the schema as Hibernate's ddl-auto=update created it (MySQL 8, InnoDB).
+-- Databases that already have these tables are baselined at version 1 and skip this
+-- script (spring.flyway.baseline-on-migrate). Constraint names are Hibernate's, so both
+-- kinds of database end up identical.
+
+create table user (
+    status bit,
+    status_version integer,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    name varchar(255),
+    password varchar(255),
+    role varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+alter table user
+    add constraint UKob8kqyqqgmefl0aco34akdtpe unique (email);
+
+create table account (
+    balance float(53),
+    account_id bigint not null auto_increment,
+    created_at datetime(6),
+    user_id bigint,
+    status varchar(255),
+    primary key (account_id)
+) engine=InnoDB;
+
+create table transaction (
+    amount float(53),
+    account_id bigint,
+    timestamp datetime(6),
+    transaction_id bigint not null auto_increment,
+    reference_text varchar(255),
+    type varchar(255),
+    primary key (transaction_id)
+) engine=InnoDB;
+
+create index idx_tx_account_ts on transaction (account_id, timestamp);
+create index idx_tx_ts_amount on transaction (timestamp, amount);
+create index idx_tx_type_ts on transaction (type, timestamp);
+
+create table notification (
+    read_flag bit not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    message varchar(2000),
+    meta varchar(2000),
+    title varchar(255),
+    type varchar(255),
+    user_email varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table refresh_token (
+    revoked bit not null,
+    created_at datetime(6),
+    expires_at datetime(6) not null,
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    family_id varchar(36) not null,
+    token_hash varchar(64) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table refresh_token
+    add constraint UKkdj16cltjxdksuyiosdhliveg unique (token_hash);
+
+create index idx_refresh_family on refresh_token (family_id);
+
+create table revoked_token (
+    expires_at datetime(6) not null,
+    revoked_at datetime(6) not null,
+    user_id bigint,
+    jti varchar(36) not null,
+    primary key (jti)
+) engine=InnoDB;
+
+create index idx_revoked_at on revoked_token (revoked_at);
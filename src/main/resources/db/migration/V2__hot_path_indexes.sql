@@ -0,0 +1,12 @@
+-- Indexes for the per-request finders that ddl-auto never created.
+-- transaction(account_id, timestamp) already exists as idx_tx_account_ts (V1).
+
+-- AccountRepository.findByUserId, admin listing filter on userId
+create index idx_account_user on account (user_id);
+
+-- NotificationRepository.countByUserEmailAndReadFlagFalse
+-- NotificationRepository.findByUserEmailAndReadFlagFalseOrderByCreatedAtDesc
+create index idx_notif_user_read_created on notification (user_email, read_flag, created_at);
+
+-- NotificationRepository.findByUserEmailOrderByCreatedAtDesc (all flags, newest first, no filesort)
+create index idx_notif_user_created on notification (user_email, created_at);
@@ -0,0 +1,7 @@
+-- one row per application node; written on the primary, read back on the replica
+-- to measure how far behind it is (see ReplicaLagMonitor)
+create table replica_heartbeat (
+    node_id varchar(36) not null,
+    beat_ms bigint not null,
+    primary key (node_id)
+) engine=InnoDB;
@@ -0,0 +1,7 @@
+-- Number of transactions ever posted to the account, maintained by the money paths in the
+-- same transaction as the balance (the row is locked there). Serves the optional total of
+-- the cursor-paginated history without a COUNT(*) over the account's rows.
+alter table account add column tx_count bigint not null default 0;
+
+update account a
+set a.tx_count = (select count(*) from transaction t where t.account_id = a.account_id);
@@ -0,0 +1,8 @@
+-- When the user's status last changed (with status_version). UserStatusRegistry polls
+-- the users changed since its last sync, so deactivations made on another node reach
+-- every node within one sync interval.
+alter table user add column status_changed_at datetime(6);
+
+update user set status_changed_at = now(6) where status_version > 0;
+
+create index idx_user_status_changed on user (status_changed_at);
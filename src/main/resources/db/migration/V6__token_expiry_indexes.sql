@@ -0,0 +1,8 @@
+-- The scheduled cleanups delete by expiry. Without an index each DELETE scans, and
+-- locks, every row of the table while logins and refreshes write to it.
+
+-- RefreshTokenRepository.deleteExpired
+create index idx_refresh_expires on refresh_token (expires_at);
+
+-- RevokedTokenRepository.deleteExpired
+create index idx_revoked_expires on revoked_token (expires_at);
@@ -0,0 +1,196 @@
+package com.neobankengine.archive;
+
+import com.neobankengine.dto.TransactionResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionSegmentTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 3);
+    private static final LocalDateTime START = MONTH.atDay(1).atStartOfDay();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rowsRoundTripAcrossBlocks() throws IOException {
+        // account 20 straddles the first block boundary, account 30 spans whole blocks
+        List<TransactionResponse> rows = new ArrayList<>();
+        rows.addAll(rows(10, 1, 700));
+        rows.addAll(rows(20, 10_000, 700));
+        rows.addAll(rows(30, 20_000, 2_500));
+        Path file = write(rows);
+
+        try (TransactionSegment seg = TransactionSegment.open(file, MONTH)) {
+            assertThat(seg.getMonth()).isEqualTo(MONTH);
+            assertThat(seg.getRowCount()).isEqualTo(3_900);
+            assertThat(seg.getSizeBytes()).isEqualTo(Files.size(file));
+            assertThat(seg.rowsFor(10, null, null)).isEqualTo(rows.subList(0, 700));
+            assertThat(seg.rowsFor(20, null, null)).isEqualTo(rows.subList(700, 1_400));
+            assertThat(seg.rowsFor(30, null, null)).isEqualTo(rows.subList(1_400, 3_900));
+        }
+    }
+
+    @Test
+    void nullableFieldsAndTimestampPrecisionSurvive() throws IOException {
+        List<TransactionResponse> rows = List.of(
+                new TransactionResponse(1L, 5L, null, null, LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000), null),
+                new TransactionResponse(2L, 5L, "CREDIT", -0.0, START.plusNanos(1_000), "Überweisung – März"),
+                new TransactionResponse(3L, 5L, "DEBIT", 12.34, START.plusNanos(999_999_000), ""));
+
+        try (TransactionSegment seg = TransactionSegment.open(write(rows), MONTH)) {
+            assertThat(seg.rowsFor(5, null, null)).isEqualTo(rows);
+        }
+    }
+
+    @Test
+    void rowsForAppliesInclusiveTimeBounds() throws IOException {
+        List<TransactionResponse> rows = rows(7, 1, 100); // one row per minute
+        try (TransactionSegment seg = TransactionSegment.open(write(rows), MONTH)) {
+            assertThat(seg.rowsFor(7, START.plusMinutes(10), START.plusMinutes(19))).isEqualTo(rows.subList(10, 20));
+            assertThat(seg.rowsFor(7, START.plusMinutes(95), null)).isEqualTo(rows.subList(95, 100));
+            assertThat(seg.rowsFor(7, null, START.plusMinutes(2))).isEqualTo(rows.subList(0, 3));
+            assertThat(seg.rowsFor(7, START.plusDays(1), null)).isEmpty();
+        }
+    }
+
+    @Test
+    void absentAccountsHaveNoRows() throws IOException {
+        List<TransactionResponse> rows = new ArrayList<>();
+        rows.addAll(rows(10, 1, 1_500));
+        rows.addAll(rows(30, 10_000, 1_500));
+        try (TransactionSegment seg = TransactionSegment.open(write(rows), MONTH)) {
+            assertThat(seg.rowsFor(1, null, null)).isEmpty();
+            assertThat(seg.rowsFor(20, null, null)).isEmpty();
+            assertThat(seg.rowsFor(31, null, null)).isEmpty();
+        }
+    }
+
+    @Test
+    void forEachInRangeVisitsOnlyThoseAccountsInFileOrder() throws IOException {
+        List<TransactionResponse> rows = new ArrayList<>();
+        for (long account = 1; account <= 50; account++) {
+            rows.addAll(rows(account, account * 1_000, 60));
+        }
+        try (TransactionSegment seg = TransactionSegment.open(write(rows), MONTH)) {
+            List<TransactionResponse> seen = new ArrayList<>();
+            seg.forEachInRange(17, 33, seen::add);
+            assertThat(seen).isEqualTo(rows.subList(16 * 60, 33 * 60));
+        }
+    }
+
+    @Test
+    void emptySegmentIsValid() throws IOException {
+        try (TransactionSegment seg = TransactionSegment.open(write(List.of()), MONTH)) {
+            assertThat(seg.getRowCount()).isZero();
+            assertThat(seg.rowsFor(1, null, null)).isEmpty();
+        }
+    }
+
+    @Test
+    void writerRejectsUnsortedRowsAndRowsWithoutAccountOrTimestamp() throws IOException {
+        try (TransactionSegment.Writer w = TransactionSegment.writer(dir.resolve("bad.seg"))) {
+            w.add(row(2, 1, START.plusMinutes(5)));
+            assertThatThrownBy(() -> w.add(row(1, 2, START.plusMinutes(6))))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> w.add(row(2, 3, START)))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> w.add(new TransactionResponse(4L, null, "CREDIT", 1.0, START, null)))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> w.add(new TransactionResponse(5L, 3L, "CREDIT", 1.0, null, null)))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(w.getRowCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void corruptBlockFailsItsCrcCheck() throws IOException {
+        List<TransactionResponse> rows = new ArrayList<>();
+        rows.addAll(rows(10, 1, 1_500));
+        rows.addAll(rows(30, 10_000, 1_500));
+        Path file = write(rows);
+        flipByte(file, 8 + 20); // inside the first block (after the 8-byte header)
+
+        try (TransactionSegment seg = TransactionSegment.open(file, MONTH)) {
+            assertThatThrownBy(() -> seg.rowsFor(10, null, null))
+                    .isInstanceOf(UncheckedIOException.class)
+                    .hasMessageContaining("Corrupt block 0");
+            // other blocks are still readable
+            assertThat(seg.rowsFor(30, null, null)).isEqualTo(rows.subList(1_500, 3_000));
+        }
+    }
+
+    @Test
+    void truncatedOrForeignFilesAreRejected() throws IOException {
+        Path file = write(rows(10, 1, 100));
+        byte[] bytes = Files.readAllBytes(file);
+
+        Path truncated = dir.resolve("truncated.seg");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThatThrownBy(() -> TransactionSegment.open(truncated, MONTH)).isInstanceOf(IOException.class);
+
+        Path badHeader = dir.resolve("header.seg");
+        Files.write(badHeader, bytes);
+        flipByte(badHeader, 0);
+        assertThatThrownBy(() -> TransactionSegment.open(badHeader, MONTH))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("bad magic");
+
+        Path tiny = dir.resolve("tiny.seg");
+        Files.write(tiny, new byte[10]);
+        assertThatThrownBy(() -> TransactionSegment.open(tiny, MONTH))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Not a transaction segment");
+    }
+
+    // ------------------------------------------------
+
+    private Path write(List<TransactionResponse> rows) throws IOException {
+        Path file = Files.createTempFile(dir, "segment", ".seg");
+        try (TransactionSegment.Writer w = TransactionSegment.writer(file)) {
+            for (TransactionResponse r : rows) {
+                w.add(r);
+            }
+            w.finish();
+        }
+        return file;
+    }
+
+    // count rows of one account, one minute apart, ids from firstId
+    private static List<TransactionResponse> rows(long account, long firstId, int count) {
+        List<TransactionResponse> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            out.add(row(account, firstId + i, START.plusMinutes(i)));
+        }
+        return out;
+    }
+
+    private static TransactionResponse row(long account, long id, LocalDateTime ts) {
+        return new TransactionResponse(id, account, id % 2 == 0 ? "CREDIT" : "DEBIT", id * 1.25, ts, "ref " + id);
+    }
+
+    private static void flipByte(Path file, long position) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            ch.read(b, position);
+            b.put(0, (byte) ~b.get(0));
+            ch.write(b.rewind(), position);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.neobankengine.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.PropertyNamingStrategies;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.Map;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpEncodingConfigTest {
+
+    public record Row(String referenceText, String type) {
+    }
+
+    @Test
+    void smileMapperGetsTheJsonMappersSettings() {
+        JsonMapper json = JsonMapper.builder()
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .changeDefaultPropertyInclusion(incl -> incl.withValueInclusion(JsonInclude.Include.NON_NULL))
+                .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .defaultTimeZone(TimeZone.getTimeZone("Europe/Berlin"))
+                .build();
+
+        SmileMapper smile = HttpEncodingConfig.configuredLike(json, SmileMapper.builder()).build();
+
+        assertThat(smile.serializationConfig().getPropertyNamingStrategy()).isSameAs(PropertyNamingStrategies.SNAKE_CASE);
+        assertThat(smile.serializationConfig().isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)).isTrue();
+        assertThat(smile.serializationConfig().getTimeZone().getID()).isEqualTo("Europe/Berlin");
+
+        byte[] bytes = smile.writeValueAsBytes(new Row("rent", null));
+        assertThat(smile.readValue(bytes, Map.class)).isEqualTo(Map.of("reference_text", "rent"));
+    }
+
+    @Test
+    void defaultsStayDefaults() {
+        SmileMapper smile = HttpEncodingConfig.configuredLike(JsonMapper.builder().build(), SmileMapper.builder()).build();
+        SmileMapper plain = SmileMapper.builder().build();
+
+        byte[] bytes = smile.writeValueAsBytes(new Row("rent", null));
+        assertThat(bytes).isEqualTo(plain.writeValueAsBytes(new Row("rent", null)));
+        assertThat(smile.serializationConfig().hasExplicitTimeZone()).isFalse();
+    }
+}
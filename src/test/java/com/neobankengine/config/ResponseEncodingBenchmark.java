@@ -0,0 +1,114 @@
+package com.neobankengine.config;
+
+import com.neobankengine.dto.TransactionResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+import tools.jackson.dataformat.smile.SmileWriteFeature;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes on the wire and serialization CPU for a 10k-row transaction history in each
+ * negotiated format, with and without gzip (what server.compression adds above its
+ * threshold). The mappers are configured as in {@link HttpEncodingConfig}. Sizes are
+ * printed once per fork; the score is the time to produce the response body.
+ *
+ * Run with {@code mvn test -Pbenchmark -Dtest=ResponseEncodingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseEncodingBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectMapper mapper;
+    private List<TransactionResponse> rows;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonMapper json = JsonMapper.builder().build();
+        mapper = switch (format) {
+            case "json" -> json;
+            case "cbor" -> CBORMapper.builder()
+                    .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            case "smile" -> HttpEncodingConfig.configuredLike(json, SmileMapper.builder())
+                    .enable(SmileWriteFeature.CHECK_SHARED_STRING_VALUES)
+                    .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            default -> throw new IllegalArgumentException(format);
+        };
+        rows = history();
+        System.out.printf("%n%s%s: %,d bytes for %,d rows%n", format, gzip ? "+gzip" : "", encode().length, ROWS);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(1 << 20);
+        try (OutputStream out = gzip ? new GZIPOutputStream(body) : body) {
+            mapper.writeValue(out, rows);
+        }
+        return body.toByteArray();
+    }
+
+    // one account's history: amounts in cents, a few recurring references, microsecond timestamps
+    private static List<TransactionResponse> history() {
+        Random random = new Random(1);
+        LocalDateTime start = LocalDateTime.of(2025, 10, 1, 9, 0);
+        List<TransactionResponse> out = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            out.add(new TransactionResponse(1_000_000L + i, 42L,
+                    random.nextBoolean() ? "CREDIT" : "DEBIT",
+                    Math.round(random.nextDouble() * 500_000) / 100.0,
+                    start.plusSeconds(i * 97L + random.nextInt(60)).plusNanos(random.nextInt(1_000_000) * 1_000L),
+                    switch (i % 3) {
+                        case 0 -> "Transfer to account 17";
+                        case 1 -> null;
+                        default -> "ATM withdrawal";
+                    }));
+        }
+        return out;
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder().include(getClass().getName()).build()).run();
+    }
+}
@@ -0,0 +1,63 @@
+package com.neobankengine.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalGetTest {
+
+    private final ConditionalGet conditionalGet = new ConditionalGet(new ContentNegotiationManager());
+
+    @Test
+    void acceptHeaderSelectsTheFormat() {
+        assertThat(format(null)).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(format("*/*")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(format("application/cbor")).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(format("application/x-jackson-smile")).isEqualTo(ConditionalGet.SMILE);
+        assertThat(format("application/json;q=0.5, application/cbor")).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(format("application/cbor;q=0, */*")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(format("text/html")).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void etagDiffersPerFormatAndResponsesVaryOnAccept() {
+        MockHttpServletResponse json = new MockHttpServletResponse();
+        MockHttpServletResponse cbor = new MockHttpServletResponse();
+        assertThat(conditionalGet.notModified(request("application/json", null, json), "a1-5")).isFalse();
+        assertThat(conditionalGet.notModified(request("application/cbor", null, cbor), "a1-5")).isFalse();
+
+        String jsonTag = json.getHeader(HttpHeaders.ETAG);
+        String cborTag = cbor.getHeader(HttpHeaders.ETAG);
+        assertThat(jsonTag).isNotEqualTo(cborTag);
+        assertThat(json.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT);
+
+        // the JSON tag revalidates JSON only
+        MockHttpServletResponse revalidated = new MockHttpServletResponse();
+        assertThat(conditionalGet.notModified(request("application/json", jsonTag, revalidated), "a1-5")).isTrue();
+        assertThat(revalidated.getStatus()).isEqualTo(304);
+        assertThat(revalidated.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT);
+        assertThat(conditionalGet.notModified(request("application/cbor", jsonTag, new MockHttpServletResponse()), "a1-5"))
+                .isFalse();
+    }
+
+    private MediaType format(String accept) {
+        return conditionalGet.format(request(accept, null, new MockHttpServletResponse()));
+    }
+
+    private static ServletWebRequest request(String accept, String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts/1/balance");
+        if (accept != null) {
+            request.addHeader(HttpHeaders.ACCEPT, accept);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+}
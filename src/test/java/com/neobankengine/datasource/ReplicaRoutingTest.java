@@ -0,0 +1,92 @@
+package com.neobankengine.datasource;
+
+import com.neobankengine.security.JwtPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingTest {
+
+    private final ReplicaRouting routing =
+            new ReplicaRouting("jdbc:mysql://replica/db", 1_000, new SimpleMeterRegistry());
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void lagBeyondToleranceUsesPrimary() {
+        long now = System.currentTimeMillis();
+        routing.replicaFreshAsOf(now - 5_000);
+        assertThat(routing.replicaAllowed(null, 0, now)).isFalse();
+
+        routing.replicaFreshAsOf(now - 200);
+        assertThat(routing.replicaAllowed(null, 0, now)).isTrue();
+    }
+
+    @Test
+    void writeCookieFromAnotherNodeKeepsReadsOnPrimaryUntilReplicaHasIt() {
+        long now = System.currentTimeMillis();
+        routing.replicaFreshAsOf(now - 200);
+
+        assertThat(routing.replicaAllowed(7L, now - 100, now)).isFalse();
+        assertThat(routing.replicaAllowed(7L, now - 300, now)).isTrue();
+
+        routing.replicaFreshAsOf(now - 50);
+        assertThat(routing.replicaAllowed(7L, now - 100, now)).isTrue();
+    }
+
+    @Test
+    void futureCookieCountsAsNow() {
+        long now = System.currentTimeMillis();
+        routing.replicaFreshAsOf(now);
+        assertThat(routing.replicaAllowed(7L, Long.MAX_VALUE, now)).isTrue();
+    }
+
+    @Test
+    void writeSetsCookieThatRoutesTheNextRequestToPrimary() {
+        routing.replicaFreshAsOf(System.currentTimeMillis() - 200);
+        authenticate(7L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+
+        routing.markWriteAfterCommit(); // no transaction: recorded immediately
+
+        String setCookie = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertThat(setCookie).startsWith(ReplicaRouting.LAST_WRITE_COOKIE + "=").contains("HttpOnly");
+
+        // the next request reaches a node that never saw the write
+        ReplicaRouting otherNode = new ReplicaRouting("jdbc:mysql://replica/db", 1_000, new SimpleMeterRegistry());
+        otherNode.replicaFreshAsOf(System.currentTimeMillis() - 200);
+        MockHttpServletRequest next = new MockHttpServletRequest();
+        next.setCookies(new Cookie(ReplicaRouting.LAST_WRITE_COOKIE, response.getCookie(ReplicaRouting.LAST_WRITE_COOKIE).getValue()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(next, new MockHttpServletResponse()));
+
+        assertThat(otherNode.useReplica()).isFalse();
+
+        next.setCookies(new Cookie(ReplicaRouting.LAST_WRITE_COOKIE, "garbage"));
+        assertThat(otherNode.useReplica()).isTrue();
+    }
+
+    private static void authenticate(long userId) {
+        JwtPrincipal principal = new JwtPrincipal("user@example.com", userId, "USER", 0,
+                Instant.now().plusSeconds(900), "jti");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+}
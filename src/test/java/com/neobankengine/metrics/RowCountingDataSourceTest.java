@@ -0,0 +1,75 @@
+package com.neobankengine.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RowCountingDataSourceTest {
+
+    private final Connection connection = mock(Connection.class);
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+        dataSource = new RowCountingDataSource(target);
+        RequestSqlCounters.reset();
+    }
+
+    @Test
+    void countsEveryRowReadFromPreparedAndPlainStatements() throws SQLException {
+        PreparedStatement prepared = mock(PreparedStatement.class);
+        ResultSet threeRows = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString())).thenReturn(prepared);
+        when(prepared.executeQuery()).thenReturn(threeRows);
+        when(threeRows.next()).thenReturn(true, true, true, false);
+
+        Statement plain = mock(Statement.class);
+        ResultSet oneRow = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(plain);
+        when(plain.execute(anyString())).thenReturn(true);
+        when(plain.getResultSet()).thenReturn(oneRow);
+        when(oneRow.next()).thenReturn(true, false);
+
+        try (Connection c = dataSource.getConnection()) {
+            PreparedStatement ps = c.prepareStatement("select 1");
+            assertThat(ps).isInstanceOf(PreparedStatement.class);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                rs.getLong(1);
+            }
+            Statement s = c.createStatement();
+            s.execute("select 1");
+            ResultSet rs2 = s.getResultSet();
+            while (rs2.next()) {
+                rs2.getLong(1);
+            }
+        }
+
+        assertThat(RequestSqlCounters.rowsFetched()).isEqualTo(4);
+    }
+
+    @Test
+    void driverExceptionsPassThroughUnwrapped() throws SQLException {
+        when(connection.prepareStatement(anyString())).thenThrow(new SQLException("boom"));
+
+        Connection c = dataSource.getConnection();
+        assertThatThrownBy(() -> c.prepareStatement("select 1"))
+                .isExactlyInstanceOf(SQLException.class)
+                .hasMessage("boom");
+        assertThat(RequestSqlCounters.rowsFetched()).isZero();
+    }
+}
@@ -0,0 +1,444 @@
+package com.neobankengine.repository;
+
+import com.neobankengine.dto.NotificationDto;
+import com.neobankengine.dto.TransactionResponse;
+import com.neobankengine.fields.FieldSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mysql.MySQLContainer;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every derived and {@code @Query} finder of the repositories, run against MySQL with the
+ * Flyway schema (Hibernate only validates it) and a seeded, analyzed data set: each SQL
+ * statement a finder executes is replayed with its bound values as {@code EXPLAIN}, and
+ * a full table scan ({@code type=ALL}) fails the finder. Queries that read (nearly) a
+ * whole table by design are listed in {@link #WHOLE_TABLE} with the reason.
+ *
+ * Needs Docker; skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // seed data is committed once; each finder rolls back
+class RepositoryQueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer MYSQL = new MySQLContainer("mysql:8.4");
+
+    private static final int USERS = 1_000;
+    private static final int ACCOUNTS = 10_000;
+    private static final int TX_PER_ACCOUNT = 20;
+    private static final int NOTIFICATIONS = 20_000;
+    private static final int REFRESH_TOKENS = 20_000;
+    private static final int REVOKED_TOKENS = 10_000;
+
+    private static final long USER = 424L;
+    private static final String EMAIL = "user424@example.com";
+    private static final long ACCOUNT = 4242L;
+    private static final LocalDateTime MONTH_START = LocalDateTime.of(2025, 3, 1, 0, 0);
+    private static final LocalDateTime MONTH_END = LocalDateTime.of(2025, 4, 1, 0, 0);
+    private static final LocalDateTime SINCE = LocalDateTime.of(2025, 12, 1, 0, 0);
+    private static final LocalDateTime CLEANUP_NOW = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final Pageable LIMIT = PageRequest.of(0, 50);
+
+    private static final FieldSet<TransactionResponse> TX_FIELDS = TransactionResponse.FIELDS.parse("transactionId,amount");
+    private static final FieldSet<NotificationDto> NOTIFICATION_FIELDS = NotificationDto.FIELDS.parse("id,title");
+
+    // the repository interfaces whose query methods must all appear in FINDERS
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            AccountRepository.class, TransactionRepository.class, TransactionFieldsRepository.class,
+            UserRepository.class, UserNaturalIdRepository.class, NotificationRepository.class,
+            NotificationFieldsRepository.class, RefreshTokenRepository.class, RevokedTokenRepository.class);
+
+    // finders allowed a full scan, and why
+    private static final Map<String, String> WHOLE_TABLE = Map.of(
+            "AccountRepository.streamForExport", "admin CSV export: every account, optionally filtered",
+            "TransactionRepository.streamForExport", "admin CSV export: every transaction, optionally filtered",
+            "UserRepository.streamForExport", "admin CSV export: every user, optionally filtered",
+            "UserRepository.findByStatusVersionGreaterThan", "read once on startup to seed UserStatusRegistry",
+            "RevokedTokenRepository.findLiveJtis", "read once on startup; nearly every row is live");
+
+    // "Repository.method" or "Repository.method (variant)" -> one call of the finder
+    private static final Map<String, Consumer<RepositoryQueryPlanTest>> FINDERS = new LinkedHashMap<>();
+
+    static {
+        // ---------- accounts ----------
+        finder("AccountRepository.findByUserId", t -> t.accounts.findByUserId(USER));
+        finder("AccountRepository.findByUserIdOrderByAccountIdAsc", t -> t.accounts.findByUserIdOrderByAccountIdAsc(USER));
+        finder("AccountRepository.findByIdForUpdate", t -> t.accounts.findByIdForUpdate(ACCOUNT));
+        finder("AccountRepository.findUserIdById", t -> t.accounts.findUserIdById(ACCOUNT));
+        finder("AccountRepository.findTxCountById", t -> t.accounts.findTxCountById(ACCOUNT));
+        finder("AccountRepository.findLedgerStateById", t -> t.accounts.findLedgerStateById(ACCOUNT));
+        finder("AccountRepository.findLedgerVersionByUserId", t -> t.accounts.findLedgerVersionByUserId(USER));
+        finder("AccountRepository.findStatusById", t -> t.accounts.findStatusById(ACCOUNT));
+        finder("AccountRepository.findExistingIds", t -> t.accounts.findExistingIds(List.of(1L, ACCOUNT, 99_999_999L)));
+        finder("AccountRepository.updateStatusIn", t -> t.accounts.updateStatusIn(List.of(ACCOUNT, ACCOUNT + 1), "FROZEN"));
+        finder("AccountRepository.findByAccountIdBetweenOrderByAccountIdAsc",
+                t -> t.accounts.findByAccountIdBetweenOrderByAccountIdAsc(1L, 500L));
+        finder("AccountRepository.findMinAccountId", t -> t.accounts.findMinAccountId());
+        finder("AccountRepository.findMaxAccountId", t -> t.accounts.findMaxAccountId());
+        finder("AccountRepository.findPageAfter", t -> t.accounts.findPageAfter(0, null, null, null, null, LIMIT));
+        finder("AccountRepository.findPageAfter (filtered)",
+                t -> t.accounts.findPageAfter(ACCOUNT, "ACTIVE", USER, MONTH_START, MONTH_END, LIMIT));
+        finder("AccountRepository.streamForExport", t -> {
+            try (Stream<?> rows = t.accounts.streamForExport(null, null, null, null)) {
+                rows.findFirst();
+            }
+        });
+
+        // ---------- transactions ----------
+        finder("TransactionRepository.findByAccountIdInAndTimestampBetween",
+                t -> t.transactions.findByAccountIdInAndTimestampBetween(List.of(ACCOUNT, ACCOUNT + 1), MONTH_START, MONTH_END));
+        finder("TransactionRepository.findPageSince", t -> t.transactions.findPageSince(ACCOUNT, null, PageRequest.of(0, 5)));
+        finder("TransactionRepository.findPageSince (watermark)",
+                t -> t.transactions.findPageSince(ACCOUNT, MONTH_START, PageRequest.of(1, 5)));
+        finder("TransactionRepository.countSince", t -> t.transactions.countSince(ACCOUNT, MONTH_START));
+        finder("TransactionRepository.findLatestByAccountId", t -> t.transactions.findLatestByAccountId(ACCOUNT, PageRequest.of(0, 10)));
+        finder("TransactionRepository.findLatestByAccountIds",
+                t -> t.transactions.findLatestByAccountIds(List.of(ACCOUNT, ACCOUNT + 1, ACCOUNT + 2), 5));
+        finder("TransactionRepository.findPageBefore", t -> t.transactions.findPageBefore(ACCOUNT, null, null, null, LIMIT));
+        finder("TransactionRepository.findPageBefore (cursor)",
+                t -> t.transactions.findPageBefore(ACCOUNT, MONTH_END, Long.MAX_VALUE, MONTH_START, LIMIT));
+        finder("TransactionRepository.netAmountSince", t -> t.transactions.netAmountSince(ACCOUNT, SINCE));
+        finder("TransactionRepository.findLatestTransactionId", t -> t.transactions.findLatestTransactionId(ACCOUNT, null, null));
+        finder("TransactionRepository.findLatestTransactionId (range)",
+                t -> t.transactions.findLatestTransactionId(ACCOUNT, MONTH_START, MONTH_END));
+        finder("TransactionRepository.streamForStatement", t -> {
+            try (Stream<?> rows = t.transactions.streamForStatement(ACCOUNT, MONTH_START, MONTH_END)) {
+                rows.count();
+            }
+        });
+        finder("TransactionRepository.netAmountSinceByAccount", t -> t.transactions.netAmountSinceByAccount(1L, 500L, SINCE));
+        finder("TransactionRepository.netAmountByAccount", t -> t.transactions.netAmountByAccount(1L, 500L));
+        finder("TransactionRepository.streamForAccountRange", t -> {
+            try (Stream<?> rows = t.transactions.streamForAccountRange(1L, 500L, MONTH_START, MONTH_END)) {
+                rows.count();
+            }
+        });
+        finder("TransactionRepository.findMinTimestamp", t -> t.transactions.findMinTimestamp());
+        finder("TransactionRepository.countByTimestampGreaterThanEqualAndTimestampLessThan",
+                t -> t.transactions.countByTimestampGreaterThanEqualAndTimestampLessThan(MONTH_START, MONTH_END));
+        finder("TransactionRepository.streamForArchive", t -> {
+            try (Stream<?> rows = t.transactions.streamForArchive(MONTH_START, MONTH_END)) {
+                rows.findFirst();
+            }
+        });
+        finder("TransactionRepository.deleteOlderThan",
+                t -> t.transactions.deleteOlderThan(LocalDateTime.of(2024, 2, 1, 0, 0), 1_000));
+        finder("TransactionRepository.findPageAfter", t -> t.transactions.findPageAfter(0, null, null, null, null, LIMIT));
+        finder("TransactionRepository.findPageAfter (filtered)",
+                t -> t.transactions.findPageAfter(0, "CREDIT", ACCOUNT, MONTH_START, MONTH_END, LIMIT));
+        finder("TransactionRepository.streamForExport", t -> {
+            try (Stream<?> rows = t.transactions.streamForExport(null, null, null, null)) {
+                rows.findFirst();
+            }
+        });
+        finder("TransactionFieldsRepository.findSparsePageSince",
+                t -> t.transactions.findSparsePageSince(ACCOUNT, MONTH_START, TX_FIELDS, PageRequest.of(0, 5)));
+        finder("TransactionFieldsRepository.findSparseLatest", t -> t.transactions.findSparseLatest(ACCOUNT, TX_FIELDS, 10));
+        finder("TransactionFieldsRepository.findSparsePageBefore",
+                t -> t.transactions.findSparsePageBefore(ACCOUNT, MONTH_END, Long.MAX_VALUE, MONTH_START, TX_FIELDS, 50));
+        finder("TransactionFieldsRepository.streamSparseForStatement", t -> {
+            try (Stream<?> rows = t.transactions.streamSparseForStatement(ACCOUNT, null, null, TX_FIELDS)) {
+                rows.count();
+            }
+        });
+
+        // ---------- users ----------
+        finder("UserRepository.existsByEmail", t -> t.users.existsByEmail(EMAIL));
+        finder("UserNaturalIdRepository.findByEmail", t -> t.users.findByEmail(EMAIL));
+        finder("UserNaturalIdRepository.findFreshByEmail", t -> t.users.findFreshByEmail(EMAIL));
+        finder("UserNaturalIdRepository.findFreshById", t -> t.users.findFreshById(USER));
+        finder("UserRepository.findByStatusVersionGreaterThan", t -> t.users.findByStatusVersionGreaterThan(0));
+        finder("UserRepository.findByStatusChangedAtGreaterThanEqual",
+                t -> t.users.findByStatusChangedAtGreaterThanEqual(SINCE));
+        finder("UserRepository.findPageAfter", t -> t.users.findPageAfter(0, null, null, null, null, LIMIT));
+        finder("UserRepository.findPageAfter (filtered)",
+                t -> t.users.findPageAfter(USER, "USER", true, MONTH_START, MONTH_END, LIMIT));
+        finder("UserRepository.streamForExport", t -> {
+            try (Stream<?> rows = t.users.streamForExport(null, null, null, null)) {
+                rows.findFirst();
+            }
+        });
+
+        // ---------- notifications ----------
+        finder("NotificationRepository.findByUserEmailOrderByCreatedAtDesc",
+                t -> t.notifications.findByUserEmailOrderByCreatedAtDesc(EMAIL));
+        finder("NotificationRepository.countByUserEmailAndReadFlagFalse",
+                t -> t.notifications.countByUserEmailAndReadFlagFalse(EMAIL));
+        finder("NotificationRepository.findByUserEmailAndReadFlagFalseOrderByCreatedAtDesc",
+                t -> t.notifications.findByUserEmailAndReadFlagFalseOrderByCreatedAtDesc(EMAIL));
+        finder("NotificationFieldsRepository.findSparseByUserEmail",
+                t -> t.notifications.findSparseByUserEmail(EMAIL, false, null, NOTIFICATION_FIELDS));
+        finder("NotificationFieldsRepository.findSparseByUserEmail (unread, limit)",
+                t -> t.notifications.findSparseByUserEmail(EMAIL, true, 20, NOTIFICATION_FIELDS));
+
+        // ---------- tokens ----------
+        finder("RefreshTokenRepository.findByTokenHash", t -> t.refreshTokens.findByTokenHash(tokenHash(77)));
+        finder("RefreshTokenRepository.revokeIfActive", t -> t.refreshTokens.revokeIfActive(77L));
+        finder("RefreshTokenRepository.revokeFamily", t -> t.refreshTokens.revokeFamily(familyId(77)));
+        finder("RefreshTokenRepository.deleteExpired", t -> t.refreshTokens.deleteExpired(CLEANUP_NOW));
+        finder("RevokedTokenRepository.findLiveJtis", t -> t.revokedTokens.findLiveJtis(CLEANUP_NOW));
+        finder("RevokedTokenRepository.findJtisRevokedSince", t -> t.revokedTokens.findJtisRevokedSince(SINCE));
+        finder("RevokedTokenRepository.deleteExpired", t -> t.revokedTokens.deleteExpired(CLEANUP_NOW));
+    }
+
+    private static void finder(String name, Consumer<RepositoryQueryPlanTest> call) {
+        FINDERS.put(name, call);
+    }
+
+    private static boolean seeded;
+
+    @Autowired
+    private AccountRepository accounts;
+    @Autowired
+    private TransactionRepository transactions;
+    @Autowired
+    private UserRepository users;
+    @Autowired
+    private NotificationRepository notifications;
+    @Autowired
+    private RefreshTokenRepository refreshTokens;
+    @Autowired
+    private RevokedTokenRepository revokedTokens;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private StatementCapture capture;
+
+    static Stream<String> finders() {
+        return FINDERS.keySet().stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("finders")
+    void finderDoesNotScanWholeTable(String name) {
+        capture.statements.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            FINDERS.get(name).accept(this);
+            status.setRollbackOnly();
+        });
+        List<String> executed = List.copyOf(capture.statements);
+        assertThat(executed).as("%s ran no SQL", name).isNotEmpty();
+
+        String method = name.split(" ")[0];
+        for (String sql : executed) {
+            for (Map<String, Object> row : jdbc.queryForList("explain " + sql)) {
+                String table = String.valueOf(row.get("table"));
+                if (!"ALL".equals(row.get("type")) || table.startsWith("<") || WHOLE_TABLE.containsKey(method)) {
+                    continue; // <derivedN>/<unionN>: scans of the query's own intermediate result
+                }
+                throw new AssertionError(name + " scans all of `" + table + "` (" + row.get("rows") + " rows"
+                        + ", possible keys " + row.get("possible_keys") + "):\n" + sql);
+            }
+        }
+    }
+
+    @Test
+    void everyQueryMethodIsExplained() {
+        Set<String> covered = FINDERS.keySet().stream().map(n -> n.split(" ")[0]).collect(Collectors.toSet());
+        List<String> missing = new ArrayList<>();
+        for (Class<?> repository : REPOSITORIES) {
+            for (Method m : repository.getDeclaredMethods()) {
+                String name = repository.getSimpleName() + "." + m.getName();
+                if (!m.isDefault() && !Modifier.isStatic(m.getModifiers()) && !m.isSynthetic() && !covered.contains(name)) {
+                    missing.add(name);
+                }
+            }
+        }
+        assertThat(missing).as("query methods without a FINDERS entry").isEmpty();
+        assertThat(WHOLE_TABLE.keySet()).as("WHOLE_TABLE entries without a finder").isSubsetOf(covered);
+    }
+
+    // ------------------------------------------------
+    // data set: large enough that MySQL picks the plans it would in production
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        insert("user", "id, email, name, password, role, status, status_version, status_changed_at, created_at", USERS,
+                i -> i + ", '" + email(i) + "', 'User " + i + "', 'x', 'USER', 1, " + (i % 50 == 0 ? 1 : 0) + ", "
+                        + (i % 50 == 0 ? at(LocalDateTime.of(2025, 12, 1, 0, 0).plusHours(i)) : "null") + ", "
+                        + at(day(i)));
+        insert("account", "account_id, user_id, balance, status, created_at, tx_count", ACCOUNTS,
+                i -> i + ", " + (1 + (i - 1) / 10) + ", 100, '" + (i % 100 == 0 ? "FROZEN" : "ACTIVE") + "', "
+                        + at(day(i)) + ", " + TX_PER_ACCOUNT);
+        insert("transaction", "transaction_id, account_id, type, amount, timestamp, reference_text", ACCOUNTS * TX_PER_ACCOUNT,
+                i -> i + ", " + (1 + (i - 1) / TX_PER_ACCOUNT) + ", '" + (i % 2 == 0 ? "CREDIT" : "DEBIT") + "', "
+                        + (i % 500) + ", " + at(day(i * 37).plusMinutes(i % 1440)) + ", 'ref " + i + "'");
+        insert("notification", "id, user_email, title, message, type, read_flag, created_at, meta", NOTIFICATIONS,
+                i -> i + ", '" + email(1 + i % USERS) + "', 'Title', 'Message " + i + "', 'INFO', " + (i % 3 == 0 ? 0 : 1)
+                        + ", " + at(day(i)) + ", null");
+        insert("refresh_token", "id, token_hash, user_id, family_id, expires_at, revoked, created_at", REFRESH_TOKENS,
+                i -> i + ", '" + tokenHash(i) + "', " + (1 + i % USERS) + ", '" + familyId(i) + "', "
+                        + at(i % 50 == 0 ? day(i) : LocalDateTime.of(2099, 1, 1, 0, 0)) + ", 0, " + at(day(i)));
+        insert("revoked_token", "jti, user_id, expires_at, revoked_at", REVOKED_TOKENS,
+                i -> "'jti-" + i + "', " + (1 + i % USERS) + ", "
+                        + at(i % 50 == 0 ? day(i) : LocalDateTime.of(2099, 1, 1, 0, 0)) + ", " + at(day(i)));
+        jdbc.execute("analyze table user, account, transaction, notification, refresh_token, revoked_token");
+        seeded = true;
+    }
+
+    private void insert(String table, String columns, int count, IntFunction<String> values) {
+        for (int from = 1; from <= count; from += 1_000) {
+            StringBuilder sql = new StringBuilder("insert into ").append(table).append(" (").append(columns).append(") values ");
+            for (int i = from; i < from + 1_000 && i <= count; i++) {
+                sql.append(i == from ? "(" : ", (").append(values.apply(i)).append(')');
+            }
+            jdbc.execute(sql.toString());
+        }
+    }
+
+    private static final DateTimeFormatter SQL_DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // spread over 2024-2025
+    private static LocalDateTime day(int i) {
+        return LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(i % 730);
+    }
+
+    private static String at(LocalDateTime t) {
+        return "'" + SQL_DATETIME.format(t) + "'";
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@example.com";
+    }
+
+    private static String tokenHash(int i) {
+        return "hash-" + i;
+    }
+
+    private static String familyId(int i) {
+        return "family-" + i / 4;
+    }
+
+    // ------------------------------------------------
+    // statement capture: the SQL of every executed PreparedStatement, with its bound values
+
+    @TestConfiguration
+    static class CaptureConfig {
+
+        @Bean
+        static StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+    }
+
+    static final class StatementCapture implements BeanPostProcessor {
+
+        final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return capturing(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return capturing(super.getConnection(username, password));
+                }
+            };
+        }
+
+        private Connection capturing(Connection connection) {
+            return proxy(Connection.class, connection, (method, result) ->
+                    method.getName().equals("prepareStatement") ? capturing((PreparedStatement) result) : result);
+        }
+
+        private PreparedStatement capturing(PreparedStatement statement) {
+            return proxy(PreparedStatement.class, statement, (method, result) -> result, method -> {
+                if (method.getName().startsWith("execute") && method.getParameterCount() == 0) {
+                    statements.add(boundSql(statement));
+                }
+            });
+        }
+
+        // Connector/J's client-side PreparedStatement prints "<class>: <sql with the bound values inlined>"
+        private static String boundSql(PreparedStatement statement) {
+            try {
+                String text = statement.unwrap(PreparedStatement.class).toString();
+                return text.substring(text.indexOf(": ") + 2);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private interface ResultMapper {
+            Object map(Method method, Object result) throws SQLException;
+        }
+
+        private static <T> T proxy(Class<T> type, T target, ResultMapper results) {
+            return proxy(type, target, results, method -> {
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, ResultMapper results, Consumer<Method> beforeCall) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+                beforeCall.accept(method);
+                try {
+                    return results.map(method, method.invoke(target, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+}
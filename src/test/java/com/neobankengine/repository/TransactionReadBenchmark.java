@@ -0,0 +1,141 @@
+package com.neobankengine.repository;
+
+import com.neobankengine.dto.TransactionResponse;
+import com.neobankengine.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mysql.MySQLContainer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A 100k-row statement read three ways: managed {@link Transaction} entities copied into
+ * {@link TransactionResponse} (the old path: every row also sits in the persistence
+ * context with its dirty-checking snapshot), the constructor projection returned as a
+ * List, and the projection streamed through a cursor as getTransactionsForStatement
+ * does. Reports median/max latency and the heap still reachable when the rows have
+ * been read but the transaction has not ended yet (after a full GC, less the baseline).
+ *
+ * Needs Docker. Run with {@code mvn test -Pbenchmark -Dtest=TransactionReadBenchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionReadBenchmark {
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer MYSQL = new MySQLContainer("mysql:8.4");
+
+    private static final long ACCOUNT = 1;
+    private static final int ROWS = 100_000;
+    private static final int WARMUP = 3;
+    private static final int RUNS = 10;
+
+    @Autowired
+    private TransactionRepository transactions;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    void seed() {
+        for (int from = 1; from <= ROWS; from += 1_000) {
+            StringBuilder sql = new StringBuilder("insert into transaction "
+                    + "(transaction_id, account_id, type, amount, timestamp, reference_text) values ");
+            for (int i = from; i < from + 1_000; i++) {
+                sql.append(i == from ? "(" : ", (").append(i).append(", ").append(ACCOUNT).append(", '")
+                        .append(i % 2 == 0 ? "CREDIT" : "DEBIT").append("', ").append(i % 5_000 / 10.0)
+                        .append(", timestamp('2024-01-01') + interval ").append(i * 300L).append(" second, 'ref ")
+                        .append(i).append("')");
+            }
+            jdbc.execute(sql.toString());
+        }
+        jdbc.execute("analyze table transaction");
+    }
+
+    @Test
+    void statementOf100kRows() {
+        System.out.printf("%-22s %9s %9s %12s%n", "read", "p50 ms", "max ms", "retained MB");
+        measure("entities + copy", () -> {
+            List<Transaction> entities = entityManager.createQuery(
+                            "select t from Transaction t where t.accountId = :accountId "
+                                    + "order by t.timestamp desc", Transaction.class)
+                    .setParameter("accountId", ACCOUNT)
+                    .getResultList();
+            return entities.stream()
+                    .map(t -> new TransactionResponse(t.getTransactionId(), t.getAccountId(), t.getType(),
+                            t.getAmount(), t.getTimestamp(), t.getReferenceText()))
+                    .collect(Collectors.toList());
+        });
+        measure("projection list", () -> transactions.findLatestByAccountId(ACCOUNT, PageRequest.of(0, ROWS)));
+        measure("projection stream", () -> {
+            try (Stream<TransactionResponse> rows = transactions.streamForStatement(ACCOUNT, null, null)) {
+                return rows.collect(Collectors.toList());
+            }
+        });
+    }
+
+    private void measure(String name, Supplier<List<TransactionResponse>> read) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < WARMUP; i++) {
+            tx.execute(status -> read.get());
+        }
+
+        long[] ms = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long t0 = System.nanoTime();
+            List<TransactionResponse> rows = tx.execute(status -> read.get());
+            ms[i] = (System.nanoTime() - t0) / 1_000_000;
+            assertThat(rows).hasSize(ROWS);
+        }
+        Arrays.sort(ms);
+
+        // what is reachable at the end of the read, persistence context included
+        long baseline = usedAfterGc();
+        long retained = tx.execute(status -> {
+            List<TransactionResponse> rows = read.get();
+            long used = usedAfterGc() - baseline;
+            assertThat(rows).hasSize(ROWS);
+            return used;
+        });
+        System.out.printf("%-22s %9d %9d %12.1f%n", name, ms[RUNS / 2], ms[RUNS - 1], retained / (1024.0 * 1024.0));
+    }
+
+    private static long usedAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
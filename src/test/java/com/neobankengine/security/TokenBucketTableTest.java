@@ -0,0 +1,143 @@
+package com.neobankengine.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Long refill intervals (a minute) keep the tests independent of scheduling jitter:
+ * no token comes back while a test runs unless it waits for one on purpose.
+ */
+class TokenBucketTableTest {
+
+    private static final long MINUTE = 60_000;
+
+    @Test
+    void capacityIsAPowerOfTwoOfAtLeastTheRequestedSize() {
+        assertThat(new TokenBucketTable(1000).capacity()).isEqualTo(1024);
+        assertThat(new TokenBucketTable(1024).capacity()).isEqualTo(1024);
+        assertThat(new TokenBucketTable(1).capacity()).isGreaterThanOrEqualTo(8);
+    }
+
+    @Test
+    void allowsTheBurstThenRejectsWithTheWaitForTheNextToken() {
+        TokenBucketTable table = new TokenBucketTable(1 << 10);
+        long key = TokenBucketTable.key(0, 1L);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(table.tryAcquire(key, MINUTE, 5)).as("request %d", i).isZero();
+        }
+        long wait = table.tryAcquire(key, MINUTE, 5);
+
+        assertThat(wait).isPositive().isLessThanOrEqualTo(MINUTE).isGreaterThan(MINUTE - 1_000);
+    }
+
+    @Test
+    void rejectedCallsDoNotConsumeTokens() {
+        TokenBucketTable table = new TokenBucketTable(1 << 10);
+        long key = TokenBucketTable.key(0, 1L);
+
+        assertThat(table.tryAcquire(key, MINUTE, 1)).isZero();
+        long first = table.tryAcquire(key, MINUTE, 1);
+        long second = table.tryAcquire(key, MINUTE, 1);
+
+        // the wait shrinks with time only; a rejection does not push it further out
+        assertThat(second).isLessThanOrEqualTo(first);
+    }
+
+    @Test
+    void refillsAfterTheInterval() throws InterruptedException {
+        TokenBucketTable table = new TokenBucketTable(1 << 10);
+        long key = TokenBucketTable.key(0, 1L);
+
+        assertThat(table.tryAcquire(key, 50, 1)).isZero();
+        long wait = table.tryAcquire(key, 50, 1);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(50);
+
+        Thread.sleep(wait + 5);
+        assertThat(table.tryAcquire(key, 50, 1)).isZero();
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        TokenBucketTable table = new TokenBucketTable(1 << 16);
+
+        for (long id = 1; id <= 1_000; id++) {
+            long key = TokenBucketTable.key(0, id);
+            assertThat(table.tryAcquire(key, MINUTE, 2)).as("user %d", id).isZero();
+            assertThat(table.tryAcquire(key, MINUTE, 2)).as("user %d", id).isZero();
+            assertThat(table.tryAcquire(key, MINUTE, 2)).as("user %d", id).isPositive();
+        }
+    }
+
+    @Test
+    void anOverfullTableIsOnlyStricterNeverLooser() {
+        // 16 slots for 1000 keys: most keys end up sharing a slot
+        TokenBucketTable table = new TokenBucketTable(16);
+
+        int allowed = 0;
+        int rejected = 0;
+        for (long id = 1; id <= 1_000; id++) {
+            long key = TokenBucketTable.key(0, id);
+            int grantedForKey = 0;
+            for (int i = 0; i < 3; i++) {
+                if (table.tryAcquire(key, MINUTE, 2) == 0) {
+                    grantedForKey++;
+                }
+            }
+            assertThat(grantedForKey).as("user %d", id).isLessThanOrEqualTo(2);
+            allowed += grantedForKey;
+            rejected += 3 - grantedForKey;
+        }
+        assertThat(allowed).isLessThanOrEqualTo(2_000);
+        assertThat(rejected).isGreaterThanOrEqualTo(1_000);
+    }
+
+    @Test
+    void concurrentCallersNeverGetMoreThanTheBurst() throws Exception {
+        TokenBucketTable table = new TokenBucketTable(1 << 10);
+        long key = TokenBucketTable.key(1, "10.0.0.1");
+        int threads = 8;
+        int callsPerThread = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    for (int i = 0; i < callsPerThread; i++) {
+                        if (table.tryAcquire(key, MINUTE, 100) == 0) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+
+            int total = 0;
+            for (Future<Integer> r : results) {
+                total += r.get();
+            }
+            assertThat(total).isEqualTo(100);
+        }
+    }
+
+    @Test
+    void keysAreStableAndSeparatedByClass() {
+        assertThat(TokenBucketTable.key(0, 42L)).isEqualTo(TokenBucketTable.key(0, 42L));
+        assertThat(TokenBucketTable.key(0, 42L)).isNotEqualTo(TokenBucketTable.key(1, 42L));
+        assertThat(TokenBucketTable.key(2, new StringBuilder("192.168.0.7")))
+                .isEqualTo(TokenBucketTable.key(2, "192.168.0.7"));
+        assertThat(TokenBucketTable.key(2, "192.168.0.7")).isNotEqualTo(TokenBucketTable.key(2, "192.168.0.8"));
+    }
+}
@@ -0,0 +1,147 @@
+package com.neobankengine.security;
+
+import com.neobankengine.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationListTest {
+
+    // ---------- Bloom filter ----------
+
+    @Test
+    void bloomHasNoFalseNegatives() {
+        TokenRevocationList.Bloom bloom = new TokenRevocationList.Bloom(100_000);
+        List<String> jtis = jtis(100_000);
+        jtis.forEach(bloom::add);
+
+        for (String jti : jtis) {
+            assertThat(bloom.mightContain(jti)).as(jti).isTrue();
+        }
+    }
+
+    @Test
+    void bloomFalsePositiveRateIsAboutOnePercentAtItsExpectedSize() {
+        TokenRevocationList.Bloom bloom = new TokenRevocationList.Bloom(100_000);
+        jtis(100_000).forEach(bloom::add);
+
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (String jti : jtis(probes)) {
+            if (bloom.mightContain(jti)) {
+                falsePositives++;
+            }
+        }
+        double rate = falsePositives / (double) probes;
+        assertThat(rate).isLessThan(0.02);
+        // ~9.6 bits per entry
+        assertThat(bloom.sizeBytes()).isBetween(100_000L, 130_000L);
+    }
+
+    @Test
+    void emptyBloomContainsNothing() {
+        TokenRevocationList.Bloom bloom = new TokenRevocationList.Bloom(0);
+
+        assertThat(bloom.sizeBytes()).isPositive();
+        assertThat(jtis(1_000)).noneMatch(bloom::mightContain);
+    }
+
+    @Test
+    void concurrentAddsAreNeverLost() throws Exception {
+        // small filter: threads keep setting bits in the same words
+        TokenRevocationList.Bloom bloom = new TokenRevocationList.Bloom(1_000);
+        int threads = 8;
+        List<List<String>> perThread = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            perThread.add(jtis(5_000));
+        }
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (List<String> batch : perThread) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    batch.forEach(bloom::add);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        }
+
+        perThread.forEach(batch -> assertThat(batch).allMatch(bloom::mightContain));
+    }
+
+    // ---------- revocation list ----------
+
+    @Test
+    void unrevokedTokensAreAnsweredWithoutTheDatabase() {
+        RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+        TokenRevocationList list = new TokenRevocationList(repository, mock(PlatformTransactionManager.class), 1_000);
+
+        for (String jti : jtis(1_000)) {
+            assertThat(list.isRevoked(principal(jti))).isFalse();
+        }
+        assertThat(list.isRevoked(principal(null))).isFalse();
+
+        // 1000 probes against an empty filter: not one primary-key lookup
+        verify(repository, never()).existsById(anyString());
+    }
+
+    @Test
+    void revokedTokensAreConfirmedInTheDatabase() {
+        RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+        TokenRevocationList list = new TokenRevocationList(repository, mock(PlatformTransactionManager.class), 1_000);
+        JwtPrincipal principal = principal(UUID.randomUUID().toString());
+        when(repository.existsById(principal.jti())).thenReturn(true);
+
+        list.revoke(principal);
+
+        verify(repository).save(any());
+        assertThat(list.isRevoked(principal)).isTrue();
+    }
+
+    @Test
+    void syncPicksUpRevocationsFromOtherNodes() {
+        RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+        TokenRevocationList list = new TokenRevocationList(repository, mock(PlatformTransactionManager.class), 1_000);
+        String remote = UUID.randomUUID().toString();
+        when(repository.findJtisRevokedSince(any())).thenReturn(List.of(remote));
+        when(repository.existsById(remote)).thenReturn(true);
+
+        assertThat(list.isRevoked(principal(remote))).isFalse();
+        list.sync();
+        assertThat(list.isRevoked(principal(remote))).isTrue();
+    }
+
+    private static JwtPrincipal principal(String jti) {
+        return new JwtPrincipal("user@example.com", 1L, "USER", 0, Instant.now().plusSeconds(900), jti);
+    }
+
+    private static List<String> jtis(int n) {
+        List<String> jtis = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            jtis.add(UUID.randomUUID().toString());
+        }
+        return jtis;
+    }
+}
@@ -0,0 +1,103 @@
+package com.neobankengine.security;
+
+import com.neobankengine.entity.User;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating a bearer token: full HS256 parse + verify versus a
+ * {@link VerifiedTokenCache} hit, plus the SHA-256 + Base64 key the cache used to
+ * derive per lookup. Every call decodes the token from bytes, as a request header
+ * does, so String.hashCode is paid each time.
+ *
+ * Run with {@code mvn test -Pbenchmark -Dtest=TokenVerificationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenVerificationBenchmark {
+
+    private JwtUtil verifying;
+    private JwtUtil caching;
+    private byte[] tokenBytes;
+
+    @Setup
+    public void setUp() {
+        // a cache that never hits: every call parses and checks the signature
+        verifying = jwtUtil(new VerifiedTokenCache(1) {
+            @Override
+            public JwtPrincipal get(String token, Instant now) {
+                return null;
+            }
+
+            @Override
+            public void put(String token, JwtPrincipal principal, Instant now) {
+            }
+        });
+        caching = jwtUtil(new VerifiedTokenCache(10_000));
+
+        User user = new User();
+        user.setId(42L);
+        user.setEmail("bench@example.com");
+        user.setRole("USER");
+        String token = caching.generateToken(user);
+        caching.verify(token);
+        tokenBytes = token.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public JwtPrincipal parseAndVerify() {
+        return verifying.verify(header());
+    }
+
+    @Benchmark
+    public JwtPrincipal cacheHit() {
+        return caching.verify(header());
+    }
+
+    @Benchmark
+    public String sha256Base64Key() throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(header().getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    private String header() {
+        return new String(tokenBytes, StandardCharsets.US_ASCII);
+    }
+
+    private static JwtUtil jwtUtil(VerifiedTokenCache cache) {
+        JwtUtil util = new JwtUtil(cache);
+        ReflectionTestUtils.setField(util, "secret", "benchmark-secret-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.setField(util, "jwtExpirationMs", 900_000L);
+        util.init();
+        return util;
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder().include(getClass().getName()).build()).run();
+    }
+}
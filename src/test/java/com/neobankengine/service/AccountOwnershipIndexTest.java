@@ -0,0 +1,170 @@
+package com.neobankengine.service;
+
+import com.neobankengine.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AccountOwnershipIndexTest {
+
+    // ---------- LongLongTable ----------
+
+    @Test
+    void tableReturnsMissingForAbsentKeys() {
+        AccountOwnershipIndex.LongLongTable table = new AccountOwnershipIndex.LongLongTable(16);
+
+        assertThat(table.get(1)).isEqualTo(AccountOwnershipIndex.LongLongTable.MISSING);
+        table.put(1, 10);
+        assertThat(table.get(2)).isEqualTo(AccountOwnershipIndex.LongLongTable.MISSING);
+    }
+
+    @Test
+    void tableOverwritesWithoutGrowing() {
+        AccountOwnershipIndex.LongLongTable table = new AccountOwnershipIndex.LongLongTable(16);
+
+        table.put(7, 70);
+        table.put(7, 71);
+
+        assertThat(table.get(7)).isEqualTo(71);
+        assertThat(table.size()).isEqualTo(1);
+    }
+
+    @Test
+    void tableKeepsEveryEntryAcrossResizes() {
+        AccountOwnershipIndex.LongLongTable table = new AccountOwnershipIndex.LongLongTable(16);
+        Map<Long, Long> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+
+        // sequential ids (the common case) plus sparse random ones
+        for (long id = 1; id <= 100_000; id++) {
+            table.put(id, id * 3);
+            expected.put(id, id * 3);
+        }
+        for (int i = 0; i < 50_000; i++) {
+            long id = random.nextLong(1, Long.MAX_VALUE);
+            table.put(id, i);
+            expected.put(id, (long) i);
+        }
+
+        assertThat(table.size()).isEqualTo(expected.size());
+        expected.forEach((id, owner) -> assertThat(table.get(id)).as("owner of %d", id).isEqualTo(owner));
+    }
+
+    @Test
+    void tableProbesPastCollisions() {
+        AccountOwnershipIndex.LongLongTable table = new AccountOwnershipIndex.LongLongTable(1 << 20);
+        // keys sharing a home slot in a 16-slot table: a probe chain there, spread out in the big table
+        List<Long> colliding = new ArrayList<>();
+        for (long id = 1; colliding.size() < 12; id++) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            if ((((int) (h ^ (h >>> 32))) & 15) == 3) {
+                colliding.add(id);
+            }
+        }
+        AccountOwnershipIndex.LongLongTable small = new AccountOwnershipIndex.LongLongTable(16);
+        for (long id : colliding) {
+            small.put(id, -id - 2);
+            table.put(id, -id - 2);
+        }
+
+        for (long id : colliding) {
+            assertThat(small.get(id)).isEqualTo(-id - 2);
+            assertThat(table.get(id)).isEqualTo(-id - 2);
+        }
+    }
+
+    // ---------- AccountOwnershipIndex ----------
+
+    @Test
+    void loadsAnOwnerOnceThenServesItFromMemory() {
+        AccountRepository repository = mock(AccountRepository.class);
+        when(repository.findUserIdById(5L)).thenReturn(50L);
+        AccountOwnershipIndex index = new AccountOwnershipIndex(repository, 100);
+
+        assertThat(index.findOwner(5)).isEqualTo(50L);
+        assertThat(index.findOwner(5)).isEqualTo(50L);
+
+        verify(repository, times(1)).findUserIdById(5L);
+    }
+
+    @Test
+    void unknownAccountsAreNotCached() {
+        AccountRepository repository = mock(AccountRepository.class);
+        when(repository.findUserIdById(9L)).thenReturn(null);
+        AccountOwnershipIndex index = new AccountOwnershipIndex(repository, 100);
+
+        assertThat(index.findOwner(9)).isNull();
+        assertThat(index.findOwner(9)).isNull();
+
+        verify(repository, times(2)).findUserIdById(9L);
+    }
+
+    @Test
+    void stopsGrowingAtMaxEntries() {
+        AccountRepository repository = mock(AccountRepository.class);
+        when(repository.findUserIdById(anyLong())).thenAnswer(inv -> (Long) inv.getArgument(0) * 10);
+        AccountOwnershipIndex index = new AccountOwnershipIndex(repository, 2);
+
+        index.findOwner(1);
+        index.findOwner(2);
+        index.findOwner(3); // over the cap: answered, not kept
+        index.findOwner(3);
+        index.findOwner(1);
+
+        verify(repository, times(1)).findUserIdById(1L);
+        verify(repository, times(2)).findUserIdById(3L);
+    }
+
+    @Test
+    void readersNeverSeeAWrongOwnerWhileTheTableGrows() throws Exception {
+        AccountRepository repository = mock(AccountRepository.class);
+        when(repository.findUserIdById(anyLong())).thenAnswer(inv -> (Long) inv.getArgument(0) * 7);
+        AccountOwnershipIndex index = new AccountOwnershipIndex(repository, 1_000_000);
+
+        int ids = 200_000;
+        AtomicLong written = new AtomicLong();
+        AtomicBoolean done = new AtomicBoolean();
+        try (ExecutorService pool = Executors.newFixedThreadPool(4)) {
+            List<Future<Long>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                int seed = r;
+                readers.add(pool.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    long wrong = 0;
+                    while (!done.get()) {
+                        long id = 1 + random.nextLong(Math.max(1, written.get()));
+                        Long owner = index.findOwner(id);
+                        if (owner == null || owner != id * 7) {
+                            wrong++;
+                        }
+                    }
+                    return wrong;
+                }));
+            }
+            for (long id = 1; id <= ids; id++) {
+                index.put(id, id * 7);
+                written.set(id);
+            }
+            done.set(true);
+            for (Future<Long> reader : readers) {
+                assertThat(reader.get()).isZero();
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.neobankengine.service;
+
+import com.neobankengine.dto.TransactionResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Time and peak heap of a statement PDF at 1k, 100k and 1M rows: streamed into the
+ * response (rows pulled from an iterator, pages flushed as they fill) versus the old
+ * in-memory way: the rows collected into a List first and the document built into a
+ * byte[]. Peak heap is the sum of the heap pools' peak usage over the iteration, so it
+ * includes garbage not yet collected; the forks run with a 256 MB heap to make the
+ * difference in what has to stay live visible.
+ *
+ * Run with {@code mvn test -Pbenchmark -Dtest=PdfStatementBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms256m", "-Xmx256m"})
+public class PdfStatementBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private PdfService pdfService;
+
+    @Setup
+    public void setUp() {
+        pdfService = new PdfService();
+    }
+
+    @Benchmark
+    public long streamToResponse(HeapPeak heap) {
+        CountingOutputStream out = new CountingOutputStream();
+        pdfService.writeStatementPdf(1L, rows(rows), 100.0, out);
+        return out.bytes;
+    }
+
+    @Benchmark
+    public int buildInMemory(HeapPeak heap) {
+        List<TransactionResponse> list = LongStream.range(0, rows).mapToObj(PdfStatementBenchmark::row).toList();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pdfService.writeStatementPdf(1L, list.iterator(), 100.0, out);
+        return out.toByteArray().length;
+    }
+
+    // ------------------------------------------------
+
+    /** Peak heap in MB over one single-shot iteration, reported next to the time. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapPeak {
+
+        public double peakHeapMb;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            System.gc();
+            heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+        }
+
+        @TearDown(Level.Iteration)
+        public void record() {
+            peakHeapMb = heapPools().stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum() / (1024.0 * 1024.0);
+        }
+
+        private static List<MemoryPoolMXBean> heapPools() {
+            return ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(p -> p.getType() == MemoryType.HEAP)
+                    .toList();
+        }
+    }
+
+    private static Iterator<TransactionResponse> rows(int count) {
+        return LongStream.range(0, count).mapToObj(PdfStatementBenchmark::row).iterator();
+    }
+
+    private static TransactionResponse row(long i) {
+        return new TransactionResponse(i + 1, 1L, i % 3 == 0 ? "DEBIT" : "CREDIT", 10.0 + i % 1_000,
+                LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(i), "ref " + i);
+    }
+
+    /** The response stream: counts what would go on the wire and keeps nothing. */
+    private static final class CountingOutputStream extends OutputStream {
+
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder().include(getClass().getName()).build()).run();
+    }
+}
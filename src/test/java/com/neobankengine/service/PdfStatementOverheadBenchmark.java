@@ -0,0 +1,94 @@
+package com.neobankengine.service;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.lowagie.text.Image;
+import com.lowagie.text.pdf.BaseFont;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed cost of one statement, i.e. a statement without rows. {@code emptyStatement}
+ * is the current path: logo, fonts and watermark size prepared once, the watermark a
+ * per-document template and the QR code vector rectangles. The other two repeat the
+ * per-statement work the old path did on top of that (logo read and decoded,
+ * watermark font created, QR code rasterised with setRGB and PNG-encoded), so
+ * before is roughly the sum of all three.
+ *
+ * Run with {@code mvn test -Pbenchmark -Dtest=PdfStatementOverheadBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfStatementOverheadBenchmark {
+
+    private static final String VERIFY_URL = "https://yourbank.example.com/verify?acc=1";
+
+    private PdfService pdfService;
+
+    @Setup
+    public void setUp() {
+        pdfService = new PdfService();
+    }
+
+    @Benchmark
+    public void emptyStatement() {
+        pdfService.writeStatementPdf(1L, Collections.emptyIterator(), 100.0, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void reloadAssets(Blackhole bh) throws Exception {
+        try (InputStream is = PdfService.class.getResourceAsStream("/static/logo.png")) {
+            Image logo = Image.getInstance(is.readAllBytes());
+            logo.scaleToFit(80, 80);
+            bh.consume(logo);
+        }
+        bh.consume(BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.EMBEDDED));
+    }
+
+    @Benchmark
+    public Image rasterQrPng() throws Exception {
+        int size = 120;
+        BitMatrix matrix = new QRCodeWriter().encode(VERIFY_URL, BarcodeFormat.QR_CODE, size, size);
+        BufferedImage img = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                img.setRGB(x, y, matrix.get(x, y) ? 0 : 0xFFFFFF);
+            }
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(img, "PNG", png);
+        return Image.getInstance(png.toByteArray());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder().include(getClass().getName()).build()).run();
+    }
+}
@@ -0,0 +1,156 @@
+package com.neobankengine.service;
+
+import com.neobankengine.dto.TransactionResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The exports must write rows as they arrive: a 1M-row statement is streamed through
+ * without any row staying reachable once written. Runs in the surefire "fixed-heap-tests"
+ * fork (-Xmx64m), where an export that collected its rows first fails with OOM; the
+ * weak-reference checks are a second signal on top of that.
+ */
+@Tag("fixed-heap")
+class StatementExportServiceTest {
+
+    private static final int ROWS = 1_000_000;
+    // 1M collected rows need well over this
+    private static final long MAX_HEAP = 64L * 1024 * 1024;
+    private static final int GC_ATTEMPTS = 20;
+    // every row keeps a weak reference to every SAMPLE_EVERY-th row to check retention
+    private static final int SAMPLE_EVERY = 10_000;
+
+    private final StatementExportService exporter = new StatementExportService(JsonMapper.builder().build());
+
+    @Test
+    void csvStreamsOneMillionRowsWithoutRetainingThem() throws IOException {
+        List<WeakReference<TransactionResponse>> samples = new ArrayList<>();
+        CountingOutputStream out = new CountingOutputStream();
+
+        exporter.writeCsv(rows(samples), out);
+
+        assertThat(out.lines).isEqualTo(ROWS + 1);
+        assertThat(out.bytes).isGreaterThan(ROWS * 40L);
+        assertRowsCollected(samples);
+    }
+
+    @Test
+    void jsonStreamsOneMillionRowsWithoutRetainingThem() {
+        List<WeakReference<TransactionResponse>> samples = new ArrayList<>();
+        CountingOutputStream out = new CountingOutputStream();
+
+        exporter.writeJson(rows(samples), out);
+
+        assertThat(out.bytes).isGreaterThan(ROWS * 80L);
+        assertThat(out.last).isEqualTo(']');
+        assertRowsCollected(samples);
+    }
+
+    @Test
+    void ndjsonStreamsOneMillionRowsWithoutRetainingThem() {
+        List<WeakReference<TransactionResponse>> samples = new ArrayList<>();
+        CountingOutputStream out = new CountingOutputStream();
+
+        exporter.writeNdjson(rows(samples), out);
+
+        assertThat(out.lines).isEqualTo(ROWS);
+        assertRowsCollected(samples);
+    }
+
+    @Test
+    void exportsFitInAHeapTooSmallForTheRows() throws IOException {
+        assumeTrue(Runtime.getRuntime().maxMemory() <= MAX_HEAP,
+                "needs the fixed-heap surefire execution (-Xmx64m)");
+        CountingOutputStream csv = new CountingOutputStream();
+        CountingOutputStream json = new CountingOutputStream();
+        CountingOutputStream ndjson = new CountingOutputStream();
+
+        exporter.writeCsv(rows(new ArrayList<>()), csv);
+        exporter.writeJson(rows(new ArrayList<>()), json);
+        exporter.writeNdjson(rows(new ArrayList<>()), ndjson);
+
+        assertThat(csv.lines).isEqualTo(ROWS + 1);
+        assertThat(json.last).isEqualTo(']');
+        assertThat(ndjson.lines).isEqualTo(ROWS);
+    }
+
+    private static Stream<TransactionResponse> rows(List<WeakReference<TransactionResponse>> samples) {
+        return LongStream.range(0, ROWS)
+                .mapToObj(StatementExportServiceTest::row)
+                .peek(r -> {
+                    if (r.getTransactionId() % SAMPLE_EVERY == 0) {
+                        samples.add(new WeakReference<>(r));
+                    }
+                });
+    }
+
+    private static TransactionResponse row(long i) {
+        return new TransactionResponse(i, 42L, i % 2 == 0 ? "CREDIT" : "DEBIT", (i % 100_000) / 100.0,
+                LocalDateTime.of(2025, 1, 1, 0, 0).plusSeconds(i), i % 3 == 0 ? "ATM \"withdrawal\"" : null);
+    }
+
+    private static void assertRowsCollected(List<WeakReference<TransactionResponse>> samples) {
+        assertThat(samples).hasSize(ROWS / SAMPLE_EVERY);
+        // System.gc() is only a hint: retry until the samples are cleared or we give up
+        long alive = samples.size();
+        for (int i = 0; i < GC_ATTEMPTS && alive > 1; i++) {
+            System.gc();
+            alive = samples.stream().filter(ref -> ref.get() != null).count();
+            if (alive > 1) {
+                sleep(50);
+            }
+        }
+        // at most the row in flight may still be referenced
+        assertThat(alive).isLessThanOrEqualTo(1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Discards output, counting bytes and newlines. */
+    private static final class CountingOutputStream extends OutputStream {
+        long bytes;
+        long lines;
+        int last;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            last = b;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+            if (len > 0) {
+                last = b[off + len - 1];
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.neobankengine.service;
+
+import com.neobankengine.dto.LoginResponse;
+import com.neobankengine.entity.RefreshToken;
+import com.neobankengine.entity.User;
+import com.neobankengine.repository.RefreshTokenRepository;
+import com.neobankengine.repository.RevokedTokenRepository;
+import com.neobankengine.repository.UserRepository;
+import com.neobankengine.security.JwtPrincipal;
+import com.neobankengine.security.JwtUtil;
+import com.neobankengine.security.TokenRevocationList;
+import com.neobankengine.security.VerifiedTokenCache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Sessions per second on 8 threads. Before refresh tokens a client renewed its hour-long
+ * access token by logging in again ({@code renewByLogin}: BCrypt plus a token); now it
+ * logs in once per session and renews with {@code renewByRefresh} (SHA-256 of the
+ * refresh token, rotation, a new pair). {@code revocationCheck} is what every
+ * authenticated request adds: the Bloom filter lookup, which for a live token never
+ * reaches the repository.
+ *
+ * Repositories are stubs, so this is the CPU side only; in production a refresh also
+ * makes four short primary-key/unique-index statements and a login two.
+ *
+ * Run with {@code mvn test -Pbenchmark -Dtest=TokenRenewalBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenRenewalBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+    private static final String PASSWORD = "correct horse battery staple";
+
+    private UserService userService;
+    private RefreshTokenService refreshTokenService;
+    private TokenRevocationList revocationList;
+    private JwtPrincipal principal;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        User user = new User();
+        user.setId(42L);
+        user.setEmail(EMAIL);
+        user.setRole("USER");
+        user.setStatus(true);
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+
+        UserRepository users = stub(UserRepository.class);
+        when(users.findFreshByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(users.findFreshById(42L)).thenReturn(Optional.of(user));
+
+        // every presented refresh token is a live one of the same family
+        RefreshTokenRepository refreshTokens = stub(RefreshTokenRepository.class);
+        when(refreshTokens.findByTokenHash(anyString())).thenAnswer(inv -> Optional.of(liveToken()));
+        when(refreshTokens.revokeIfActive(anyLong())).thenReturn(1);
+        when(refreshTokens.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        JwtUtil jwtUtil = new JwtUtil(new VerifiedTokenCache(10_000));
+        ReflectionTestUtils.setField(jwtUtil, "secret", "benchmark-secret-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 900_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+
+        revocationList = new TokenRevocationList(stub(RevokedTokenRepository.class),
+                mock(PlatformTransactionManager.class), 100_000);
+        refreshTokenService = new RefreshTokenService(refreshTokens, users, jwtUtil, revocationList);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpirationMs", 1_209_600_000L);
+        userService = new UserService(users, passwordEncoder, refreshTokenService);
+
+        LoginResponse session = userService.loginAndGetTokens(EMAIL, PASSWORD);
+        refreshToken = session.getRefreshToken();
+        principal = jwtUtil.verify(session.getToken());
+    }
+
+    @Benchmark
+    public LoginResponse renewByLogin() {
+        return userService.loginAndGetTokens(EMAIL, PASSWORD);
+    }
+
+    @Benchmark
+    public LoginResponse renewByRefresh() {
+        return refreshTokenService.refresh(refreshToken);
+    }
+
+    @Benchmark
+    public boolean revocationCheck() {
+        return revocationList.isRevoked(principal);
+    }
+
+    private static RefreshToken liveToken() {
+        RefreshToken token = new RefreshToken();
+        token.setId(1L);
+        token.setUserId(42L);
+        token.setFamilyId(UUID.randomUUID().toString());
+        token.setExpiresAt(LocalDateTime.now().plusDays(1));
+        return token;
+    }
+
+    // no invocation recording: the stubs are called millions of times from several threads
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder().include(getClass().getName()).build()).run();
+    }
+}
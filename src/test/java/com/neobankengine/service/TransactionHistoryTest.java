@@ -0,0 +1,93 @@
+package com.neobankengine.service;
+
+import com.neobankengine.archive.TransactionSegment;
+import com.neobankengine.archive.TransactionSegmentStore;
+import com.neobankengine.dto.TransactionResponse;
+import com.neobankengine.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionHistoryTest {
+
+    private static final long ACCOUNT = 7;
+    private static final YearMonth JAN = YearMonth.of(2025, 1);
+    private static final YearMonth FEB = YearMonth.of(2025, 2);
+    private static final LocalDateTime WATERMARK = YearMonth.of(2025, 3).atDay(1).atStartOfDay();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void offsetPagesContinueFromTheLiveTableIntoArchivedMonths() throws IOException {
+        // newest first: 23 live rows, then 15 in February, then 12 in January
+        List<TransactionResponse> live = rows(1_000, WATERMARK.plusDays(2), 23);
+        List<TransactionResponse> feb = rows(500, FEB.atDay(3).atStartOfDay(), 15);
+        List<TransactionResponse> jan = rows(100, JAN.atDay(3).atStartOfDay(), 12);
+
+        TransactionSegmentStore store = new TransactionSegmentStore(dir.toString());
+        store.publish(segment(JAN, jan));
+        store.publish(segment(FEB, feb));
+        assertThat(store.archivedBefore()).isEqualTo(WATERMARK);
+
+        TransactionRepository repository = mock(TransactionRepository.class);
+        when(repository.findPageSince(eq(ACCOUNT), eq(WATERMARK), any())).thenAnswer(inv -> {
+            Pageable p = inv.getArgument(2);
+            int from = (int) Math.min(p.getOffset(), live.size());
+            return live.subList(from, Math.min(from + p.getPageSize(), live.size()));
+        });
+        when(repository.countSince(ACCOUNT, WATERMARK)).thenReturn((long) live.size());
+        TransactionHistory history = new TransactionHistory(repository, store);
+
+        List<TransactionResponse> expected = new ArrayList<>(live);
+        expected.addAll(feb);
+        expected.addAll(jan);
+        for (int size : new int[]{5, 10, 23, 50}) {
+            List<TransactionResponse> walked = new ArrayList<>();
+            for (int page = 0; ; page++) {
+                List<TransactionResponse> rows = history.pageAt(ACCOUNT, page, size);
+                assertThat(rows.size()).as("page %d of size %d", page, size).isLessThanOrEqualTo(size);
+                walked.addAll(rows);
+                if (rows.size() < size) {
+                    break;
+                }
+            }
+            assertThat(walked).as("size %d", size).isEqualTo(expected);
+        }
+        assertThat(history.pageAt(ACCOUNT, 100, 10)).isEmpty();
+    }
+
+    // count rows one hour apart starting at start, returned newest first
+    private static List<TransactionResponse> rows(long firstId, LocalDateTime start, int count) {
+        List<TransactionResponse> out = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--) {
+            out.add(new TransactionResponse(firstId + i, ACCOUNT, i % 2 == 0 ? "CREDIT" : "DEBIT", 1.0 + i,
+                    start.plusHours(i), "ref " + (firstId + i)));
+        }
+        return out;
+    }
+
+    private TransactionSegment segment(YearMonth month, List<TransactionResponse> newestFirst) throws IOException {
+        Path file = TransactionSegmentStore.fileFor(dir, month);
+        try (TransactionSegment.Writer w = TransactionSegment.writer(file)) {
+            for (int i = newestFirst.size() - 1; i >= 0; i--) {
+                w.add(newestFirst.get(i));
+            }
+            w.finish();
+        }
+        return TransactionSegment.open(file, month);
+    }
+}
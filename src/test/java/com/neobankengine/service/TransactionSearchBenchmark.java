@@ -0,0 +1,176 @@
+package com.neobankengine.service;
+
+import com.neobankengine.dto.TransactionSearchCriteria;
+import com.neobankengine.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mysql.MySQLContainer;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Representative audit searches over 10M synthetic transactions (100k accounts, two
+ * years, one row every 6 s) in MySQL: latency percentiles per query, the planner's index
+ * and whether the query stayed inside the {@code admin.search.max-execution-ms} budget.
+ * Paging is measured by walking ten pages with the keyset cursor.
+ *
+ * Needs Docker and a few minutes to seed. Run with
+ * {@code mvn test -Pbenchmark -Dtest=TransactionSearchBenchmark}.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false",
+        "admin.search.max-execution-ms=2000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TransactionSearchService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionSearchBenchmark {
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer MYSQL = new MySQLContainer("mysql:8.4")
+            .withCommand("--innodb-buffer-pool-size=2G", "--innodb-flush-log-at-trx-commit=2");
+
+    private static final long ROWS = 10_000_000;
+    private static final long ACCOUNTS = 100_000;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int WARMUP = 3;
+    private static final int RUNS = 20;
+
+    // name -> criteria, in report order
+    private static final Map<String, Consumer<TransactionSearchCriteria>> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("10 accounts, 90 days", c -> {
+            c.setAccountIds(LongStream.rangeClosed(1, 10).map(i -> i * 7_919).boxed().toList());
+            c.setFrom(START.plusDays(300));
+            c.setTo(START.plusDays(390));
+        });
+        QUERIES.put("1000 accounts, no window", c ->
+                c.setAccountIds(LongStream.rangeClosed(1, 1_000).map(i -> i * 97).boxed().toList()));
+        QUERIES.put("amount >= 9990, 30 days", c -> {
+            c.setMinAmount(9_990.0);
+            c.setFrom(START.plusDays(200));
+            c.setTo(START.plusDays(230));
+        });
+        QUERIES.put("amount 100-200, DEBIT, 7 days", c -> {
+            c.setMinAmount(100.0);
+            c.setMaxAmount(200.0);
+            c.setType("DEBIT");
+            c.setFrom(START.plusDays(400));
+            c.setTo(START.plusDays(407));
+        });
+        QUERIES.put("CREDIT, 1 day", c -> {
+            c.setType("CREDIT");
+            c.setFrom(START.plusDays(500));
+            c.setTo(START.plusDays(501));
+        });
+        QUERIES.put("'refund', 30 days", c -> {
+            c.setReference("refund");
+            c.setFrom(START.plusDays(100));
+            c.setTo(START.plusDays(130));
+        });
+        QUERIES.put("latest 100, no filter", c -> {
+        });
+        QUERIES.put("amount >= 9999.99, all time", c -> c.setMinAmount(9_999.99));
+    }
+
+    @Autowired
+    private TransactionSearchService search;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeAll
+    void seed() {
+        long started = System.nanoTime();
+        jdbc.execute("set session cte_max_recursion_depth = 10000");
+        jdbc.execute("create table seq (n int primary key)");
+        jdbc.execute("insert into seq with recursive s(n) as (select 0 union all select n + 1 from s where n < 9999) "
+                + "select n from s");
+        // 10 statements of 1M rows; timestamps follow ids, accounts and amounts are scattered
+        for (int chunk = 0; chunk < ROWS / 1_000_000; chunk++) {
+            jdbc.update("insert into transaction (transaction_id, account_id, type, amount, timestamp, reference_text) "
+                    + "select id, 1 + (id * 7919) % " + ACCOUNTS + ", if(id % 2 = 0, 'CREDIT', 'DEBIT'), "
+                    + "(id * 104729) % 1000000 / 100, timestamp('2024-01-01') + interval (id * 6) second, "
+                    + "concat(if(id % 1000 = 0, 'refund ', 'ref '), id) "
+                    + "from (select a.n * 10000 + b.n + 1 as id from seq a cross join seq b "
+                    + "where a.n between ? and ?) x", chunk * 100, chunk * 100 + 99);
+        }
+        jdbc.execute("drop table seq");
+        jdbc.execute("analyze table transaction");
+        System.out.printf("seeded %,d transactions in %d s%n", ROWS, (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    @Test
+    void auditQueries() {
+        System.out.printf("%-32s %-20s %6s %9s %9s %9s%n", "query", "index", "rows", "p50 ms", "p95 ms", "max ms");
+        for (Map.Entry<String, Consumer<TransactionSearchCriteria>> q : QUERIES.entrySet()) {
+            TransactionSearchCriteria c = new TransactionSearchCriteria();
+            q.getValue().accept(c);
+            report(q.getKey(), c);
+        }
+    }
+
+    @Test
+    void keysetPaging() {
+        TransactionSearchCriteria c = new TransactionSearchCriteria();
+        c.setType("DEBIT");
+        c.setFrom(START.plusDays(600));
+        String after = null;
+        long[] pageMs = new long[10];
+        for (int page = 0; page < pageMs.length; page++) {
+            long t0 = System.nanoTime();
+            TransactionSearchService.Result r = search.search(c, after, TransactionSearchService.MAX_LIMIT);
+            pageMs[page] = (System.nanoTime() - t0) / 1_000_000;
+            assertThat(r.page().getItems()).hasSize(TransactionSearchService.MAX_LIMIT);
+            after = r.page().getNextCursor();
+        }
+        // a keyset page costs the same however deep it is
+        System.out.println("DEBIT since day 600, pages of 1000, ms per page: " + Arrays.toString(pageMs));
+    }
+
+    private void report(String name, TransactionSearchCriteria c) {
+        long[] ms = new long[RUNS];
+        TransactionSearchService.Result last = null;
+        try {
+            for (int i = 0; i < WARMUP; i++) {
+                search.search(c, null, null);
+            }
+            for (int i = 0; i < RUNS; i++) {
+                long t0 = System.nanoTime();
+                last = search.search(c, null, null);
+                ms[i] = (System.nanoTime() - t0) / 1_000_000;
+            }
+        } catch (BadRequestException e) {
+            // over the time budget: the search is refused rather than left to scan
+            System.out.printf("%-32s %-20s %s%n", name, TransactionSearchService.plan(c).getIndexName(), e.getMessage());
+            return;
+        }
+        Arrays.sort(ms);
+        System.out.printf("%-32s %-20s %6d %9d %9d %9d%n", name, last.plan().getIndexName(),
+                last.page().getItems().size(), ms[RUNS / 2], ms[RUNS * 95 / 100], ms[RUNS - 1]);
+    }
+}